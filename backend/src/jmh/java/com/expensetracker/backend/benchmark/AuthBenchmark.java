@@ -0,0 +1,119 @@
+package com.expensetracker.backend.benchmark;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.service.JwtService;
+import com.expensetracker.backend.util.BloomFilter;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * AuthBenchmark
+ * ----------------------------------------------------------------------------
+ * Per-request cost of authentication:
+ *
+ *  - jwtGenerate         : JwtService.generateToken (login)
+ *  - jwtExtract          : JwtService.extractEmail  (every authenticated call),
+ *                          token already verified once → claims cache hit
+ *  - jwtExtractUncached  : full HMAC check and JSON parse with a key and
+ *                          parser built once (what a cache miss costs)
+ *  - jwtExtractPerCall   : the previous implementation, building the key
+ *                          and the parser for every token
+ *  - bcryptMatches       : BCrypt password check at the given cost (login);
+ *                          run with several costs on the production hardware
+ *                          to choose app.security.bcrypt.cost (~100 ms)
+ *  - revocationCheck     : Bloom filter lookup of a session that was NOT
+ *                          revoked, with 10 000 revoked sessions (the
+ *                          RevocationService fast path, every call)
+ *
+ *      mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthBenchmark.bcrypt -p bcryptCost=10,11,12"
+ * ----------------------------------------------------------------------------
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthBenchmark {
+
+    @Param({"10"})
+    public int bcryptCost;
+
+    // Same secret as JwtService (for the per-call baseline)
+    private static final String SECRET_KEY = "THIS_IS_A_VERY_SECRET_KEY_1234567890";
+
+    private final JwtService jwtService = new JwtService(new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(15));
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+            .build();
+
+    private User user;
+    private String token;
+    private BCryptPasswordEncoder encoder;
+    private String passwordHash;
+    private BloomFilter revoked;
+    private String sessionId;
+
+    @Setup
+    public void setUp() {
+        // Typical claims: id + a handful of teams
+        user = new User("Bench", "User", "bench@example.com", null);
+        user.setId("65f0c0ffee0000000000beef");
+        user.setTeamIds(new ArrayList<>(List.of("65f0c0ffee0000000000t001", "65f0c0ffee0000000000t002",
+                "65f0c0ffee0000000000t003")));
+        sessionId = UUID.randomUUID().toString();
+        token = jwtService.generateToken(user, sessionId);
+        encoder = new BCryptPasswordEncoder(bcryptCost);
+        passwordHash = encoder.encode("correct horse battery staple");
+
+        revoked = new BloomFilter(20_000, 0.01);
+        for (int i = 0; i < 10_000; i++) revoked.put(UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public String jwtGenerate() {
+        return jwtService.generateToken(user, sessionId);
+    }
+
+    @Benchmark
+    public String jwtExtract() {
+        return jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public String jwtExtractUncached() {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String jwtExtractPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return encoder.matches("correct horse battery staple", passwordHash);
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revoked.mightContain(sessionId);
+    }
+}
@@ -0,0 +1,76 @@
+package com.expensetracker.backend.benchmark;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.service.BalanceKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * BalanceKernelBenchmark
+ * ----------------------------------------------------------------------------
+ * Throughput of computing a team's balances from its expenses:
+ *
+ *  - kernel   : BalanceKernel (interned ids, long[] minor units)
+ *  - hashMap  : the previous approach, HashMap<String, Double> with one
+ *               boxed merge per share side
+ *
+ * Teams of 20 members (-p members=...) with 10 / 1,000 / 100,000 expenses;
+ * about a third of the shares are already approved (skipped by both).
+ * This is the loop behind the team summary (ledger rebuilds).
+ *
+ *      mvn -Pbenchmark test-compile exec:exec -Djmh.args="BalanceKernel"
+ * ----------------------------------------------------------------------------
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalanceKernelBenchmark {
+
+    @Param({"20"})
+    public int members;
+
+    @Param({"10", "1000", "100000"})
+    public int expenses;
+
+    private List<Expense> history;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        history = data.expenses("team-1", data.memberIds(members), expenses);
+    }
+
+    @Benchmark
+    public Map<String, Long> kernel() {
+        BalanceKernel kernel = new BalanceKernel(members);
+        for (Expense expense : history) {
+            kernel.addOutstanding(expense, 1);
+        }
+        return kernel.toMap();
+    }
+
+    @Benchmark
+    public Map<String, Double> hashMap() {
+        Map<String, Double> balances = new HashMap<>();
+        for (Expense expense : history) {
+            String payerId = expense.getPaidByUserId();
+
+            for (ExpenseShare share : expense.getShares()) {
+                if (share.getUserId().equals(payerId)) continue;
+                if ("APPROVED".equals(share.getStatus())) continue;
+
+                double amount = share.getAmount();
+                balances.merge(share.getUserId(), -amount, Double::sum);
+                balances.merge(payerId, amount, Double::sum);
+            }
+        }
+        return balances;
+    }
+}
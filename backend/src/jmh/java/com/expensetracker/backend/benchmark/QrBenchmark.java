@@ -0,0 +1,44 @@
+package com.expensetracker.backend.benchmark;
+
+import com.expensetracker.backend.service.TeamQrService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * QrBenchmark
+ * ----------------------------------------------------------------------------
+ * Cost of a team's join QR code (GET /api/team/team/{teamId}/qr):
+ *
+ *  - render : encoding + PNG compression (every request before caching,
+ *             now only the first one per team)
+ *  - cached : TeamQrService.forJoinCode() once the PNG is in the cache
+ *
+ *      mvn -Pbenchmark test-compile exec:exec -Djmh.args="QrBenchmark"
+ * ----------------------------------------------------------------------------
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QrBenchmark {
+
+    private static final String JOIN_CODE = "65F1C2A9";
+
+    private final TeamQrService teamQr =
+            new TeamQrService(new SimpleMeterRegistry(), "http://localhost:5173/join-team/", 4);
+
+    @Benchmark
+    public TeamQrService.TeamQr render() {
+        return TeamQrService.render("http://localhost:5173/join-team/" + JOIN_CODE);
+    }
+
+    @Benchmark
+    public TeamQrService.TeamQr cached() {
+        return teamQr.forJoinCode(JOIN_CODE);
+    }
+}
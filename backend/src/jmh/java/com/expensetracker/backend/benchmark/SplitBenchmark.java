@@ -0,0 +1,93 @@
+package com.expensetracker.backend.benchmark;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.service.ExpenseSplitService;
+import com.expensetracker.backend.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * SplitBenchmark
+ * ----------------------------------------------------------------------------
+ * Building the shares of a new expense (ExpenseSplitService):
+ *
+ *  - evenSplit      : POST /api/expenses/add
+ *  - customExact    : POST /api/expenses/custom-add, splitType EXACT
+ *                     (JSON body already parsed into Maps, as Spring hands it over)
+ *  - customWeighted : same, splitType WEIGHTED
+ *
+ *      mvn -Pbenchmark test-compile exec:exec -Djmh.args="SplitBenchmark -p members=5000"
+ * ----------------------------------------------------------------------------
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SplitBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int members;
+
+    private final ExpenseSplitService splitService = new ExpenseSplitService();
+
+    private List<String> memberIds;
+    private long amount;
+    private Map<String, Object> exactBody;
+    private Map<String, Object> weightedBody;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(7);
+        memberIds = data.memberIds(members);
+
+        // EXACT: random parts, total = their sum
+        List<Map<String, Object>> exactShares = new ArrayList<>();
+        long total = 0;
+        for (String id : memberIds) {
+            long part = data.amount(10_000);
+            total += part;
+            exactShares.add(Map.of("userId", id, "amount", Money.toMajor(part)));
+        }
+        amount = total;
+        exactBody = body("EXACT", total, exactShares);
+
+        // WEIGHTED: weights 1..5
+        List<Map<String, Object>> weightedShares = new ArrayList<>();
+        for (String id : memberIds) {
+            weightedShares.add(Map.of("userId", id, "weight", 1 + data.amount(5)));
+        }
+        weightedBody = body("WEIGHTED", total, weightedShares);
+    }
+
+    private Map<String, Object> body(String splitType, long total, List<Map<String, Object>> shares) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("teamId", "team-1");
+        body.put("paidByUserId", memberIds.get(0));
+        body.put("description", "Benchmark");
+        body.put("amount", Money.toMajor(total));
+        body.put("splitType", splitType);
+        body.put("shares", shares);
+        return body;
+    }
+
+    @Benchmark
+    public List<ExpenseShare> evenSplit() {
+        return splitService.splitEvenly(memberIds, memberIds.get(0), amount);
+    }
+
+    @Benchmark
+    public Expense customExact() {
+        return splitService.parseCustomSplit(exactBody);
+    }
+
+    @Benchmark
+    public Expense customWeighted() {
+        return splitService.parseCustomSplit(weightedBody);
+    }
+}
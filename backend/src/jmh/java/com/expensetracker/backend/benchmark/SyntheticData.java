@@ -0,0 +1,80 @@
+package com.expensetracker.backend.benchmark;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ----------------------------------------------------------------------------
+ * SyntheticData
+ * ----------------------------------------------------------------------------
+ * Deterministic fake teams for the benchmarks (same seed → same data).
+ *
+ * Team size and history length come from each benchmark's @Param values,
+ * which can be overridden on the command line, e.g.
+ *
+ *      -Djmh.args="BalanceKernel -p members=50 -p expenses=250000"
+ * ----------------------------------------------------------------------------
+ */
+final class SyntheticData {
+
+    private final Random random;
+
+    SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Member ids as fresh String objects (like ids decoded from MongoDB
+     * documents, so no identity shortcuts in equals / hashCode caching).
+     */
+    List<String> memberIds(int members) {
+        List<String> ids = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            ids.add(new String(("user-" + new UUID(random.nextLong(), random.nextLong())).toCharArray()));
+        }
+        return ids;
+    }
+
+    /**
+     * Expenses split between all members, paid by a random member; about a
+     * third of the shares are already approved.
+     */
+    List<Expense> expenses(String teamId, List<String> memberIds, int count) {
+        List<Expense> history = new ArrayList<>(count);
+
+        for (int e = 0; e < count; e++) {
+            String payer = memberIds.get(random.nextInt(memberIds.size()));
+
+            List<ExpenseShare> shares = new ArrayList<>(memberIds.size());
+            long total = 0;
+            for (String member : memberIds) {
+                long part = random.nextInt(5_000);
+                ExpenseShare share = new ExpenseShare(member, part, member.equals(payer));
+                if (random.nextInt(3) == 0) share.setStatus("APPROVED");
+                shares.add(share);
+                total += part;
+            }
+
+            Expense expense = new Expense();
+            expense.setTeamId(teamId);
+            expense.setPaidByUserId(payer);
+            expense.setDescription("Expense " + e);
+            expense.setAmountMinor(total);
+            expense.setDate(Instant.ofEpochSecond(1_700_000_000L + e));
+            expense.setShares(shares);
+            history.add(expense);
+        }
+
+        return history;
+    }
+
+    /**
+     * A random amount in minor units below the given bound.
+     */
+    long amount(int bound) {
+        return random.nextInt(bound);
+    }
+}
@@ -0,0 +1,100 @@
+package com.expensetracker.backend.benchmark;
+
+import com.expensetracker.backend.dto.TeamTotals;
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.TeamRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.EntityCacheService;
+import com.expensetracker.backend.service.TeamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * TeamServiceBenchmark
+ * ----------------------------------------------------------------------------
+ * TeamService.getTeamExpensesForUser() for a user in N teams.
+ *
+ * The repositories are in-memory stubs returning prepared results, so
+ * this measures the service's own work (team lookup, joining the per-team
+ * totals, keeping team order, minor → major units) — the MongoDB
+ * aggregation itself runs inside the database and is not part of it.
+ *
+ *      mvn -Pbenchmark test-compile exec:exec -Djmh.args="TeamServiceBenchmark -p teams=10000"
+ * ----------------------------------------------------------------------------
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TeamServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int teams;
+
+    private final TeamService teamService = new TeamService();
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(11);
+
+        User user = new User("Bench", "User", "bench@example.com", "x");
+        user.setId("user-1");
+
+        List<Team> teamList = new ArrayList<>();
+        List<TeamTotals> totals = new ArrayList<>();
+        for (int i = 0; i < teams; i++) {
+            Team team = new Team();
+            ReflectionTestUtils.setField(team, "id", "team-" + i);
+            team.setTeamName("Team " + i);
+            teamList.add(team);
+
+            // Most teams have something outstanding
+            if (i % 4 != 0) {
+                TeamTotals t = new TeamTotals();
+                t.setTeamId("team-" + i);
+                t.setNeedToPay(data.amount(100_000));
+                t.setNeedToGet(data.amount(100_000));
+                totals.add(t);
+            }
+        }
+        user.setTeamIds(teamList.stream().map(Team::getId).toList());
+
+        TeamRepository teamRepo = stub(TeamRepository.class, "findAllById", teamList);
+        UserRepository userRepo = stub(UserRepository.class, "findById", Optional.of(user));
+
+        // Real cache in front of the stub: the user lookup is a cache hit, as in production
+        ReflectionTestUtils.setField(teamService, "entityCache", new EntityCacheService(
+                userRepo, teamRepo, new SimpleMeterRegistry(), 32, 8, 100_000, Duration.ofMinutes(10)));
+        ReflectionTestUtils.setField(teamService, "teamRepo", teamRepo);
+        ReflectionTestUtils.setField(teamService, "expenseRepo", stub(ExpenseRepository.class,
+                "sumOutstandingByTeam", totals));
+    }
+
+    @Benchmark
+    public List<Team> getTeamExpensesForUser() {
+        return teamService.getTeamExpensesForUser("user-1");
+    }
+
+    /**
+     * Repository stub answering ONE method with a fixed result.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, m, args) -> {
+                    if (m.getName().equals(method)) return result;
+                    throw new UnsupportedOperationException(m.getName());
+                });
+    }
+}
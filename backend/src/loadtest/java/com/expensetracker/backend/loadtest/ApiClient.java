@@ -0,0 +1,119 @@
+package com.expensetracker.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * ----------------------------------------------------------------------------
+ * ApiClient
+ * ----------------------------------------------------------------------------
+ * Thin, timed wrapper around java.net.http.HttpClient.
+ *
+ * Every call takes the route template (used as the histogram key) and the
+ * concrete path, sends the request, and records its latency and outcome in
+ * LatencyStats. Calls block: each virtual user runs on its own virtual
+ * thread, so blocking is cheap and keeps the scenarios readable.
+ *
+ * Calls take the virtual user's JWT (null before login), sent as
+ * "Authorization: Bearer ..." like the frontend does.
+ *
+ * Recording can be switched off for the warm-up phase.
+ * ----------------------------------------------------------------------------
+ */
+class ApiClient {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LatencyStats stats;
+    private final Duration timeout;
+
+    private volatile boolean recording;
+
+    ApiClient(String baseUrl, LatencyStats stats, Duration timeout) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.timeout = timeout;
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Result of one call; body is null if the call failed or was not JSON.
+     */
+    record Response(int status, JsonNode body) {
+        boolean ok() { return status >= 200 && status < 300; }
+    }
+
+    Response get(String token, String route, String path) {
+        return send(route, request(token, path).GET());
+    }
+
+    Response post(String token, String route, String path, Object body) {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+
+        return send(route, request(token, path)
+                .header("Content-Type", "application/json")
+                .POST(publisher));
+    }
+
+    private Response send(String route, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        int status = 0;
+        String text = null;
+
+        try {
+            HttpResponse<String> response = http.send(request.timeout(timeout).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            text = response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Connection refused, timeout, ... → status 0 (error)
+        }
+
+        long nanos = System.nanoTime() - start;
+        if (recording) stats.record(route, nanos, status < 200 || status >= 400);
+
+        return new Response(status, parse(text));
+    }
+
+    private HttpRequest.Builder request(String token, String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static JsonNode parse(String text) {
+        if (text == null || text.isEmpty()) return null;
+        char first = text.charAt(0);
+        if (first != '{' && first != '[') return null;   // plain-text answers
+
+        try {
+            return JSON.readTree(text);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
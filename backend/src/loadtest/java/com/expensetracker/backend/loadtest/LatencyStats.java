@@ -0,0 +1,106 @@
+package com.expensetracker.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ----------------------------------------------------------------------------
+ * LatencyStats
+ * ----------------------------------------------------------------------------
+ * Per-endpoint latency histograms (HdrHistogram, microseconds) and error
+ * counts, shared by all virtual users of a run.
+ *
+ * Endpoints are keyed by their route template ("GET /api/team/members/{teamId}"),
+ * not the concrete URL, so every call of the same route lands in one histogram.
+ *
+ * A request counts as an error if it failed (I/O, timeout) or answered with
+ * a status >= 400. Its latency is still recorded: slow failures matter too.
+ * ----------------------------------------------------------------------------
+ */
+class LatencyStats {
+
+    // 1 µs .. 1 min, 3 significant digits
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    /**
+     * Records one request of the given route.
+     */
+    void record(String route, long nanos, boolean error) {
+        Endpoint endpoint = endpoints.computeIfAbsent(route, r -> new Endpoint());
+        endpoint.histogram.recordValue(Math.min(Math.max(1, nanos / 1_000), MAX_MICROS));
+        if (error) endpoint.errors.increment();
+    }
+
+    /**
+     * Prints the p50 / p95 / p99 / max table (milliseconds) and error rates.
+     */
+    void print(PrintStream out, double seconds) {
+        out.printf("%-58s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "err%", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+
+        Histogram all = new Histogram(MAX_MICROS, 3);
+        long allErrors = 0;
+
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram h = entry.getValue().histogram.copy();
+            long errors = entry.getValue().errors.sum();
+            all.add(h);
+            allErrors += errors;
+            printRow(out, entry.getKey(), h, errors, seconds);
+        }
+
+        printRow(out, "TOTAL", all, allErrors, seconds);
+    }
+
+    /**
+     * Writes every histogram to an .hlog file (one tagged interval per
+     * endpoint), so runs can be compared / plotted with the HdrHistogram tools.
+     */
+    void writeLog(Path file, long startMillis, long endMillis) throws Exception {
+        Files.createDirectories(file.getParent());
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.outputLegend();
+
+            for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+                Histogram h = entry.getValue().histogram.copy();
+                h.setStartTimeStamp(startMillis);
+                h.setEndTimeStamp(endMillis);
+                // Tags may not contain spaces or commas
+                h.setTag(entry.getKey().replaceAll("[\\s,]", "_"));
+                writer.outputIntervalHistogram(h);
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String route, Histogram h, long errors, double seconds) {
+        long count = h.getTotalCount();
+        out.printf("%-58s %8d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                route, count,
+                count == 0 ? 0.0 : 100.0 * errors / count,
+                count / seconds,
+                h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(95) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0,
+                h.getMaxValue() / 1000.0);
+    }
+
+    private static class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(MAX_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+}
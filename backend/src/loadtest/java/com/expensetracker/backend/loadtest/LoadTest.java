@@ -0,0 +1,129 @@
+package com.expensetracker.backend.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * ----------------------------------------------------------------------------
+ * LoadTest
+ * ----------------------------------------------------------------------------
+ * End-to-end load generator for the running backend. Each virtual user is a
+ * virtual thread running a Scenario (login, my teams, members, then add /
+ * custom-add / pay / approve / summary / list) in a closed loop.
+ *
+ * Meant to run against the "local-perf" profile, whose generated users
+ * (perf<n>@perf.local) are used as the virtual users:
+ *
+ *      mvn spring-boot:run -Dspring-boot.run.profiles=local-perf
+ *      mvn -Ploadtest test-compile exec:exec -Dloadtest.args="clients=100 label=before"
+ *
+ * Options (name=value):
+ *   base-url     http://localhost:8080
+ *   clients      50      concurrent virtual users
+ *   iterations   100     measured iterations per user
+ *   warmup       10      unmeasured iterations per user (JIT, caches, pools)
+ *   users        1000    size of the local-perf user pool
+ *   password     password
+ *   seed         42      same seed + freshly started app = same requests
+ *   timeout-ms   10000
+ *   label        run     report name
+ *   out          target/loadtest
+ *
+ * A run does a fixed amount of work (clients x iterations), so runs on
+ * different commits are comparable. Restart the app between runs: the
+ * scenarios change data (expenses, payments) and the local-perf dataset
+ * is regenerated identically at every start.
+ *
+ * Output: a p50 / p95 / p99 / max + error-rate table per endpoint, printed
+ * and saved as <out>/<label>.txt, plus the raw histograms in <label>.hlog.
+ * ----------------------------------------------------------------------------
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "50"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "100"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        String password = options.getOrDefault("password", "password");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Duration timeout = Duration.ofMillis(Long.parseLong(options.getOrDefault("timeout-ms", "10000")));
+        String label = options.getOrDefault("label", "run");
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest"));
+
+        LatencyStats stats = new LatencyStats();
+        ApiClient api = new ApiClient(baseUrl, stats, timeout);
+
+        // Everyone finishes warming up before measuring starts
+        long[] measureStart = new long[2];
+        CyclicBarrier measuring = new CyclicBarrier(clients, () -> {
+            api.setRecording(true);
+            measureStart[0] = System.nanoTime();
+            measureStart[1] = System.currentTimeMillis();
+        });
+
+        System.out.println("Load test: " + clients + " clients x " + iterations + " iterations against " + baseUrl);
+
+        List<Future<?>> runs = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                String email = "perf" + (i % users) + "@perf.local";
+                Scenario scenario = new Scenario(api, seed + i, email, password);
+
+                runs.add(executor.submit(() -> {
+                    boolean loggedIn = scenario.login();
+                    for (int n = 0; loggedIn && n < warmup; n++) scenario.iteration();
+
+                    measuring.await();
+                    if (!scenario.login()) return null;
+                    for (int n = 0; n < iterations; n++) scenario.iteration();
+                    return null;
+                }));
+            }
+        }   // close() waits for every virtual user
+
+        long endNanos = System.nanoTime();
+        long endMillis = System.currentTimeMillis();
+        for (Future<?> run : runs) run.get();   // surface unexpected failures
+
+        double seconds = (endNanos - measureStart[0]) / 1e9;
+
+        // Report: console + <label>.txt, raw histograms in <label>.hlog
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream report = new PrintStream(buffer, true);
+        report.println("label=" + label + " time=" + Instant.ofEpochMilli(measureStart[1])
+                + " base-url=" + baseUrl + " clients=" + clients + " iterations=" + iterations
+                + " warmup=" + warmup + " seed=" + seed);
+        report.printf("measured %.1f s%n%n", seconds);
+        stats.print(report, seconds);
+
+        System.out.println();
+        System.out.print(buffer);
+
+        Files.createDirectories(out);
+        Files.write(out.resolve(label + ".txt"), buffer.toByteArray());
+        stats.writeLog(out.resolve(label + ".hlog"), measureStart[1], endMillis);
+
+        System.out.println();
+        System.out.println("✅ Report written to " + out.resolve(label + ".txt"));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
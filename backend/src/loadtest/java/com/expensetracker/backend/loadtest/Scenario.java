@@ -0,0 +1,201 @@
+package com.expensetracker.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.*;
+
+/**
+ * ----------------------------------------------------------------------------
+ * Scenario
+ * ----------------------------------------------------------------------------
+ * The script of one virtual user, replaying what the frontend does:
+ *
+ *   login                       POST /api/auth/login           (once; the
+ *                               returned JWT is sent with every later call)
+ *   every iteration:
+ *     my teams                  GET  /api/team/my-teams/{userId}
+ *     members of one team       GET  /api/team/members/{teamId}
+ *     then ONE action, by weight:
+ *       30%  summary            GET  /api/expenses/summary/{teamId}
+ *       20%  expense list       GET  /api/expenses/team/{teamId}/page
+ *       15%  add expense        POST /api/expenses/add
+ *       10%  custom split       POST /api/expenses/custom-add
+ *       15%  pay a share        list, then POST /api/expenses/pay (cash)
+ *       10%  approve a payment  GET  pending-approvals, then
+ *                               POST /api/expenses/approve-payment/...
+ *
+ * All choices come from a Random seeded per user, so the same seed replays
+ * the same sequence of requests (given the same dataset).
+ * ----------------------------------------------------------------------------
+ */
+class Scenario {
+
+    // Logins refused with 503 are retried this many times in total
+    private static final int LOGIN_ATTEMPTS = 30;
+
+    private final ApiClient api;
+    private final Random random;
+    private final String email;
+    private final String password;
+
+    private String userId;
+    private String token;
+
+    Scenario(ApiClient api, long seed, String email, String password) {
+        this.api = api;
+        this.random = new Random(seed);
+        this.email = email;
+        this.password = password;
+    }
+
+    /**
+     * Logs in; returns false if the user cannot log in (nothing else to do).
+     *
+     * A 503 means the password hashing pool is saturated (Retry-After: 1):
+     * wait and try again, like a real client would.
+     */
+    boolean login() {
+        ApiClient.Response response = null;
+        for (int attempt = 0; attempt < LOGIN_ATTEMPTS; attempt++) {
+            response = api.post(null, "POST /api/auth/login", "/api/auth/login",
+                    Map.of("email", email, "password", password));
+            if (response.status() != 503) break;
+            sleep(1000);
+        }
+
+        if (!response.ok() || response.body() == null) return false;
+        userId = response.body().path("userId").asText(null);
+        token = response.body().path("token").asText(null);
+        return userId != null && token != null;
+    }
+
+    /**
+     * One pass through the app: teams, members, one action.
+     */
+    void iteration() {
+        ApiClient.Response teams = api.get(token, "GET /api/team/my-teams/{userId}", "/api/team/my-teams/" + userId);
+        if (teams.body() == null || teams.body().isEmpty()) return;
+
+        JsonNode team = teams.body().get(random.nextInt(teams.body().size()));
+        String teamId = team.path("id").asText();
+
+        ApiClient.Response members = api.get(token, "GET /api/team/members/{teamId}", "/api/team/members/" + teamId);
+        List<String> memberIds = new ArrayList<>();
+        if (members.body() != null) members.body().forEach(m -> memberIds.add(m.path("id").asText()));
+        if (memberIds.isEmpty()) return;
+
+        int roll = random.nextInt(100);
+        if (roll < 30) summary(teamId);
+        else if (roll < 50) page(teamId);
+        else if (roll < 65) addExpense(teamId);
+        else if (roll < 75) customAdd(teamId, memberIds);
+        else if (roll < 90) pay(teamId);
+        else approve(teamId);
+    }
+
+    // -----------------------------------------------------------------------
+    // Actions
+    // -----------------------------------------------------------------------
+
+    private void summary(String teamId) {
+        api.get(token, "GET /api/expenses/summary/{teamId}", "/api/expenses/summary/" + teamId);
+    }
+
+    private ApiClient.Response page(String teamId) {
+        return api.get(token, "GET /api/expenses/team/{teamId}/page", "/api/expenses/team/" + teamId + "/page?limit=20");
+    }
+
+    private void addExpense(String teamId) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("teamId", teamId);
+        body.put("paidByUserId", userId);
+        body.put("description", "Load test expense");
+        body.put("amount", amount());
+
+        api.post(token, "POST /api/expenses/add", "/api/expenses/add", body);
+    }
+
+    private void customAdd(String teamId, List<String> memberIds) {
+
+        // Exact split in whole cents: random parts, the payer takes the rest
+        long totalCents = 100 + random.nextInt(50_000);
+        long remaining = totalCents;
+        List<Map<String, Object>> shares = new ArrayList<>();
+
+        for (String memberId : memberIds) {
+            if (memberId.equals(userId)) continue;
+            long part = random.nextLong(remaining / memberIds.size() + 1);
+            remaining -= part;
+            shares.add(Map.of("userId", memberId, "amount", cents(part)));
+        }
+        shares.add(Map.of("userId", userId, "amount", cents(remaining)));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("teamId", teamId);
+        body.put("paidByUserId", userId);
+        body.put("description", "Load test custom split");
+        body.put("amount", cents(totalCents));
+        body.put("splitType", "EXACT");
+        body.put("shares", shares);
+
+        api.post(token, "POST /api/expenses/custom-add", "/api/expenses/custom-add", body);
+    }
+
+    private void pay(String teamId) {
+        ApiClient.Response page = page(teamId);
+        if (page.body() == null) return;
+
+        // First share of this user that still needs paying
+        for (JsonNode expense : page.body().path("items")) {
+            if (userId.equals(expense.path("paidByUserId").asText())) continue;
+
+            for (JsonNode share : expense.path("shares")) {
+                String status = share.path("status").asText("UNPAID");
+                if (!userId.equals(share.path("userId").asText())) continue;
+                if (!"UNPAID".equals(status) && !"REJECTED".equals(status)) continue;
+
+                api.post(token, "POST /api/expenses/pay", "/api/expenses/pay", Map.of(
+                        "expenseId", expense.path("id").asText(),
+                        "userId", userId,
+                        "paymentMethod", "CASH"));
+                return;
+            }
+        }
+    }
+
+    private void approve(String teamId) {
+        ApiClient.Response pending = api.get(token, "GET /api/expenses/pending-approvals/{teamId}/{payeeId}",
+                "/api/expenses/pending-approvals/" + teamId + "/" + userId);
+        if (pending.body() == null || pending.body().isEmpty()) return;
+
+        JsonNode expense = pending.body().get(0);
+        JsonNode share = expense.path("shares").path(0);
+        if (share.isMissingNode()) return;
+
+        api.post(token, "POST /api/expenses/approve-payment/{expenseId}/{memberId}",
+                "/api/expenses/approve-payment/" + expense.path("id").asText()
+                        + "/" + share.path("userId").asText() + "?action=APPROVE&teamId=" + teamId,
+                null);
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    private String amount() {
+        return cents(100 + random.nextInt(50_000));
+    }
+
+    // Decimal string, exactly as typed in the frontend ("12.34")
+    private static String cents(long cents) {
+        return cents / 100 + "." + String.format("%02d", cents % 100);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,15 +5,27 @@ import com.expensetracker.backend.model.PasswordResetToken;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.PasswordResetTokenRepository;
 import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.AuthenticatedUser;
 import com.expensetracker.backend.service.EmailService;
-import com.expensetracker.backend.service.JwtService;
+import com.expensetracker.backend.service.EntityCacheService;
+import com.expensetracker.backend.service.PasswordHashingService;
+import com.expensetracker.backend.service.RefreshTokenService;
+import com.expensetracker.backend.service.TeamAccessService;
+
+import com.expensetracker.backend.util.DataUrl;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @RestController
@@ -27,10 +39,12 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
-    private final JwtService jwtService;
+    private final EntityCacheService entityCache;
+    private final RefreshTokenService refreshTokens;
+    private final TeamAccessService teamAccess;
 
-    // BCrypt for hashing passwords
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    // BCrypt on its own bounded pool (throws BusyException when saturated)
+    private final PasswordHashingService passwordHashing;
 
     // Frontend URL from application.properties
     @Value("${app.frontend.url}")
@@ -39,12 +53,18 @@ public class AuthController {
     public AuthController(UserRepository userRepository,
                           PasswordResetTokenRepository tokenRepository,
                           EmailService emailService,
-                          JwtService jwtService) {
+                          EntityCacheService entityCache,
+                          PasswordHashingService passwordHashing,
+                          RefreshTokenService refreshTokens,
+                          TeamAccessService teamAccess) {
 
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
-        this.jwtService = jwtService;
+        this.entityCache = entityCache;
+        this.passwordHashing = passwordHashing;
+        this.refreshTokens = refreshTokens;
+        this.teamAccess = teamAccess;
     }
 
     // ============================================================================
@@ -64,15 +84,20 @@ public class AuthController {
         }
 
         // Hash password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        try {
+            user.setPassword(passwordHashing.encode(user.getPassword()));
+        } catch (PasswordHashingService.BusyException e) {
+            return busy();
+        }
 
         userRepository.save(user);
+        entityCache.userChanged(user);
 
         return ResponseEntity.ok("User registered successfully!");
     }
 
     // ============================================================================
-    // 2️⃣ LOGIN USER – returns JWT + user details
+    // 2️⃣ LOGIN USER – returns access token + refresh token + user details
     // ============================================================================
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody Map<String, String> request) {
@@ -93,36 +118,90 @@ public class AuthController {
             User user = userOpt.get();
 
             // Validate password
-            if (!passwordEncoder.matches(password, user.getPassword())) {
+            if (!passwordHashing.matches(password, user.getPassword())) {
                 return ResponseEntity.status(401).body("Invalid email or password");
             }
 
+            boolean changed = false;
+
+            // Hash made with a lower cost than configured → re-hash it now,
+            // while the plain password is known (skipped if the pool is busy)
+            if (passwordHashing.needsRehash(user.getPassword())) {
+                try {
+                    user.setPassword(passwordHashing.encode(password));
+                    changed = true;
+                } catch (PasswordHashingService.BusyException e) {
+                    // Next login will try again
+                }
+            }
+
             // Auto-fill name if empty (fallback name from email)
             if (user.getFirstName() == null || user.getFirstName().isBlank()) {
                 String name = email.contains("@") ? email.substring(0, email.indexOf("@")) : "User";
                 user.setFirstName(name);
                 user.setLastName("");
+                changed = true;
+            }
+
+            if (changed) {
                 userRepository.save(user);
+                entityCache.userChanged(user);
             }
 
-            // Generate JWT token
-            String token = jwtService.generateToken(email);
+            // New session: short-lived JWT (user id + team ids, see
+            // JwtAuthenticationFilter) + refresh token to renew it
+            RefreshTokenService.TokenPair tokens = refreshTokens.login(user);
 
             // Return essential details
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Login successful");
-            response.put("token", token);
+            response.put("token", tokens.accessToken());
+            response.put("refreshToken", tokens.refreshToken());
+            response.put("expiresIn", tokens.expiresIn());
             response.put("userId", user.getId());
             response.put("email", user.getEmail());
             response.put("fullName", user.getFullName());
 
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingService.BusyException e) {
+            return busy();
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Login failed: " + e.getMessage());
         }
     }
 
+    // ============================================================================
+    // 2️⃣.1 REFRESH – trades a refresh token for a new token pair (rotation)
+    // ============================================================================
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+
+        try {
+            RefreshTokenService.TokenPair tokens = refreshTokens.refresh(request.get("refreshToken"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("token", tokens.accessToken());
+            response.put("refreshToken", tokens.refreshToken());
+            response.put("expiresIn", tokens.expiresIn());
+
+            return ResponseEntity.ok(response);
+
+        } catch (RefreshTokenService.InvalidRefreshTokenException e) {
+            return ResponseEntity.status(401).body(e.getMessage());
+        }
+    }
+
+    // ============================================================================
+    // 2️⃣.2 LOGOUT – ends the session (refresh + access tokens stop working)
+    // ============================================================================
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
+
+        refreshTokens.logout(request.get("refreshToken"));
+        return ResponseEntity.ok("Logged out");
+    }
+
     // ============================================================================
     // 3️⃣ FORGOT PASSWORD – sends reset link to email
     // ============================================================================
@@ -136,16 +215,20 @@ public class AuthController {
             return "If the email exists, a reset link has been sent.";
         }
 
-        // Create password reset token
+        // Only one live token per user: a new request replaces older links
+        tokenRepository.deleteByEmail(email);
+
+        // Create password reset token (MongoDB's TTL index purges it after expiry)
         String token = UUID.randomUUID().toString();
         PasswordResetToken resetToken =
-                new PasswordResetToken(email, token, LocalDateTime.now().plusMinutes(30));
+                new PasswordResetToken(email, token, Instant.now().plus(30, ChronoUnit.MINUTES));
 
         tokenRepository.save(resetToken);
 
         // Build reset link
         String resetLink = appUrl + "?token=" + token;
 
+        // Queued in the email outbox; the SMTP send happens in the background
         emailService.sendEmail(email, "Password Reset",
                 "Click here to reset your password: " + resetLink);
 
@@ -158,26 +241,30 @@ public class AuthController {
     @PostMapping("/reset-password")
     public ResponseEntity<?> resetPassword(@RequestBody ResetPasswordRequest request) {
 
+        // Expired tokens are filtered out by the query itself
         Optional<PasswordResetToken> tokenOpt =
-                tokenRepository.findByToken(request.getToken());
+                tokenRepository.findByTokenAndExpiryDateAfter(request.getToken(), Instant.now());
 
         if (tokenOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body("Invalid token");
+            return ResponseEntity.badRequest().body("Invalid or expired token");
         }
 
         PasswordResetToken token = tokenOpt.get();
 
-        // Check expiry
-        if (token.getExpiryDate().isBefore(LocalDateTime.now())) {
-            return ResponseEntity.badRequest().body("Token expired");
-        }
-
-        // Update user password
+        // Update user password (token is kept if hashing is busy → user can retry)
         Optional<User> userOpt = userRepository.findByEmail(token.getEmail());
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            try {
+                user.setPassword(passwordHashing.encode(request.getNewPassword()));
+            } catch (PasswordHashingService.BusyException e) {
+                return busy();
+            }
             userRepository.save(user);
+            entityCache.userChanged(user);
+
+            // Log out every device still holding the old password's sessions
+            refreshTokens.endAllSessions(user.getId());
         }
 
         tokenRepository.delete(token);
@@ -188,10 +275,13 @@ public class AuthController {
     // ============================================================================
     // 5️⃣ GET FULL USER PROFILE BY ID  (Single Correct Endpoint)
     // ============================================================================
+    // Only the user themself or someone sharing a team with them.
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getUserProfile(@PathVariable String userId) {
+    public ResponseEntity<?> getUserProfile(@PathVariable String userId,
+                                            @AuthenticationPrincipal AuthenticatedUser me) {
 
-        Optional<User> userOpt = userRepository.findById(userId);
+        // Read-only → served from the cache (screens call this in loops)
+        Optional<User> userOpt = entityCache.findUser(userId);
 
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(404).body("User not found");
@@ -199,6 +289,10 @@ public class AuthController {
 
         User user = userOpt.get();
 
+        if (!me.is(userId) && !sharesTeam(me, user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not a teammate of this user");
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("userId", user.getId());
         response.put("email", user.getEmail());
@@ -211,13 +305,74 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    // ============================================================================
+    // 5️⃣b AVATAR IMAGE (separately cacheable)
+    // ============================================================================
+    // GET /api/auth/user/{userId}/avatar?v=<version>
+    //
+    // Member lists only carry this URL; the picture is downloaded once and
+    // then served from the browser cache:
+    //   - ETag = image version → If-None-Match gets a 304 without a body
+    //   - URL with the current ?v= → cacheable for a year (a new picture
+    //     gets a new version, hence a new URL)
+    @GetMapping("/user/{userId}/avatar")
+    public ResponseEntity<?> getUserAvatar(
+            @PathVariable String userId,
+            @RequestParam(value = "v", required = false) String requestedVersion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Optional<User> userOpt = entityCache.findUser(userId);
+        if (userOpt.isEmpty() || userOpt.get().getProfileImage() == null
+                || userOpt.get().getProfileImage().isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String image = userOpt.get().getProfileImage();
+
+        // Older users have no stored version yet → derive it from the image
+        String version = userOpt.get().getProfileImageVersion();
+        if (version == null) version = User.versionOf(image);
+
+        String etag = "\"" + version + "\"";
+        CacheControl cache = version.equals(requestedVersion)
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                : CacheControl.noCache();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
+        }
+
+        // Only PNG / JPEG / GIF / WebP bytes are served; anything else stored
+        // before uploads were validated (URLs, other types) → 404
+        DataUrl avatar;
+        try {
+            avatar = DataUrl.parse(image);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(avatar.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
+                .header("X-Content-Type-Options", "nosniff")
+                .eTag(etag)
+                .cacheControl(cache)
+                .body(avatar.getBytes());
+    }
+
     // ============================================================================
     // 6️⃣ UPDATE USER PROFILE FIELDS (image, phone, names)
     // ============================================================================
     @PutMapping("/user/{userId}")
     public ResponseEntity<?> updateUserProfile(
             @PathVariable String userId,
-            @RequestBody Map<String, Object> body) {
+            @RequestBody Map<String, Object> body,
+            @AuthenticationPrincipal AuthenticatedUser me) {
+
+        // Only your own profile
+        if (!me.is(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cannot update another user's profile");
+        }
 
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -230,10 +385,40 @@ public class AuthController {
         if (body.containsKey("firstName")) user.setFirstName((String) body.get("firstName"));
         if (body.containsKey("lastName")) user.setLastName((String) body.get("lastName"));
         if (body.containsKey("phone")) user.setPhone((String) body.get("phone"));
-        if (body.containsKey("profileImage")) user.setProfileImage((String) body.get("profileImage"));
+        if (body.containsKey("profileImage")) {
+            String image = (String) body.get("profileImage");
+
+            // Empty clears the picture; anything else must be a PNG / JPEG / GIF / WebP data URL
+            if (image != null && !image.isEmpty()) {
+                try {
+                    DataUrl.parse(image);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body("Profile image must be a PNG, JPEG, GIF or WebP image");
+                }
+            }
+            user.setProfileImage(image);
+        }
 
         userRepository.save(user);
+        entityCache.userChanged(user);   // next read sees the new profile
 
         return ResponseEntity.ok("Profile updated successfully");
     }
+
+    // ============================================================================
+    // Helper: 503 when password hashing is saturated (client should retry)
+    // ============================================================================
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server is busy, please try again");
+    }
+
+    // ============================================================================
+    // Helper: does the caller share at least one team with this user?
+    // ============================================================================
+    private boolean sharesTeam(AuthenticatedUser me, User user) {
+        return user.getTeamIds() != null
+                && user.getTeamIds().stream().anyMatch(teamId -> teamAccess.isMember(me, teamId));
+    }
 }
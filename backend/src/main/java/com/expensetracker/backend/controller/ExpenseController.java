@@ -1,32 +1,58 @@
 package com.expensetracker.backend.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.expensetracker.backend.dto.ExpensePage;
+import com.expensetracker.backend.dto.ShareTransition;
+import com.expensetracker.backend.dto.Transfer;
 import com.expensetracker.backend.model.Expense;
 import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.model.ProofImage;
 import com.expensetracker.backend.model.Team;
-import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.ExpenseRepository;
-import com.expensetracker.backend.repository.TeamRepository;
-import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.security.AuthenticatedUser;
+import com.expensetracker.backend.service.EntityCacheService;
+import com.expensetracker.backend.service.ExpenseSplitService;
+import com.expensetracker.backend.service.ProofImageService;
+import com.expensetracker.backend.service.SettlePlanService;
+import com.expensetracker.backend.service.TeamAccessService;
+import com.expensetracker.backend.service.TeamBalanceService;
+import com.expensetracker.backend.service.UserLookupService;
+import com.expensetracker.backend.util.DataUrl;
+import com.expensetracker.backend.util.Money;
 
 /**
  * ExpenseController
  *
  * Responsibilities:
- *  - Create expenses (even split)
- *  - List team expenses
+ *  - Create expenses (even, weighted or exact split — exact to the cent)
+ *  - List team expenses (full list, keyset pages, or NDJSON export)
  *  - Toggle a payment request (cash path quick toggle)
  *  - Submit payment (cash / UPI)
+ *  - Serve UPI proof screenshots on demand
  *  - Approve / Reject payment (payee action)
  *  - Return pending approvals for a payee
  *  - Return team summary (needToPay / needToGet)
+ *  - Suggest a settle-up plan and settle a payee's open shares in bulk
  *  - Delete expense
  *  - Return user-specific expenses within a team
  *
@@ -39,22 +65,72 @@ public class ExpenseController {
 
     // Repositories injected by Spring for DB access
     @Autowired private ExpenseRepository expenseRepo;
-    @Autowired private TeamRepository teamRepo;
-    @Autowired private UserRepository userRepo;
+
+    // Cached read-only team lookups
+    @Autowired private EntityCacheService entityCache;
+
+    // Keeps the per-team balance ledger in sync with every money change
+    @Autowired private TeamBalanceService balanceService;
+
+    // Builds the shares of new expenses (even / custom splits)
+    @Autowired private ExpenseSplitService splitService;
+
+    // Computes the fewest payments that settle a team
+    @Autowired private SettlePlanService settlePlanService;
+
+    // Resolves many user ids to emails in one query
+    @Autowired private UserLookupService userLookup;
+
+    // Blob store for UPI payment screenshots
+    @Autowired private ProofImageService proofImageService;
+
+    // "Is the caller a member of this team?" (token claims first)
+    @Autowired private TeamAccessService teamAccess;
+
+    // Spring's configured JSON mapper (used for NDJSON export)
+    @Autowired private ObjectMapper objectMapper;
+
+    // Page size used when the client does not ask for one, and the hard cap
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Media type of the streaming export (one JSON document per line)
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // The caller ("me") is the AuthenticatedUser from the verified JWT
+    // (JwtAuthenticationFilter): team endpoints require membership, and
+    // share actions may only touch the caller's own share.
+
+    // Helper: 403 for teams / shares the caller may not touch
+    private static ResponseEntity<?> forbidden(String message) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(message);
+    }
+
+    private static final String NOT_MEMBER = "Not a member of this team";
+
+    // Helper: a text field of a JSON body (null if absent; any other type
+    // → IllegalArgumentException, answered with 400)
+    private static String text(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (value == null || value instanceof String) return (String) value;
+        throw new IllegalArgumentException(field + " must be a string");
+    }
 
     // -----------------------
     // Add expense (auto-split)
     // -----------------------
     // POST /api/expenses/add
     @PostMapping("/add")
-    public ResponseEntity<?> addExpense(@RequestBody Expense expense) {
+    public ResponseEntity<?> addExpense(@RequestBody Expense expense, @AuthenticationPrincipal AuthenticatedUser me) {
         // Validate mandatory fields
         if (expense.getTeamId() == null || expense.getPaidByUserId() == null) {
             return ResponseEntity.badRequest().body("TeamId and PaidByUserId are required");
         }
 
+        if (!teamAccess.isMember(me, expense.getTeamId())) return forbidden(NOT_MEMBER);
+
         // Ensure team exists
-        Optional<Team> teamOpt = teamRepo.findById(expense.getTeamId());
+        Optional<Team> teamOpt = entityCache.findTeam(expense.getTeamId());
         if (teamOpt.isEmpty()) {
             return ResponseEntity.badRequest().body("Team not found");
         }
@@ -67,21 +143,31 @@ public class ExpenseController {
             return ResponseEntity.badRequest().body("No team members found");
         }
 
-        // Compute even split (rounded to 2 decimals)
-        double splitAmount = Math.round((expense.getAmount() / members.size()) * 100.0) / 100.0;
+        // The payer must be one of them
+        if (!members.contains(expense.getPaidByUserId())) {
+            return ResponseEntity.badRequest().body("Payer is not a member of this team");
+        }
 
-        // Build shares list: payer is marked APPROVED, others UNPAID
-        List<ExpenseShare> shares = new ArrayList<>(members.size());
-        for (String memberId : members) {
-            boolean isPayer = memberId.equals(expense.getPaidByUserId());
-            shares.add(new ExpenseShare(memberId, splitAmount, isPayer));
+        // Even split in minor units: the first (remainder) members get one
+        // extra cent, so the shares always add up to the exact total.
+        // Payer is marked APPROVED, others UNPAID.
+        List<ExpenseShare> shares;
+        try {
+            shares = splitService.splitEvenly(members, expense.getPaidByUserId(), expense.getAmountMinor());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
 
         // Attach computed shares and timestamp, then save
         expense.setShares(shares);
         expense.setDate(Instant.now());
+
+        TeamBalanceService.Ticket ledger = balanceService.begin(expense.getTeamId());
         expenseRepo.save(expense);
 
+        // Add the new debts to the team ledger
+        balanceService.recordExpenseAdded(ledger, expense);
+
         return ResponseEntity.ok("Expense added and split evenly among members.");
     }
 
@@ -90,7 +176,9 @@ public class ExpenseController {
     // -----------------------
     // GET /api/expenses/team/{teamId}
     @GetMapping("/team/{teamId}")
-    public ResponseEntity<?> getTeamExpenses(@PathVariable String teamId) {
+    public ResponseEntity<?> getTeamExpenses(@PathVariable String teamId, @AuthenticationPrincipal AuthenticatedUser me) {
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
+
         // Direct repository query, no processing — fast and simple
         return ResponseEntity.ok(expenseRepo.findByTeamId(teamId));
     }
@@ -99,52 +187,41 @@ public class ExpenseController {
     // Toggle payment (quick cash toggle)
     // -----------------------
     // PUT /api/expenses/{expenseId}/togglePay?userId=...
+    //
+    // Toggle/cycle behavior:
+    //   UNPAID or REJECTED => create a CASH request (pending)
+    //   PENDING_*          => cancel back to UNPAID
+    //   APPROVED           => cannot toggle
+    //
+    // Each step is one conditional in-place update of the share (see
+    // ExpenseRepository.transitionShare), so concurrent clicks cannot
+    // overwrite each other.
     @PutMapping("/{expenseId}/togglePay")
     public ResponseEntity<?> togglePayment(
             @PathVariable String expenseId,
-            @RequestParam String userId) {
-
-        // Load expense, throw if missing
-        Expense expense = expenseRepo.findById(expenseId)
-                .orElseThrow(() -> new RuntimeException("Expense not found"));
-
-        // Find the share for the given user and update status based on current status
-        for (ExpenseShare share : expense.getShares()) {
-            if (share.getUserId().equals(userId)) {
-
-                // Null-safe status
-                String status = share.getStatus();
-                if (status == null) status = "UNPAID";
-
-                // Toggle/cycle behavior:
-                // UNPAID or REJECTED => create a CASH request (pending)
-                // PENDING_* => cancel back to UNPAID
-                // APPROVED => cannot toggle
-                switch (status) {
-                    case "UNPAID":
-                    case "REJECTED":
-                        share.setPaymentMethod("CASH");
-                        share.setStatus("PENDING_CASH_APPROVAL");
-                        break;
-
-                    case "PENDING_CASH_APPROVAL":
-                    case "PENDING_UPI_APPROVAL":
-                        // cancel the request and clear proof/method
-                        share.setStatus("UNPAID");
-                        share.setPaymentMethod(null);
-                        share.setProofImage(null);
-                        break;
-
-                    case "APPROVED":
-                        return ResponseEntity.badRequest().body("Payment already approved");
-                }
-
-                break; // found user share → stop loop
-            }
+            @RequestParam String userId,
+            @AuthenticationPrincipal AuthenticatedUser me) {
+
+        // Only your own share
+        if (!me.is(userId)) return forbidden("Cannot change another user's payment");
+
+        // UNPAID / REJECTED → pending cash request
+        Expense before = expenseRepo.transitionShare(expenseId, userId,
+                ShareTransition.to("PENDING_CASH_APPROVAL")
+                        .from("UNPAID", "REJECTED")
+                        .withPayment("CASH", null));
+
+        // PENDING_* → cancel the request and clear proof/method
+        if (before == null) {
+            before = expenseRepo.transitionShare(expenseId, userId,
+                    ShareTransition.to("UNPAID")
+                            .from("PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL")
+                            .clearingPayment());
         }
 
-        // persist change
-        expenseRepo.save(expense);
+        // Neither applied → missing expense/share or already approved
+        if (before == null) return explainRejectedTransition(expenseId, userId, null);
+
         return ResponseEntity.ok("Payment status updated.");
     }
 
@@ -154,84 +231,187 @@ public class ExpenseController {
     // Body: { expenseId, userId, paymentMethod, proofImage (optional for UPI) }
     // POST /api/expenses/pay
     @PostMapping("/pay")
-    public ResponseEntity<?> payExpense(@RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> payExpense(@RequestBody Map<String, Object> body, @AuthenticationPrincipal AuthenticatedUser me) {
+
+        // Extract parameters from JSON body (wrong types → 400; the payer is the caller)
+        String expenseId, userId, method, proofImage;
+        try {
+            expenseId = text(body, "expenseId");
+            userId = body.get("userId") != null ? text(body, "userId") : me.userId();
+            method = text(body, "paymentMethod");
+            proofImage = text(body, "proofImage");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (expenseId == null) return ResponseEntity.badRequest().body("expenseId is required");
+        if (!me.is(userId)) return forbidden("Cannot pay another user's share");
+
+        ShareTransition transition;
+        ProofImage proof = null;
+
+        // Cash flow: set pending cash approval
+        if ("CASH".equalsIgnoreCase(method)) {
+            transition = ShareTransition.to("PENDING_CASH_APPROVAL").withPayment("CASH", null);
+        }
+        // UPI flow: reference the proof by its content id, mark pending UPI approval
+        else if ("UPI".equalsIgnoreCase(method)) {
+            try {
+                proof = proofImageService.prepare(proofImage);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid proof image");
+            }
+            transition = ShareTransition.to("PENDING_UPI_APPROVAL")
+                    .withPayment("UPI", proof != null ? proof.getId() : null);
+        } else {
+            return ResponseEntity.badRequest().body("Invalid payment method");
+        }
 
-        // Extract parameters from JSON body safely
-        String expenseId = (String) body.get("expenseId");
-        String userId = (String) body.get("userId");
-        String method = (String) body.get("paymentMethod");
-        String proofImage = (String) body.get("proofImage");
+        // Any state except APPROVED may (re)submit a payment
+        transition.from("UNPAID", "REJECTED", "PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL");
 
-        Optional<Expense> opt = expenseRepo.findById(expenseId);
-        if (opt.isEmpty()) return ResponseEntity.badRequest().body("Expense not found");
+        // One conditional in-place update of the user's share
+        Expense before = expenseRepo.transitionShare(expenseId, userId, transition);
+        if (before == null) return explainRejectedTransition(expenseId, userId, null);
 
-        Expense expense = opt.get();
+        // The blob is stored only once a share references it, so a refused
+        // payment leaves none behind. If this fails the request fails, and
+        // resubmitting (PENDING_UPI → PENDING_UPI) stores it.
+        if (proof != null) proofImageService.save(proof);
 
-        // Find the matching share and set the payment method + status
-        for (ExpenseShare share : expense.getShares()) {
-            if (share.getUserId().equals(userId)) {
-                share.setPaymentMethod(method);
+        return ResponseEntity.ok("Payment submitted successfully and is waiting for approval.");
+    }
 
-                // Cash flow: set pending cash approval
-                if ("CASH".equalsIgnoreCase(method)) {
-                    share.setStatus("PENDING_CASH_APPROVAL");
-                }
-                // UPI flow: save proof and mark pending UPI approval
-                else if ("UPI".equalsIgnoreCase(method)) {
-                    share.setProofImage(proofImage);
-                    share.setStatus("PENDING_UPI_APPROVAL");
-                }
-                break;
-            }
+    // -----------------------
+    // Proof screenshot (loaded only when someone opens it)
+    // -----------------------
+    // GET /api/expenses/proof/{imageId}
+    //
+    // The id is the SHA-256 of the bytes, so the content behind a URL never
+    // changes: it is used as a strong ETag and cached for a year.
+    //
+    // Only whitelisted image types are served (see DataUrl), always inline
+    // and with nosniff, so a stored blob can never be rendered as a page.
+    // Anything else stored before uploads were validated → 404.
+    @GetMapping("/proof/{imageId}")
+    public ResponseEntity<byte[]> getProofImage(
+            @PathVariable String imageId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String etag = "\"" + imageId + "\"";
+        CacheControl cache = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+        // Browser already has these exact bytes → no body needed
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
         }
 
-        // Persist and return
-        expenseRepo.save(expense);
-        return ResponseEntity.ok("Payment submitted successfully and is waiting for approval.");
+        Optional<ProofImage> image = proofImageService.find(imageId);
+        if (image.isEmpty() || !DataUrl.isImageType(image.get().getContentType())) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.get().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
+                .header("X-Content-Type-Options", "nosniff")
+                .eTag(etag)
+                .cacheControl(cache)
+                .body(image.get().getData());
     }
 
     // -----------------------
     // Approve or Reject payment (payee action)
     // -----------------------
-    // POST /api/expenses/approve-payment/{expenseId}/{memberId}?action=APPROVE|REJECT
+    // POST /api/expenses/approve-payment/{expenseId}/{memberId}?action=APPROVE|REJECT&teamId=...
+    //
+    // teamId comes from the client (the approvals page is per team) so the
+    // ledger ticket needs no extra read; the update only matches if the
+    // expense really belongs to that team.
     @PostMapping("/approve-payment/{expenseId}/{memberId}")
     public ResponseEntity<?> approveOrReject(
             @PathVariable String expenseId,
             @PathVariable String memberId,
-            @RequestParam String action) {
+            @RequestParam String action,
+            @RequestParam String teamId,
+            @AuthenticationPrincipal AuthenticatedUser me) {
 
         // Useful debug print to verify endpoint hit (remove in prod)
         System.out.println("Hit APPROVE API: expense=" + expenseId + " member=" + memberId + " action=" + action);
 
-        Optional<Expense> opt = expenseRepo.findById(expenseId);
-        if (opt.isEmpty()) return ResponseEntity.badRequest().body("Expense not found");
-
-        Expense expense = opt.get();
-
-        // Update the matching share
-        for (ExpenseShare share : expense.getShares()) {
-            if (share.getUserId().equals(memberId)) {
-
-                if ("APPROVE".equalsIgnoreCase(action)) {
-                    // Mark that the payee accepted the payment
-                    share.setStatus("APPROVED");
-                } else if ("REJECT".equalsIgnoreCase(action)) {
-                    // Mark rejected and clear method/proof so user can resubmit
-                    share.setStatus("REJECTED");
-                    share.setPaymentMethod(null);
-                    share.setProofImage(null);
-                } else {
-                    return ResponseEntity.badRequest().body("Invalid action");
-                }
+        ShareTransition transition;
+
+        if ("APPROVE".equalsIgnoreCase(action)) {
+            // Mark that the payee accepted the payment
+            transition = ShareTransition.to("APPROVED")
+                    .from("UNPAID", "REJECTED", "PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL");
+        } else if ("REJECT".equalsIgnoreCase(action)) {
+            // Mark rejected and clear method/proof so user can resubmit.
+            // An approved payment stays approved (money already changed hands)
+            transition = ShareTransition.to("REJECTED")
+                    .from("UNPAID", "PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL")
+                    .clearingPayment();
+        } else {
+            return ResponseEntity.badRequest().body("Invalid action");
+        }
 
-                // Save immediately after change and return success
-                expenseRepo.save(expense);
-                return ResponseEntity.ok("Payment " + action.toLowerCase() + " successfully");
-            }
+        // Only the payee (who paid the expense) may approve / reject, and
+        // only in the given team — checked inside the same atomic update
+        transition.byPayer(me.userId()).inTeam(teamId);
+
+        // The ledger is read before the change (see TeamBalanceService.begin)
+        TeamBalanceService.Ticket ledger = balanceService.begin(teamId);
+
+        // One conditional in-place update; returns the share as it was before
+        Expense before = expenseRepo.transitionShare(expenseId, memberId, transition);
+        if (before == null) {
+            return explainRejectedTransition(expenseId, memberId, transition,
+                    "Payment " + action.toLowerCase() + " successfully");
+        }
+
+        // Settle (or re-open) the debt in the team ledger if approval changed
+        ExpenseShare previous = before.getShares().get(0);
+        boolean wasApproved = "APPROVED".equals(previous.getStatus());
+        boolean isApproved = "APPROVED".equals(transition.getToStatus());
+        if (wasApproved != isApproved) {
+            balanceService.recordShareSettled(ledger, before, previous, isApproved);
+        }
+
+        return ResponseEntity.ok("Payment " + action.toLowerCase() + " successfully");
+    }
+
+    // -----------------------
+    // Helper: explain why a share transition did not apply
+    // -----------------------
+    // transitionShare() returns null when nothing matched. One small read
+    // tells the caller why. If the share already has the target status the
+    // action is treated as done (idempotent retries).
+    private ResponseEntity<?> explainRejectedTransition(String expenseId, String userId, String targetStatus) {
+        return explainRejectedTransition(expenseId, userId, ShareTransition.to(targetStatus), "Payment status updated.");
+    }
+
+    private ResponseEntity<?> explainRejectedTransition(
+            String expenseId, String userId, ShareTransition transition, String alreadyDoneMessage) {
+
+        String targetStatus = transition.getToStatus();
+
+        Expense current = expenseRepo.findWithShare(expenseId, userId);
+        if (current == null) return ResponseEntity.badRequest().body("Expense not found");
+        if (transition.getTeamId() != null && !transition.getTeamId().equals(current.getTeamId())) {
+            return ResponseEntity.badRequest().body("Expense not found");
+        }
+        if (transition.getPayerId() != null && !transition.getPayerId().equals(current.getPaidByUserId())) {
+            return forbidden("Only the payee can approve or reject this payment");
         }
+        if (current.getShares() == null || current.getShares().isEmpty()) {
+            return ResponseEntity.badRequest().body("Share not found");
+        }
+
+        String status = current.getShares().get(0).getStatus();
+        if (targetStatus != null && targetStatus.equals(status)) return ResponseEntity.ok(alreadyDoneMessage);
+        if ("APPROVED".equals(status)) return ResponseEntity.badRequest().body("Payment already approved");
 
-        // No share for that member
-        return ResponseEntity.badRequest().body("Share not found");
+        // Someone else changed the share between our read and write
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Payment status changed, please retry");
     }
 
     // -----------------------
@@ -241,34 +421,27 @@ public class ExpenseController {
     @GetMapping("/pending-approvals/{teamId}/{payeeId}")
     public ResponseEntity<?> getPendingApprovals(
             @PathVariable String teamId,
-            @PathVariable String payeeId) {
+            @PathVariable String payeeId,
+            @AuthenticationPrincipal AuthenticatedUser me) {
 
-        // Fetch all expenses for the team
-        List<Expense> expenses = expenseRepo.findByTeamId(teamId);
+        // Your own pending approvals, in one of your teams
+        if (!me.is(payeeId)) return forbidden("Cannot read another user's approvals");
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
 
-        // Build a compact result list that includes only pending shares and some metadata
+        // Targeted query: only this payee's expenses that have pending shares,
+        // with the shares already filtered down to the pending ones
+        List<Expense> expenses = expenseRepo.findPendingApprovals(teamId, payeeId);
+
+        // Build a compact result list with some metadata + the pending shares
         List<Map<String, Object>> result = new ArrayList<>();
 
         for (Expense ex : expenses) {
-
-            // Only the payer (payeeId) should see approvals they need to act upon
-            if (!Objects.equals(ex.getPaidByUserId(), payeeId)) continue;
-
-            // Collect pending shares for this expense
-            List<ExpenseShare> pendingShares = ex.getShares().stream()
-                    .filter(s -> "PENDING_CASH_APPROVAL".equals(s.getStatus()) ||
-                                 "PENDING_UPI_APPROVAL".equals(s.getStatus()))
-                    .collect(Collectors.toList());
-
-            // If there are pending shares, return minimal expense info + pending shares
-            if (!pendingShares.isEmpty()) {
-                Map<String, Object> map = new HashMap<>();
-                map.put("id", ex.getId());
-                map.put("description", ex.getDescription());
-                map.put("amount", ex.getAmount());
-                map.put("shares", pendingShares);
-                result.add(map);
-            }
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", ex.getId());
+            map.put("description", ex.getDescription());
+            map.put("amount", ex.getAmount());
+            map.put("shares", ex.getShares());
+            result.add(map);
         }
 
         return ResponseEntity.ok(result);
@@ -279,57 +452,114 @@ public class ExpenseController {
     // -----------------------
     // GET /api/expenses/summary/{teamId}
     @GetMapping("/summary/{teamId}")
-    public ResponseEntity<?> getMonthlySummary(@PathVariable String teamId) {
+    public ResponseEntity<?> getMonthlySummary(@PathVariable String teamId, @AuthenticationPrincipal AuthenticatedUser me) {
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
+
+        // Balance per user id in minor units, read from the incrementally
+        // maintained ledger (one document read, independent of how many
+        // expenses the team has)
+        Map<String, Long> balance = balanceService.getBalances(teamId);
+
+        // Sort descending by amount (largest creditors first) — exact integer compare
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(balance.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+        // Convert userId -> email (readable, one batched query) and minor → major units
+        Map<String, String> emails = userLookup.emailsById(balance.keySet());
+        Map<String, Double> sorted = new LinkedHashMap<>();
+        for (var entry : entries) {
+            sorted.put(emails.get(entry.getKey()), Money.toMajor(entry.getValue()));
+        }
 
-        // Retrieve and sort expenses by date so balances accumulate in sequence
-        List<Expense> expenses = expenseRepo.findByTeamId(teamId);
-        expenses.sort(Comparator.comparing(Expense::getDate));
+        return ResponseEntity.ok(sorted);
+    }
 
-        // Running balance per user id
-        Map<String, Double> balance = new HashMap<>();
+    // -----------------------
+    // Settle-up plan (fewest payments that clear the team)
+    // -----------------------
+    // GET /api/expenses/settle-plan/{teamId}
+    //
+    // Returns [{ fromUserId, fromEmail, toUserId, toEmail, amount }, ...]
+    // computed from the ledger's net balances (see SettlePlanService), so
+    // e.g. "A owes B 10, B owes C 10" becomes the single payment "A → C 10".
+    @GetMapping("/settle-plan/{teamId}")
+    public ResponseEntity<?> getSettlePlan(@PathVariable String teamId, @AuthenticationPrincipal AuthenticatedUser me) {
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
+
+        return ResponseEntity.ok(withEmails(settlePlanService.plan(balanceService.getBalances(teamId))));
+    }
 
-        for (Expense e : expenses) {
-            double splitAmount = e.getAmount() / Math.max(e.getShares().size(), 1);
-            String payerId = e.getPaidByUserId();
+    // -----------------------
+    // Settle all debts owed to me
+    // -----------------------
+    // POST /api/expenses/settle/{teamId}
+    //
+    // The caller confirms they were paid everything they are owed: every
+    // outstanding share of the expenses THEY paid becomes APPROVED in one
+    // bulk write. Like approving a single payment, only the payee can do
+    // this — nobody can settle debts owed to someone else.
+    //
+    // This works on the caller's own receivables, NOT on the settle plan:
+    // the plan nets balances out (A → B 10, B → C 10 becomes A → C 10), so
+    // a member who nets to zero (B) still has open receivables and settles
+    // them with this call too. The team is settled once every member with
+    // receivables has called it.
+    //
+    // Returns the debts (member → caller) that were marked as paid; expenses
+    // that changed meanwhile are skipped (and counted as skipped).
+    @PostMapping("/settle/{teamId}")
+    public ResponseEntity<?> settleTeam(@PathVariable String teamId, @AuthenticationPrincipal AuthenticatedUser me) {
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
+
+        // The caller's expenses with open shares (only ids, versions, shares' amounts)
+        TeamBalanceService.Ticket ledger = balanceService.begin(teamId);
+        List<Expense> outstanding = expenseRepo.findOutstanding(teamId, me.userId());
+        Set<String> settledIds = new HashSet<>(expenseRepo.settleOutstanding(outstanding));
+
+        // Only the updated expenses: they were unchanged since loading, so
+        // their loaded shares are exactly the debts removed. Skipped ones
+        // changed concurrently; their writers recorded that change.
+        List<Expense> settled = outstanding.stream()
+                .filter(expense -> settledIds.contains(expense.getId()))
+                .toList();
+        balanceService.recordExpensesSettled(ledger, settled);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settledExpenses", settled.size());
+        result.put("skippedExpenses", outstanding.size() - settled.size());
+        result.put("transfers", withEmails(owedTo(me.userId(), settled)));
+        return ResponseEntity.ok(result);
+    }
 
-            // Each member owes splitAmount (subtract)
-            for (ExpenseShare share : e.getShares()) {
-                String memberId = share.getUserId();
-                balance.put(memberId, balance.getOrDefault(memberId, 0.0) - splitAmount);
+    // Helper: what each member still owes the payee on these expenses
+    private static List<Transfer> owedTo(String payeeId, List<Expense> expenses) {
+        Map<String, Long> owed = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            for (ExpenseShare share : expense.getShares()) {
+                if (share.getUserId().equals(payeeId) || "APPROVED".equals(share.getStatus())) continue;
+                owed.merge(share.getUserId(), share.getAmountMinor(), Long::sum);
             }
+        }
 
-            // Payer receives total amount (add)
-            balance.put(payerId, balance.getOrDefault(payerId, 0.0) + e.getAmount());
-
-            // If rounding has balanced everyone to ~0, reset to clean zeros
-            double total = balance.values().stream().mapToDouble(Double::doubleValue).sum();
-            double maxAbs = balance.values().stream().mapToDouble(Math::abs).max().orElse(0.0);
+        List<Transfer> transfers = new ArrayList<>();
+        owed.forEach((userId, amount) -> transfers.add(new Transfer(userId, payeeId, amount)));
+        return transfers;
+    }
 
-            if (Math.abs(total) < 0.01 && maxAbs < 0.01) {
-                balance.replaceAll((k, v) -> 0.0);
-            }
+    // Helper: fill in both emails of every transfer with one batched lookup
+    private List<Transfer> withEmails(List<Transfer> transfers) {
+        Set<String> ids = new HashSet<>();
+        for (Transfer t : transfers) {
+            ids.add(t.getFromUserId());
+            ids.add(t.getToUserId());
         }
 
-        // Convert userId -> email (readable) and round values
-        Map<String, Double> readable = new LinkedHashMap<>();
-        for (var entry : balance.entrySet()) {
-            String id = entry.getKey();
-            Optional<User> userOpt = userRepo.findById(id);
-            String email = userOpt.map(User::getEmail).orElse(id);
-            readable.put(email, Math.round(entry.getValue() * 100.0) / 100.0);
+        Map<String, String> emails = userLookup.emailsById(ids);
+        for (Transfer t : transfers) {
+            t.setFromEmail(emails.get(t.getFromUserId()));
+            t.setToEmail(emails.get(t.getToUserId()));
         }
-
-        // Sort descending by amount (largest creditors first)
-        Map<String, Double> sorted = readable.entrySet().stream()
-                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
-
-        return ResponseEntity.ok(sorted);
+        return transfers;
     }
 
     // -----------------------
@@ -337,8 +567,21 @@ public class ExpenseController {
     // -----------------------
     // DELETE /api/expenses/{id}
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteExpense(@PathVariable String id) {
-        expenseRepo.deleteById(id);
+    public ResponseEntity<?> deleteExpense(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser me) {
+
+        // Load first to check the team (and read its ledger before the change)
+        Optional<Expense> opt = expenseRepo.findById(id);
+        if (opt.isPresent()) {
+            if (!teamAccess.isMember(me, opt.get().getTeamId())) return forbidden(NOT_MEMBER);
+
+            TeamBalanceService.Ticket ledger = balanceService.begin(opt.get().getTeamId());
+
+            // Remove the debts of the document actually deleted (it may have
+            // changed since it was loaded)
+            Expense deleted = expenseRepo.findAndDelete(id);
+            if (deleted != null) balanceService.recordExpenseDeleted(ledger, deleted);
+        }
+
         return ResponseEntity.ok("Expense deleted successfully!");
     }
 
@@ -349,7 +592,10 @@ public class ExpenseController {
     @GetMapping("/team/{teamId}/user/{userId}")
     public ResponseEntity<?> getUserExpenses(
             @PathVariable String teamId,
-            @PathVariable String userId) {
+            @PathVariable String userId,
+            @AuthenticationPrincipal AuthenticatedUser me) {
+
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
 
         // Only return expenses where the provided user is the payer
         List<Expense> expenses = expenseRepo.findByTeamId(teamId)
@@ -359,43 +605,126 @@ public class ExpenseController {
 
         return ResponseEntity.ok(expenses);
     }
-    @PostMapping("/custom-add")
-public ResponseEntity<?> addCustomExpense(@RequestBody Map<String, Object> body) {
 
-    String teamId = (String) body.get("teamId");
-    String paidByUserId = (String) body.get("paidByUserId");
-    double amount = Double.parseDouble(body.get("amount").toString());
-    String description = (String) body.get("description");
+    // -----------------------
+    // Keyset-paginated team expenses
+    // -----------------------
+    // GET /api/expenses/team/{teamId}/page?cursor=...&limit=...
+    // GET /api/expenses/team/{teamId}/user/{userId}/page?cursor=...&limit=...
+    //
+    // Returns { items: [...newest first...], nextCursor: "..." | null }.
+    // Pass nextCursor back as ?cursor= to continue; every page costs the same.
+    @GetMapping({"/team/{teamId}/page", "/team/{teamId}/user/{userId}/page"})
+    public ResponseEntity<?> getTeamExpensesPage(
+            @PathVariable String teamId,
+            @PathVariable(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal AuthenticatedUser me) {
+
+        if (!teamAccess.isMember(me, teamId)) return forbidden(NOT_MEMBER);
+
+        // Clamp page size to 1..MAX_PAGE_SIZE
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Decode "where the previous page stopped"
+        Instant afterDate = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = decoded.indexOf(':');
+                afterDate = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, sep)));
+                afterId = decoded.substring(sep + 1);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
 
-    List<Map<String, Object>> incomingShares =
-            (List<Map<String, Object>>) body.get("shares");
+        List<Expense> items = expenseRepo.findTeamPage(teamId, userId, afterDate, afterId, pageSize);
 
-    Expense expense = new Expense();
-    expense.setTeamId(teamId);
-    expense.setPaidByUserId(paidByUserId);
-    expense.setDescription(description);
-    expense.setAmount(amount);
-    expense.setDate(Instant.now());
+        // A full page means there may be more → cursor points at its last item
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            Expense last = items.get(items.size() - 1);
+            String raw = last.getDate().toEpochMilli() + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
-    List<ExpenseShare> shares = new ArrayList<>();
+        return ResponseEntity.ok(new ExpensePage(items, nextCursor));
+    }
 
-    for (Map<String, Object> s : incomingShares) {
+    // -----------------------
+    // Streaming export of team expenses (NDJSON)
+    // -----------------------
+    // GET /api/expenses/team/{teamId}/export
+    // GET /api/expenses/team/{teamId}/user/{userId}/export
+    //
+    // Writes one expense JSON per line while reading them from a MongoDB
+    // cursor, so the full history is never held in memory at once.
+    @GetMapping({"/team/{teamId}/export", "/team/{teamId}/user/{userId}/export"})
+    public ResponseEntity<StreamingResponseBody> exportTeamExpenses(
+            @PathVariable String teamId,
+            @PathVariable(required = false) String userId,
+            @AuthenticationPrincipal AuthenticatedUser me) {
+
+        if (!teamAccess.isMember(me, teamId)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
 
-        String uid = (String) s.get("userId");
-        double shareAmount = Double.parseDouble(s.get("amount").toString());
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+
+            // try-with-resources closes the MongoDB cursor even if the client disconnects
+            try (Stream<Expense> expenses = expenseRepo.streamTeamExpenses(teamId, userId)) {
+                Iterator<Expense> it = expenses.iterator();
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+            }
 
-        boolean isPayer = uid.equals(paidByUserId);
-        ExpenseShare share = new ExpenseShare(uid, shareAmount, isPayer);
-        share.setPayeeId(paidByUserId);
+            out.flush();
+        };
 
-        shares.add(share);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
-    expense.setShares(shares);
-    expenseRepo.save(expense);
+    // -----------------------
+    // Add expense with a custom split
+    // -----------------------
+    // POST /api/expenses/custom-add
+    //
+    // Body: { teamId, paidByUserId, amount, description, splitType?, shares: [...] }
+    // splitType: EQUAL | WEIGHTED | EXACT | absent (see ExpenseSplitService)
+    @PostMapping("/custom-add")
+    public ResponseEntity<?> addCustomExpense(@RequestBody Map<String, Object> body, @AuthenticationPrincipal AuthenticatedUser me) {
 
-    return ResponseEntity.ok("Custom split expense added successfully");
-}
+        Expense expense;
+        try {
+            expense = splitService.parseCustomSplit(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
+        if (!teamAccess.isMember(me, expense.getTeamId())) return forbidden(NOT_MEMBER);
 
+        Optional<Team> teamOpt = entityCache.findTeam(expense.getTeamId());
+        if (teamOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body("Team not found");
+        }
+
+        // Payer and every share holder must belong to the team
+        try {
+            splitService.requireMembers(expense, teamOpt.get().getMemberIds());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        TeamBalanceService.Ticket ledger = balanceService.begin(expense.getTeamId());
+        expenseRepo.save(expense);
+
+        // Add the new debts to the team ledger
+        balanceService.recordExpenseAdded(ledger, expense);
+
+        return ResponseEntity.ok("Custom split expense added successfully");
+    }
 }
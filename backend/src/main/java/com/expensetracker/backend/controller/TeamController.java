@@ -4,29 +4,30 @@ import com.expensetracker.backend.model.Team;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.TeamRepository;
 import com.expensetracker.backend.repository.UserRepository;
-import com.expensetracker.backend.service.JwtService;
+import com.expensetracker.backend.security.AuthenticatedUser;
+import com.expensetracker.backend.service.EntityCacheService;
+import com.expensetracker.backend.service.JoinAttemptLimiter;
+import com.expensetracker.backend.service.OptimisticRetryService;
+import com.expensetracker.backend.service.TeamAccessService;
+import com.expensetracker.backend.service.TeamQrService;
 import com.expensetracker.backend.service.TeamService;
+import com.expensetracker.backend.service.UserLookupService;
+import com.expensetracker.backend.util.JoinCodes;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
-
-import jakarta.servlet.http.HttpServletRequest;
-
-import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import org.springframework.web.bind.annotation.*;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 
@@ -49,24 +50,34 @@ public class TeamController {
     private TeamService teamService;     // Business logic such as per-team expense summaries
 
     @Autowired
-    private JwtService jwtService;       // Helps extract data from JWT tokens
+    private UserLookupService userLookup; // Batched, field-restricted user lookups
 
-    
-    // ----------------------------------------------------
-    // Helper: Extract email from Bearer Token
-    // ----------------------------------------------------
-    private String getEmailFromToken(HttpServletRequest request) {
-        String header = request.getHeader("Authorization");
+    @Autowired
+    private OptimisticRetryService optimisticRetry; // Re-runs saves that lost a version race
 
-        // If no header or header doesn't start with "Bearer "
-        if (header == null || !header.startsWith("Bearer "))
-            return null;
+    @Autowired
+    private EntityCacheService entityCache; // Cached read-only user / team lookups
+
+    @Autowired
+    private TeamQrService teamQr;        // Rendered-once join QR codes
+
+    @Autowired
+    private TeamAccessService teamAccess; // "Is the caller a member?" (token first)
+
+    @Autowired
+    private JoinAttemptLimiter joinLimiter; // Caps wrong join codes per user
 
-        // Extract only the token part
-        String token = header.substring(7);
+    // The caller (AuthenticatedUser) comes from the verified JWT
+    // (JwtAuthenticationFilter), never from ids / emails sent by the client.
 
-        // Extract email inside token
-        return jwtService.extractEmail(token);
+    // New join codes drawn before giving up (a clash is already ~1 in 10^15)
+    private static final int MAX_JOIN_CODE_ATTEMPTS = 3;
+
+    // ----------------------------------------------------
+    // Helper: 403 for teams the caller is not a member of
+    // ----------------------------------------------------
+    private static ResponseEntity<?> notMember() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not a member of this team");
     }
 
 
@@ -74,63 +85,62 @@ public class TeamController {
     // 1️⃣ CREATE TEAM
     // ====================================================
     @PostMapping("/create")
-    public ResponseEntity<?> createTeam(@RequestBody Map<String, String> payload)
-            throws WriterException, IOException {
+    public ResponseEntity<?> createTeam(@RequestBody Map<String, String> payload,
+                                        @AuthenticationPrincipal AuthenticatedUser me) {
 
-        // Extract inputs sent from frontend
+        // Extract inputs sent from frontend (the creator is the caller)
         String teamName = payload.get("teamName");
-        String email = payload.get("email");
 
         // Team must have name
         if (teamName == null || teamName.trim().isEmpty()) {
             return ResponseEntity.badRequest().body("Team name cannot be empty");
         }
 
-        // Check if creator actually exists
-        Optional<User> userOpt = userRepo.findByEmail(email);
+        // Load the creator by id (primary key) — it is modified below
+        Optional<User> userOpt = userRepo.findById(me.userId());
         if (userOpt.isEmpty()) {
             return ResponseEntity.badRequest().body("User not found");
         }
 
         User user = userOpt.get();
 
-        // Create new team object
-        Team team = new Team();
-        team.setTeamName(teamName);
-        team.setCreatedAt(Instant.now());
-
-        // Create 8-character random join code (like ABCD1234)
-        String joinCode = new ObjectId().toHexString().substring(0, 8).toUpperCase();
-        team.setJoinCode(joinCode);
-
-        // Add creator as first member
-        team.getMemberIds().add(user.getId());
-        teamRepo.save(team);
+        // Create the team with a random join code (JoinCodes); the unique
+        // index rejects a code that is already taken → draw a new one
+        Team team = null;
+        for (int attempt = 1; team == null; attempt++) {
+            Team candidate = new Team();
+            candidate.setTeamName(teamName);
+            candidate.setCreatedAt(Instant.now());
+            candidate.setJoinCode(JoinCodes.generate());
+
+            // Add creator as first member
+            candidate.getMemberIds().add(user.getId());
+            try {
+                team = teamRepo.insert(candidate);
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_JOIN_CODE_ATTEMPTS) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Could not create team, please try again");
+                }
+            }
+        }
+        entityCache.teamChanged(team);
+        String joinCode = team.getJoinCode();
 
         // Add this team to user's list
         user.addTeamId(team.getId());
         userRepo.save(user);
+        entityCache.userChanged(user);
 
-        // ------------------------
-        // Generate QR code
-        // ------------------------
-
-        QRCodeWriter qrWriter = new QRCodeWriter();
-
-        // Create 250×250 QR
-        BitMatrix matrix = qrWriter.encode(joinCode, BarcodeFormat.QR_CODE, 250, 250);
-
-        // Convert QR → image → base64 so frontend can show it
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(matrix, "PNG", out);
-        String base64QR = Base64.getEncoder().encodeToString(out.toByteArray());
+        // QR code is rendered in the background; the frontend loads it
+        // (cacheable) from qrUrl instead of getting it inline as base64
+        teamQr.precompute(joinCode);
 
         // Build JSON response
         Map<String, Object> response = new HashMap<>();
         response.put("teamId", team.getId());
         response.put("teamName", teamName);
         response.put("joinCode", joinCode);
-        response.put("qrBase64", base64QR);
+        response.put("qrUrl", "/api/team/team/" + team.getId() + "/qr");
 
         return ResponseEntity.ok(response);
     }
@@ -140,16 +150,26 @@ public class TeamController {
     // 2️⃣ JOIN TEAM
     // ====================================================
     @PostMapping("/join")
-    public ResponseEntity<?> joinTeam(@RequestParam String joinCode, @RequestParam String email) {
+    public ResponseEntity<?> joinTeam(@RequestParam String joinCode,
+                                      @AuthenticationPrincipal AuthenticatedUser me) {
+
+        // Too many wrong codes lately → refuse before looking anything up
+        if (!joinLimiter.tryAcquire(me.userId())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(joinLimiter.getWindow().toSeconds()))
+                    .body("Too many invalid join codes, please try again later");
+        }
 
         // Find team using joinCode
-        Optional<Team> teamOpt = teamRepo.findByJoinCode(joinCode);
+        // Only the team id is needed here → cached lookup is fine
+        Optional<Team> teamOpt = entityCache.findTeamByJoinCode(joinCode);
         if (teamOpt.isEmpty()) {
+            joinLimiter.recordFailure(me.userId());
             return ResponseEntity.badRequest().body("Invalid join code");
         }
 
-        // Find user using email
-        Optional<User> userOpt = userRepo.findByEmail(email);
+        // The joining user is the caller (loaded by id — it is modified below)
+        Optional<User> userOpt = userRepo.findById(me.userId());
         if (userOpt.isEmpty()) {
             return ResponseEntity.badRequest().body("User not found");
         }
@@ -157,15 +177,29 @@ public class TeamController {
         Team team = teamOpt.get();
         User user = userOpt.get();
 
-        // If user is not already inside team
-        if (!team.getMemberIds().contains(user.getId())) {
-            team.getMemberIds().add(user.getId());
-            teamRepo.save(team);
+        // If user is not already inside team → add and save.
+        // The save is version-checked: if someone else joined at the same
+        // moment, re-read the team and add this user again.
+        String teamId = team.getId();
+        try {
+            team = optimisticRetry.run("team.join", () -> {
+                Team fresh = teamRepo.findById(teamId).orElseThrow();
+
+                if (!fresh.getMemberIds().contains(user.getId())) {
+                    fresh.getMemberIds().add(user.getId());
+                    teamRepo.save(fresh);
+                    entityCache.teamChanged(fresh);
+                }
+                return fresh;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Team is busy, please try again");
         }
 
         // Add teamId inside user's record
         user.addTeamId(team.getId());
         userRepo.save(user);
+        entityCache.userChanged(user);
 
         return ResponseEntity.ok("Joined team successfully!");
     }
@@ -175,7 +209,12 @@ public class TeamController {
     // 3️⃣ TEAM EXPENSES SUMMARY PER USER
     // ====================================================
     @GetMapping("/user/{userId}/expenses")
-    public ResponseEntity<?> getUserTeamExpenses(@PathVariable String userId) {
+    public ResponseEntity<?> getUserTeamExpenses(@PathVariable String userId,
+                                                 @AuthenticationPrincipal AuthenticatedUser me) {
+        if (!me.is(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cannot read another user's expenses");
+        }
+
         try {
             // Delegated to TeamService (your custom logic)
             return ResponseEntity.ok(teamService.getTeamExpensesForUser(userId));
@@ -189,31 +228,31 @@ public class TeamController {
     // 4️⃣ GET TEAM DETAILS
     // ====================================================
     @GetMapping("/{teamId}")
-    public ResponseEntity<?> getTeam(@PathVariable String teamId) {
+    public ResponseEntity<?> getTeam(@PathVariable String teamId,
+                                     @AuthenticationPrincipal AuthenticatedUser me) {
+
+        if (!teamAccess.isMember(me, teamId)) return notMember();
 
         // Return team or 400 error
-        return teamRepo.findById(teamId)
+        return entityCache.findTeam(teamId)
                 .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.badRequest().body("Team not found"));
     }
 
 
     // ====================================================
-    // 5️⃣ GET ALL TEAMS (admin/debug)
-    // ====================================================
-    @GetMapping("/all")
-    public ResponseEntity<?> getAllTeams() {
-        return ResponseEntity.ok(teamRepo.findAll());
-    }
-
-
-    // ====================================================
-    // 6️⃣ GET ALL TEAMS WHERE USER IS MEMBER
+    // 5️⃣ GET ALL TEAMS WHERE USER IS MEMBER
     // ====================================================
     @GetMapping("/my-teams/{userId}")
-    public ResponseEntity<?> getUserTeams(@PathVariable String userId) {
+    public ResponseEntity<?> getUserTeams(@PathVariable String userId,
+                                          @AuthenticationPrincipal AuthenticatedUser me) {
+
+        if (!me.is(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cannot list another user's teams");
+        }
 
-        Optional<User> userOpt = userRepo.findById(userId);
+        // Cached user (not the token's team list: it may predate a join)
+        Optional<User> userOpt = entityCache.findUser(userId);
         if (userOpt.isEmpty()) {
             return ResponseEntity.badRequest().body("User not found");
         }
@@ -228,61 +267,64 @@ public class TeamController {
 
 
     // ====================================================
-    // 7️⃣ QR CODE GENERATION (URL-based)
+    // 6️⃣ GET QR CODE IMAGE FOR TEAM
     // ====================================================
-    public byte[] generateTeamQr(String teamId) {
-        try {
-            // The QR code will open join link in frontend
-            String qrText = "http://localhost:5173/join-team/" + teamId;
-
-            // Generate 300×300 QR matrix
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(qrText, BarcodeFormat.QR_CODE, 300, 300);
-
-            // Convert QR to PNG bytes
-            ByteArrayOutputStream pngOutput = new ByteArrayOutputStream();
-            MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutput);
+    // The QR encodes the team's join link (/join-team/<joinCode>) and never
+    // changes, so:
+    //   - the PNG is rendered once and served from TeamQrService's cache
+    //   - strong ETag → If-None-Match gets a 304 without a body
+    //   - the browser may keep it for 30 days without asking
+    // It holds the join code, so only members get it (and only the
+    // browser may cache it, never a shared cache).
+    @GetMapping("/team/{teamId}/qr")
+    public ResponseEntity<?> getTeamQr(
+            @PathVariable String teamId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @AuthenticationPrincipal AuthenticatedUser me) {
 
-            return pngOutput.toByteArray();
+        if (!teamAccess.isMember(me, teamId)) return notMember();
 
-        } catch (WriterException | IOException e) {
-            throw new RuntimeException("Failed to generate QR code", e);
+        // Unknown teams get no QR (and cannot fill the cache)
+        Optional<Team> team = entityCache.findTeam(teamId);
+        if (team.isEmpty() || team.get().getJoinCode() == null) {
+            return ResponseEntity.notFound().build();
         }
-    }
-
-
-    // ====================================================
-    // 8️⃣ GET QR CODE IMAGE FOR TEAM
-    // ====================================================
-    @GetMapping("/team/{teamId}/qr")
-    public ResponseEntity<byte[]> getTeamQr(@PathVariable String teamId) {
 
-        // Generate PNG QR bytes
-        byte[] qrImage = generateTeamQr(teamId);
+        TeamQrService.TeamQr qr = teamQr.forJoinCode(team.get().getJoinCode());
+        CacheControl cache = CacheControl.maxAge(Duration.ofDays(30)).cachePrivate();
 
-        // HTTP header: inform browser this is PNG
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_TYPE, "image/png");
+        if (qr.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qr.etag()).cacheControl(cache).build();
+        }
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(qrImage);
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(qr.etag())
+                .cacheControl(cache)
+                .body(qr.png());
     }
+    // ====================================================
+    // 7️⃣ TEAM MEMBERS (lightweight)
+    // ====================================================
+    // Returns [{ id, fullName, email, avatarUrl }] — loaded with a projection,
+    // so password hashes, team lists and profile images never leave the DB.
+    // The picture itself is fetched (and cached) separately via avatarUrl.
     @GetMapping("/members/{teamId}")
-public ResponseEntity<?> getTeamMembers(@PathVariable String teamId) {
-    Optional<Team> teamOpt = teamRepo.findById(teamId);
+public ResponseEntity<?> getTeamMembers(@PathVariable String teamId,
+                                        @AuthenticationPrincipal AuthenticatedUser me) {
+    Optional<Team> teamOpt = entityCache.findTeam(teamId);
 
     if (teamOpt.isEmpty()) {
         return ResponseEntity.status(404).body("Team not found");
     }
 
+    if (!teamAccess.isMember(me, teamId)) return notMember();
+
     Team team = teamOpt.get();
 
     List<String> memberIds = team.getMemberIds();
 
-    List<User> members = userRepo.findAllById(memberIds);
-
-    return ResponseEntity.ok(members);
+    return ResponseEntity.ok(userLookup.findMembers(memberIds));
 }
 
 
@@ -0,0 +1,41 @@
+package com.expensetracker.backend.dto;
+
+import java.util.List;
+
+import com.expensetracker.backend.model.Expense;
+
+/**
+ * One page of a keyset-paginated expense listing.
+ *
+ *  - items      : the expenses of this page (newest first)
+ *  - nextCursor : pass as ?cursor= to get the next page,
+ *                 null when this is the last page
+ */
+public class ExpensePage {
+
+    private List<Expense> items;
+    private String nextCursor;
+
+    public ExpensePage() {}
+
+    public ExpensePage(List<Expense> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Expense> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Expense> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
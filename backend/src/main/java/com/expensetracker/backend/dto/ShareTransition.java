@@ -0,0 +1,98 @@
+package com.expensetracker.backend.dto;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Describes ONE status change of an ExpenseShare, applied atomically by
+ * ExpenseRepositoryImpl.transitionShare():
+ *
+ *  - fromStatuses : the statuses the share must currently have
+ *                   (UNPAID also matches shares without a status)
+ *  - toStatus     : the new status
+ *  - payment      : optionally also set paymentMethod / proofImageId
+ *                   (null values clear them)
+ *  - payerId      : optionally, the expense must have been paid by this
+ *                   user (payee-only actions such as approving)
+ *  - teamId       : optionally, the expense must belong to this team (the
+ *                   caller already knows it, e.g. for its ledger ticket)
+ *
+ * Example — submit a cash payment unless already approved:
+ *
+ *      ShareTransition.to("PENDING_CASH_APPROVAL")
+ *              .from("UNPAID", "REJECTED", "PENDING_UPI_APPROVAL")
+ *              .withPayment("CASH", null);
+ */
+public class ShareTransition {
+
+    private final String toStatus;
+    private final Set<String> fromStatuses = new LinkedHashSet<>();
+    private boolean touchesPayment;
+    private String paymentMethod;
+    private String proofImageId;
+    private String payerId;
+    private String teamId;
+
+    private ShareTransition(String toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public static ShareTransition to(String toStatus) {
+        return new ShareTransition(toStatus);
+    }
+
+    public ShareTransition from(String... statuses) {
+        fromStatuses.addAll(Arrays.asList(statuses));
+        return this;
+    }
+
+    public ShareTransition withPayment(String paymentMethod, String proofImageId) {
+        this.touchesPayment = true;
+        this.paymentMethod = paymentMethod;
+        this.proofImageId = proofImageId;
+        return this;
+    }
+
+    public ShareTransition clearingPayment() {
+        return withPayment(null, null);
+    }
+
+    public ShareTransition byPayer(String payerId) {
+        this.payerId = payerId;
+        return this;
+    }
+
+    public ShareTransition inTeam(String teamId) {
+        this.teamId = teamId;
+        return this;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public Set<String> getFromStatuses() {
+        return fromStatuses;
+    }
+
+    public boolean touchesPayment() {
+        return touchesPayment;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getProofImageId() {
+        return proofImageId;
+    }
+
+    public String getPayerId() {
+        return payerId;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.backend.dto;
+
+/**
+ * Lightweight view of a team member, returned by GET /api/team/members/{teamId}.
+ *
+ * Only what the member lists need — never the password hash, the team list
+ * or the (large) profile image itself. The picture is fetched separately
+ * from avatarUrl, which browsers can cache.
+ *
+ *  - id        : user id
+ *  - fullName  : "First Last"
+ *  - email     : email address
+ *  - avatarUrl : path of the avatar endpoint (relative to the API base)
+ */
+public class TeamMember {
+
+    private String id;
+    private String fullName;
+    private String email;
+    private String avatarUrl;
+
+    public TeamMember() {}
+
+    public TeamMember(String id, String fullName, String email, String avatarUrl) {
+        this.id = id;
+        this.fullName = fullName;
+        this.email = email;
+        this.avatarUrl = avatarUrl;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        this.avatarUrl = avatarUrl;
+    }
+}
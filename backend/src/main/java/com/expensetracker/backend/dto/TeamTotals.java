@@ -0,0 +1,47 @@
+package com.expensetracker.backend.dto;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * Per-team totals for ONE user, produced by the aggregation in
+ * ExpenseRepositoryImpl.sumOutstandingByTeam().
+ *
+ *  - teamId    : the team (the aggregation's _id)
+ *  - needToPay : unapproved shares the user owes to other payers
+ *  - needToGet : unapproved shares other members owe to the user
+ *
+ * Both are integer minor units (see Money).
+ */
+public class TeamTotals {
+
+    @Id
+    private String teamId;
+    private long needToPay;
+    private long needToGet;
+
+    public TeamTotals() {}
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public long getNeedToPay() {
+        return needToPay;
+    }
+
+    public void setNeedToPay(long needToPay) {
+        this.needToPay = needToPay;
+    }
+
+    public long getNeedToGet() {
+        return needToGet;
+    }
+
+    public void setNeedToGet(long needToGet) {
+        this.needToGet = needToGet;
+    }
+}
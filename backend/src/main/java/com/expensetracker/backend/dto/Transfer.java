@@ -0,0 +1,75 @@
+package com.expensetracker.backend.dto;
+
+import com.expensetracker.backend.util.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * One payment of a settle-up plan, returned by
+ * GET /api/expenses/settle-plan/{teamId}.
+ *
+ *  - fromUserId / fromEmail : who pays
+ *  - toUserId   / toEmail   : who receives
+ *  - amount                 : how much (decimal; stored as minor units)
+ */
+public class Transfer {
+
+    private String fromUserId;
+    private String fromEmail;
+    private String toUserId;
+    private String toEmail;
+    private long amountMinor;
+
+    public Transfer() {}
+
+    public Transfer(String fromUserId, String toUserId, long amountMinor) {
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.amountMinor = amountMinor;
+    }
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getFromEmail() {
+        return fromEmail;
+    }
+
+    public void setFromEmail(String fromEmail) {
+        this.fromEmail = fromEmail;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public double getAmount() {
+        return Money.toMajor(amountMinor);
+    }
+
+    @JsonIgnore
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    @JsonIgnore
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+}
@@ -0,0 +1,271 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.dto.ShareTransition;
+import com.expensetracker.backend.dto.TeamTotals;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * ----------------------------------------------------------------------------
+ * InMemoryExpenseRepository ("local-perf" profile)
+ * ----------------------------------------------------------------------------
+ * ExpenseRepository (including the ExpenseRepositoryCustom queries) on top
+ * of InMemoryRepository.
+ *
+ * Secondary indexes, all ordered by (date, id) like the team_date_id index:
+ *  - teamId                 → team listings, pages, exports, summaries
+ *  - teamId + paidByUserId  → a payer's expenses / pending approvals
+ *
+ * Every query mirrors the MongoDB version in ExpenseRepository /
+ * ExpenseRepositoryImpl, including the partial (projected) results.
+ * ----------------------------------------------------------------------------
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryExpenseRepository extends InMemoryRepository<Expense> implements ExpenseRepository {
+
+    private static final Set<String> PENDING = Set.of("PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL");
+
+    private final Index<Expense> byTeam = index(e -> Collections.singletonList(e.getTeamId()), false);
+    private final Index<Expense> byTeamAndPayer = index(e -> Collections.singletonList(teamPayerKey(e.getTeamId(), e.getPaidByUserId())), false);
+
+    public InMemoryExpenseRepository(MappingMongoConverter converter) {
+        super(Expense.class, converter,
+                e -> e.getDate() != null ? e.getDate().toEpochMilli() : Long.MIN_VALUE);
+    }
+
+    @Override
+    protected List<Index<Expense>> indexes() {
+        return List.of(byTeam, byTeamAndPayer);
+    }
+
+    // -----------------------------------------------------------------------
+    // ExpenseRepository
+    // -----------------------------------------------------------------------
+
+    @Override
+    public List<Expense> findByTeamId(String teamId) {
+        return loadAll(byTeam.get(teamId))
+                .filter(e -> teamId.equals(e.getTeamId()))
+                .toList();
+    }
+
+    @Override
+    public List<Expense> findPendingApprovals(String teamId, String payeeId) {
+        List<Expense> result = new ArrayList<>();
+
+        loadAll(byTeamAndPayer.get(teamPayerKey(teamId, payeeId))).forEach(e -> {
+            if (!teamId.equals(e.getTeamId()) || !payeeId.equals(e.getPaidByUserId())) return;
+
+            // $filter: only the pending shares; $unset: no inline proof image
+            List<ExpenseShare> pending = new ArrayList<>();
+            for (ExpenseShare share : e.getShares()) {
+                if (!PENDING.contains(share.getStatus())) continue;
+                share.setProofImage(null);
+                pending.add(share);
+            }
+            if (pending.isEmpty()) return;
+
+            // $project: id, description, amount, shares
+            Expense partial = new Expense();
+            partial.setId(e.getId());
+            partial.setDescription(e.getDescription());
+            partial.setAmountMinor(e.getAmountMinor());
+            partial.setShares(pending);
+            result.add(partial);
+        });
+
+        return result;
+    }
+
+    // -----------------------------------------------------------------------
+    // ExpenseRepositoryCustom
+    // -----------------------------------------------------------------------
+
+    @Override
+    public List<TeamTotals> sumOutstandingByTeam(Collection<String> teamIds, String userId) {
+        List<TeamTotals> result = new ArrayList<>();
+
+        for (String teamId : teamIds) {
+            long needToPay = 0;
+            long needToGet = 0;
+            boolean any = false;
+
+            for (Expense e : findByTeamId(teamId)) {
+                boolean userPaid = userId.equals(e.getPaidByUserId());
+
+                for (ExpenseShare share : e.getShares()) {
+                    if ("APPROVED".equals(share.getStatus())) continue;
+                    boolean userOwns = userId.equals(share.getUserId());
+
+                    if (userOwns && !userPaid) needToPay += share.getAmountMinor();
+                    if (userPaid && !userOwns) needToGet += share.getAmountMinor();
+                    any |= userOwns || userPaid;
+                }
+            }
+
+            // Teams without a single outstanding share involving the user
+            // are not returned (same as the $group result)
+            if (!any) continue;
+
+            TeamTotals totals = new TeamTotals();
+            totals.setTeamId(teamId);
+            totals.setNeedToPay(needToPay);
+            totals.setNeedToGet(needToGet);
+            result.add(totals);
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<Expense> findTeamPage(String teamId, String payerId, Instant afterDate, String afterId, int limit) {
+        NavigableSet<IndexEntry> entries = teamEntries(teamId, payerId);
+
+        // Strictly after the last (date, id) of the previous page, newest first
+        if (afterDate != null && afterId != null) {
+            entries = entries.headSet(new IndexEntry(afterDate.toEpochMilli(), afterId), false);
+        }
+
+        return loadAll(entries.descendingSet())
+                .filter(e -> matchesTeam(e, teamId, payerId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<Expense> streamTeamExpenses(String teamId, String payerId) {
+        return loadAll(teamEntries(teamId, payerId).descendingSet())
+                .filter(e -> matchesTeam(e, teamId, payerId));
+    }
+
+    @Override
+    public Expense transitionShare(String expenseId, String userId, ShareTransition transition) {
+        return modify(expenseId, expense -> {
+
+            ExpenseShare share = shareOf(expense, userId);
+            if (share == null) return null;
+            if (transition.getPayerId() != null && !transition.getPayerId().equals(expense.getPaidByUserId())) return null;
+            if (transition.getTeamId() != null && !transition.getTeamId().equals(expense.getTeamId())) return null;
+
+            // Shares written before statuses existed have none → they count as UNPAID
+            String status = share.getStatus();
+            boolean expected = transition.getFromStatuses().contains(status)
+                    || (status == null && transition.getFromStatuses().contains("UNPAID"));
+            if (!expected) return null;
+
+            // Result: the expense as it was BEFORE, with only this share
+            Expense before = partial(expense, copy(share));
+
+            share.setStatus(transition.getToStatus());
+            if (transition.touchesPayment()) {
+                share.setPaymentMethod(transition.getPaymentMethod());
+                share.setProofImageId(transition.getProofImageId());
+                share.setProofImage(null);
+            }
+
+            return before;
+        });
+    }
+
+    @Override
+    public Expense findWithShare(String expenseId, String userId) {
+        Expense expense = load(expenseId);
+        if (expense == null) return null;
+
+        ExpenseShare share = shareOf(expense, userId);
+        return partial(expense, share);
+    }
+
+    @Override
+    public Expense findAndDelete(String expenseId) {
+        return remove(expenseId);
+    }
+
+    @Override
+    public List<Expense> findOutstanding(String teamId, String payeeId) {
+        return loadAll(byTeamAndPayer.get(teamPayerKey(teamId, payeeId)))
+                .filter(e -> teamId.equals(e.getTeamId()) && payeeId.equals(e.getPaidByUserId()))
+                .filter(e -> e.getShares().stream().anyMatch(s -> !"APPROVED".equals(s.getStatus())))
+                .toList();
+    }
+
+    @Override
+    public List<String> settleOutstanding(List<Expense> expenses) {
+        String settlementId = UUID.randomUUID().toString();
+        List<String> settled = new ArrayList<>();
+
+        for (Expense loaded : expenses) {
+            Boolean updated = modify(loaded.getId(), expense -> {
+                if (!Objects.equals(expense.getVersion(), loaded.getVersion())) return null;
+
+                for (ExpenseShare share : expense.getShares()) {
+                    if (share.getUserId().equals(expense.getPaidByUserId())) continue;
+                    if ("APPROVED".equals(share.getStatus())) continue;
+
+                    share.setStatus("APPROVED");
+                    share.setPaymentMethod("SETTLEMENT");
+                    share.setSettlementId(settlementId);
+                }
+                return Boolean.TRUE;
+            });
+
+            if (updated != null) settled.add(loaded.getId());
+        }
+
+        return settled;
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private NavigableSet<IndexEntry> teamEntries(String teamId, String payerId) {
+        return payerId == null ? byTeam.get(teamId) : byTeamAndPayer.get(teamPayerKey(teamId, payerId));
+    }
+
+    private static boolean matchesTeam(Expense e, String teamId, String payerId) {
+        return teamId.equals(e.getTeamId()) && (payerId == null || payerId.equals(e.getPaidByUserId()));
+    }
+
+    private static String teamPayerKey(String teamId, String payerId) {
+        return teamId + "|" + payerId;
+    }
+
+    private static ExpenseShare shareOf(Expense expense, String userId) {
+        for (ExpenseShare share : expense.getShares()) {
+            if (userId.equals(share.getUserId())) return share;
+        }
+        return null;
+    }
+
+    /**
+     * Projection used by transitionShare / findWithShare:
+     * id, teamId, paidByUserId and at most one share.
+     */
+    private static Expense partial(Expense expense, ExpenseShare share) {
+        Expense partial = new Expense();
+        partial.setId(expense.getId());
+        partial.setTeamId(expense.getTeamId());
+        partial.setPaidByUserId(expense.getPaidByUserId());
+        partial.setShares(share != null ? new ArrayList<>(List.of(share)) : new ArrayList<>());
+        return partial;
+    }
+
+    private static ExpenseShare copy(ExpenseShare share) {
+        ExpenseShare copy = new ExpenseShare(share.getUserId(), share.getAmountMinor(), false);
+        copy.setStatus(share.getStatus());
+        copy.setPaymentMethod(share.getPaymentMethod());
+        copy.setProofImageId(share.getProofImageId());
+        copy.setPayeeId(share.getPayeeId());
+        return copy;
+    }
+}
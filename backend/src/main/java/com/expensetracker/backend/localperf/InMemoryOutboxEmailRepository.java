@@ -0,0 +1,105 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.OutboxEmail;
+import com.expensetracker.backend.repository.OutboxEmailRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * OutboxEmailRepository for the "local-perf" profile.
+ *
+ * Secondary index: status, ordered by nextAttemptAt (like status_next_attempt).
+ * Sent emails are not purged (there is no TTL monitor).
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryOutboxEmailRepository extends InMemoryRepository<OutboxEmail>
+        implements OutboxEmailRepository {
+
+    private final Index<OutboxEmail> byStatus = index(e -> Collections.singletonList(e.getStatus()), false);
+
+    public InMemoryOutboxEmailRepository(MappingMongoConverter converter) {
+        super(OutboxEmail.class, converter,
+                e -> e.getNextAttemptAt() != null ? e.getNextAttemptAt().toEpochMilli() : Long.MAX_VALUE);
+    }
+
+    @Override
+    protected List<Index<OutboxEmail>> indexes() {
+        return List.of(byStatus);
+    }
+
+    @Override
+    public long countByStatus(String status) {
+        return byStatus.get(status).size();
+    }
+
+    @Override
+    public List<OutboxEmail> claimDue(int limit, Instant now, Duration lease) {
+        long dueMillis = now.toEpochMilli();
+
+        // Oldest due first, across both claimable statuses
+        List<IndexEntry> due = Stream.concat(byStatus.get("PENDING").stream(), byStatus.get("SENDING").stream())
+                .filter(entry -> entry.sortKey() <= dueMillis)
+                .sorted()
+                .toList();
+
+        List<OutboxEmail> claimed = new ArrayList<>();
+        for (IndexEntry entry : due) {
+            if (claimed.size() >= limit) break;
+
+            // Same as the findAndModify: re-check, then claim atomically
+            OutboxEmail email = modify(entry.id(), e -> {
+                boolean claimable = "PENDING".equals(e.getStatus()) || "SENDING".equals(e.getStatus());
+                if (!claimable || e.getNextAttemptAt() == null || e.getNextAttemptAt().isAfter(now)) return null;
+
+                e.setStatus("SENDING");
+                e.setNextAttemptAt(now.plus(lease));
+                e.setAttempts(e.getAttempts() + 1);
+                return e;
+            });
+            if (email != null) claimed.add(email);
+        }
+        return claimed;
+    }
+
+    @Override
+    public void markSent(String id, Instant sentAt) {
+        modify(id, e -> {
+            if (!"SENDING".equals(e.getStatus())) return null;
+            e.setStatus("SENT");
+            e.setSentAt(sentAt);
+            e.setLastError(null);
+            return e;
+        });
+    }
+
+    @Override
+    public void reschedule(String id, Instant nextAttemptAt, String error) {
+        modify(id, e -> {
+            if (!"SENDING".equals(e.getStatus())) return null;
+            e.setStatus("PENDING");
+            e.setNextAttemptAt(nextAttemptAt);
+            e.setLastError(error);
+            return e;
+        });
+    }
+
+    @Override
+    public void markDead(String id, String error) {
+        modify(id, e -> {
+            if (!"SENDING".equals(e.getStatus())) return null;
+            e.setStatus("DEAD");
+            e.setNextAttemptAt(null);
+            e.setLastError(error);
+            return e;
+        });
+    }
+}
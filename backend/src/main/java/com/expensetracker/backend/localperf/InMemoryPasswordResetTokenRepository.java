@@ -0,0 +1,52 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.PasswordResetToken;
+import com.expensetracker.backend.repository.PasswordResetTokenRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PasswordResetTokenRepository for the "local-perf" profile.
+ *
+ * Secondary indexes: token (unique, like token_unique) and email.
+ * Expired tokens are not purged (there is no TTL monitor), but
+ * findByTokenAndExpiryDateAfter never returns them.
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryPasswordResetTokenRepository extends InMemoryRepository<PasswordResetToken>
+        implements PasswordResetTokenRepository {
+
+    private final Index<PasswordResetToken> byToken = index(t -> Collections.singletonList(t.getToken()), true);
+    private final Index<PasswordResetToken> byEmail = index(t -> Collections.singletonList(t.getEmail()), false);
+
+    public InMemoryPasswordResetTokenRepository(MappingMongoConverter converter) {
+        super(PasswordResetToken.class, converter, null);
+    }
+
+    @Override
+    protected List<Index<PasswordResetToken>> indexes() {
+        return List.of(byToken, byEmail);
+    }
+
+    @Override
+    public Optional<PasswordResetToken> findByTokenAndExpiryDateAfter(String token, Instant now) {
+        String id = byToken.owner(token);
+        return Optional.ofNullable(id != null ? load(id) : null)
+                .filter(t -> token.equals(t.getToken()))
+                .filter(t -> t.getExpiryDate() != null && t.getExpiryDate().isAfter(now));
+    }
+
+    @Override
+    public void deleteByEmail(String email) {
+        for (IndexEntry entry : byEmail.get(email)) {
+            deleteById(entry.id());
+        }
+    }
+}
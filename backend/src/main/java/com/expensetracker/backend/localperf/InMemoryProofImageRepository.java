@@ -0,0 +1,19 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.ProofImage;
+import com.expensetracker.backend.repository.ProofImageRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+/**
+ * ProofImageRepository for the "local-perf" profile.
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryProofImageRepository extends InMemoryRepository<ProofImage> implements ProofImageRepository {
+
+    public InMemoryProofImageRepository(MappingMongoConverter converter) {
+        super(ProofImage.class, converter, null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.RefreshToken;
+import com.expensetracker.backend.repository.RefreshTokenRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * RefreshTokenRepository for the "local-perf" profile.
+ *
+ * Secondary indexes: tokenHash (unique, like token_hash_unique), sessionId
+ * and userId.
+ * Expired tokens are not purged (there is no TTL monitor), but consume()
+ * never accepts them.
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryRefreshTokenRepository extends InMemoryRepository<RefreshToken>
+        implements RefreshTokenRepository {
+
+    private final Index<RefreshToken> byTokenHash = index(t -> Collections.singletonList(t.getTokenHash()), true);
+    private final Index<RefreshToken> bySession = index(t -> Collections.singletonList(t.getSessionId()), false);
+    private final Index<RefreshToken> byUser = index(t -> Collections.singletonList(t.getUserId()), false);
+
+    public InMemoryRefreshTokenRepository(MappingMongoConverter converter) {
+        super(RefreshToken.class, converter, null);
+    }
+
+    @Override
+    protected List<Index<RefreshToken>> indexes() {
+        return List.of(byTokenHash, bySession, byUser);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        String id = byTokenHash.owner(tokenHash);
+        return Optional.ofNullable(id != null ? load(id) : null)
+                .filter(t -> tokenHash.equals(t.getTokenHash()));
+    }
+
+    @Override
+    public void deleteBySessionId(String sessionId) {
+        for (IndexEntry entry : bySession.get(sessionId)) {
+            deleteById(entry.id());
+        }
+    }
+
+    @Override
+    public List<RefreshToken> findByUserId(String userId) {
+        return loadAll(byUser.get(userId))
+                .filter(t -> userId.equals(t.getUserId()))
+                .toList();
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        for (IndexEntry entry : byUser.get(userId)) {
+            deleteById(entry.id());
+        }
+    }
+
+    @Override
+    public RefreshToken consume(String tokenHash, Instant now) {
+        String id = byTokenHash.owner(tokenHash);
+        if (id == null) return null;
+
+        // Same as the findAndModify: re-check, then mark used atomically
+        return modify(id, t -> {
+            boolean usable = tokenHash.equals(t.getTokenHash()) && t.getUsedAt() == null
+                    && t.getExpiresAt() != null && t.getExpiresAt().isAfter(now);
+            if (!usable) return null;
+
+            t.setUsedAt(now);
+            return t;
+        });
+    }
+}
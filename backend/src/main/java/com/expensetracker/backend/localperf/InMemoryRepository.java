@@ -0,0 +1,591 @@
+package com.expensetracker.backend.localperf;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.*;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ----------------------------------------------------------------------------
+ * InMemoryRepository
+ * ----------------------------------------------------------------------------
+ * Base class of the "local-perf" repositories: a MongoRepository kept in a
+ * ConcurrentHashMap instead of MongoDB.
+ *
+ * Entities are stored the way MongoDB would store them — as BSON Documents
+ * produced by Spring Data's MappingMongoConverter — so:
+ *   - every read returns a fresh copy (callers can mutate it freely,
+ *     exactly like an entity loaded from the database)
+ *   - the mapping cost the real app pays is still part of the measurement
+ *
+ * Behaves like MongoTemplate where the app relies on it:
+ *   - save() of an entity without id generates an ObjectId string
+ *   - @Version: a new entity (PersistentEntity.isNew, so Persistable is
+ *     honoured) is inserted with version 0; otherwise the stored version
+ *     must match — null matching a document without one, like the
+ *     { version: null } query — else OptimisticLockingFailureException;
+ *     the version is bumped (null → 0)
+ *   - insert() of an existing id → DuplicateKeyException
+ *   - unique indexes → DuplicateKeyException on conflicting values
+ *
+ * Secondary indexes (see index() / indexes()) map a key to the matching
+ * ids, sorted by an optional long sort key (e.g. expense date), and are
+ * updated atomically with each write to the same document. Readers always
+ * re-check the condition on the loaded entity, so a query never returns a
+ * wrong match.
+ *
+ * The app itself uses neither, but sorted findAll and query-by-example work
+ * too, as plain scans over all documents:
+ *   - Sort: top-level properties, nulls first (like MongoDB)
+ *   - Example: exact equals() on the probe's top-level properties, with the
+ *     matcher's ALL / ANY mode, null handling and ignored paths; string
+ *     matchers, ignore-case and per-property matchers are not supported,
+ *     nor is the fluent findBy(Example, ...)
+ * ----------------------------------------------------------------------------
+ */
+public abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    /**
+     * One entry of a secondary index: the document id plus the value it is
+     * ordered by (ties broken by id).
+     */
+    protected record IndexEntry(long sortKey, String id) implements Comparable<IndexEntry> {
+        @Override
+        public int compareTo(IndexEntry other) {
+            int bySortKey = Long.compare(sortKey, other.sortKey);
+            return bySortKey != 0 ? bySortKey : id.compareTo(other.id);
+        }
+    }
+
+    /**
+     * A secondary index: key(s) of an entity → entries sorted by sort key.
+     */
+    protected static final class Index<T> {
+        private final Function<T, Collection<?>> keys;
+        private final boolean unique;
+        private final ConcurrentHashMap<Object, ConcurrentSkipListSet<IndexEntry>> entries = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Object, String> owners = new ConcurrentHashMap<>();   // unique only
+
+        private Index(Function<T, Collection<?>> keys, boolean unique) {
+            this.keys = keys;
+            this.unique = unique;
+        }
+
+        /**
+         * @return entries of one key, ascending (empty if none)
+         */
+        public NavigableSet<IndexEntry> get(Object key) {
+            NavigableSet<IndexEntry> set = entries.get(key);
+            return set != null ? set : Collections.emptyNavigableSet();
+        }
+
+        /**
+         * @return the id owning a unique key, or null
+         */
+        public String owner(Object key) {
+            return owners.get(key);
+        }
+    }
+
+    protected final Class<T> type;
+    private final MappingMongoConverter converter;
+    private final MongoPersistentEntity<?> entity;
+    private final MongoPersistentProperty versionProperty;
+    private final ToLongFunction<T> sortKey;
+
+    // _id → stored document
+    private final ConcurrentHashMap<String, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * @param sortKey order of index entries (e.g. date millis); null → by id only
+     */
+    protected InMemoryRepository(Class<T> type, MappingMongoConverter converter, ToLongFunction<T> sortKey) {
+        this.type = type;
+        this.converter = converter;
+        this.entity = converter.getMappingContext().getRequiredPersistentEntity(type);
+        this.versionProperty = entity.getVersionProperty();
+        this.sortKey = sortKey != null ? sortKey : e -> 0L;
+    }
+
+    /**
+     * Creates a secondary index. Subclasses keep it in a final field and
+     * return it from indexes():
+     *
+     *      private final Index<User> byEmail = index(u -> List.of(u.getEmail()), true);
+     *
+     * @param keys   key(s) of an entity; null / empty → not indexed
+     * @param unique true → two documents may not share a key
+     */
+    protected static <T> Index<T> index(Function<T, Collection<?>> keys, boolean unique) {
+        return new Index<>(keys, unique);
+    }
+
+    /**
+     * The secondary indexes kept up to date on every write. Only read after
+     * construction, so subclasses can return their own fields.
+     */
+    protected List<Index<T>> indexes() {
+        return List.of();
+    }
+
+    // -----------------------------------------------------------------------
+    // Building blocks for the subclasses
+    // -----------------------------------------------------------------------
+
+    /**
+     * Loads a fresh copy of one document, or null.
+     */
+    protected T load(String id) {
+        Document document = documents.get(id);
+        return document != null ? converter.read(type, document) : null;
+    }
+
+    /**
+     * Loads a document with only the given fields (plus _id), like a
+     * MongoDB projection.
+     */
+    protected T loadProjected(String id, String... fields) {
+        Document document = documents.get(id);
+        if (document == null) return null;
+
+        Document projected = new Document("_id", document.get("_id"));
+        for (String field : fields) {
+            if (document.containsKey(field)) projected.put(field, document.get(field));
+        }
+        return converter.read(type, projected);
+    }
+
+    /**
+     * Loads the documents behind index entries, skipping ids that
+     * disappeared meanwhile.
+     */
+    protected Stream<T> loadAll(Collection<IndexEntry> entries) {
+        return entries.stream().map(entry -> load(entry.id())).filter(Objects::nonNull);
+    }
+
+    /**
+     * Atomically changes one stored document, like a findAndModify:
+     * the change runs on a fresh copy while no other write to the same id
+     * can happen. If it returns null nothing is written; otherwise the copy
+     * is stored (version bumped, indexes updated).
+     *
+     * @return the change's result, or null if the id does not exist or the
+     *         change declined
+     */
+    protected <R> R modify(String id, Function<T, R> change) {
+        Object[] result = new Object[1];
+
+        documents.computeIfPresent(id, (key, current) -> {
+            T before = converter.read(type, current);
+            T after = converter.read(type, current);
+
+            R outcome = change.apply(after);
+            if (outcome == null) return current;
+
+            if (versionProperty != null) {
+                Number version = (Number) accessor(after).getProperty(versionProperty);
+                setVersion(after, version == null ? 1 : version.longValue() + 1);
+            }
+
+            Document written = write(after);
+            reindex(key, before, after);
+            result[0] = outcome;
+            return written;
+        });
+
+        @SuppressWarnings("unchecked")
+        R outcome = (R) result[0];
+        return outcome;
+    }
+
+    /**
+     * Like modify(), but a missing document is first created from initial
+     * (a findAndModify with upsert). The change always writes.
+     *
+     * @return the change's result
+     */
+    protected <R> R upsert(String id, Supplier<T> initial, Function<T, R> change) {
+        Object[] result = new Object[1];
+
+        documents.compute(id, (key, current) -> {
+            T before = current != null ? converter.read(type, current) : null;
+            T after = current != null ? converter.read(type, current) : initial.get();
+
+            result[0] = change.apply(after);
+
+            Document written = write(after);
+            reindex(key, before, after);
+            return written;
+        });
+
+        @SuppressWarnings("unchecked")
+        R outcome = (R) result[0];
+        return outcome;
+    }
+
+    /**
+     * Deletes one document and returns it as it was (findAndRemove).
+     *
+     * @return the deleted entity, or null if the id does not exist
+     */
+    protected T remove(String id) {
+        Object[] removed = new Object[1];
+
+        documents.computeIfPresent(id, (key, current) -> {
+            T before = converter.read(type, current);
+            reindex(key, before, null);
+            removed[0] = before;
+            return null;
+        });
+
+        return type.cast(removed[0]);
+    }
+
+    // -----------------------------------------------------------------------
+    // CrudRepository / MongoRepository
+    // -----------------------------------------------------------------------
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return store(entity, false);
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        return store(entity, true);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(e -> saved.add(save(e)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(e -> saved.add(insert(e)));
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(load(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return documents.values().stream().map(d -> converter.read(type, d)).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(this::load).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        new ArrayList<>(documents.keySet()).forEach(this::deleteById);
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        if (sort.isUnsorted()) return findAll();
+        return findAll().stream().sorted(comparator(sort)).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        if (pageable.getSort().isSorted()) return page(findAll(pageable.getSort()), pageable);
+        if (pageable.isUnpaged()) return new PageImpl<>(findAll());
+
+        List<String> ids = documents.keySet().stream().sorted().toList();
+        List<T> content = ids.stream()
+                .skip(pageable.getOffset()).limit(pageable.getPageSize())
+                .map(this::load).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
+    // Query by example (scans every document, see class comment)
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> matches = scan(example).limit(2).toList();
+        if (matches.size() > 1) throw new IncorrectResultSizeDataAccessException(1);
+        return matches.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return scan(example).toList();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return sort.isUnsorted() ? findAll(example) : scan(example).sorted(comparator(sort)).toList();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return scan(example).count();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return scan(example).findAny().isPresent();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported("fluent query by example");
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private <S extends T> S store(S entity, boolean insertOnly) {
+        boolean isNew = this.entity.isNew(entity);   // before an id is generated
+        String id = idOf(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            accessor(entity).setProperty(this.entity.getRequiredIdProperty(), id);
+        }
+
+        Number version = versionProperty != null ? (Number) accessor(entity).getProperty(versionProperty) : null;
+        boolean insert = insertOnly || (versionProperty != null && isNew);
+        long newVersion = version == null ? 0 : version.longValue() + 1;
+
+        try {
+            documents.compute(id, (key, current) -> {
+                if (current != null && insert) {
+                    throw new DuplicateKeyException("Duplicate _id " + key + " in " + type.getSimpleName());
+                }
+                if (!insert && versionProperty != null) {
+                    Object stored = current != null ? current.get(versionProperty.getFieldName()) : null;
+                    boolean matches = current != null && (version == null
+                            ? stored == null
+                            : stored != null && ((Number) stored).longValue() == version.longValue());
+                    if (!matches) {
+                        throw new OptimisticLockingFailureException("Version " + version + " of "
+                                + type.getSimpleName() + " " + key + " is stale");
+                    }
+                }
+
+                if (versionProperty != null) setVersion(entity, newVersion);
+                Document written = write(entity);
+                reindex(key, current != null ? converter.read(type, current) : null, entity);
+                return written;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was stored → give the caller its entity back unchanged
+            if (versionProperty != null) accessor(entity).setProperty(versionProperty, version);
+            throw e;
+        }
+
+        return entity;
+    }
+
+    /**
+     * Moves a document's index entries from its old to its new state.
+     * Runs while the caller holds the document's map entry, so writes to
+     * the same id are serialized; unique keys are claimed with putIfAbsent.
+     */
+    private void reindex(String id, T before, T after) {
+
+        // 1. Claim unique keys first, so a conflict changes nothing
+        List<Index<T>> indexes = indexes();
+        List<Map.Entry<Index<T>, Object>> claimed = new ArrayList<>();
+        if (after != null) {
+            for (Index<T> index : indexes) {
+                if (!index.unique) continue;
+                for (Object key : keysOf(index, after)) {
+                    String owner = index.owners.putIfAbsent(key, id);
+                    if (owner == null) {
+                        claimed.add(Map.entry(index, key));
+                    } else if (!owner.equals(id)) {
+                        claimed.forEach(c -> c.getKey().owners.remove(c.getValue(), id));
+                        throw new DuplicateKeyException("Duplicate key " + key + " in " + type.getSimpleName());
+                    }
+                }
+            }
+        }
+
+        // 2. Swap the entries
+        for (Index<T> index : indexes) {
+            Collection<?> oldKeys = before != null ? keysOf(index, before) : List.of();
+            Collection<?> newKeys = after != null ? keysOf(index, after) : List.of();
+
+            if (before != null) {
+                IndexEntry oldEntry = new IndexEntry(sortKey.applyAsLong(before), id);
+                for (Object key : oldKeys) {
+                    ConcurrentSkipListSet<IndexEntry> set = index.entries.get(key);
+                    if (set != null) set.remove(oldEntry);
+                    if (index.unique && !newKeys.contains(key)) index.owners.remove(key, id);
+                }
+            }
+
+            if (after != null) {
+                IndexEntry newEntry = new IndexEntry(sortKey.applyAsLong(after), id);
+                for (Object key : newKeys) {
+                    index.entries.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(newEntry);
+                }
+            }
+        }
+    }
+
+    private Collection<?> keysOf(Index<T> index, T entity) {
+        Collection<?> keys = index.keys.apply(entity);
+        if (keys == null) return List.of();
+
+        // Nulls are not indexed (like a sparse index)
+        Set<Object> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        return distinct;
+    }
+
+    private Document write(T entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    private String idOf(T entity) {
+        Object id = this.entity.getIdentifierAccessor(entity).getIdentifier();
+        return id != null ? id.toString() : null;
+    }
+
+    private void setVersion(T entity, long version) {
+        accessor(entity).setProperty(versionProperty, version);
+    }
+
+    private PersistentPropertyAccessor<T> accessor(T entity) {
+        return this.entity.getPropertyAccessor(entity);
+    }
+
+    /**
+     * Documents matching an example, read as the probe's type.
+     */
+    private <S extends T> Stream<S> scan(Example<S> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        if (matcher.isIgnoreCaseEnabled()
+                || !EnumSet.of(ExampleMatcher.StringMatcher.DEFAULT, ExampleMatcher.StringMatcher.EXACT)
+                        .contains(matcher.getDefaultStringMatcher())
+                || matcher.getPropertySpecifiers().hasValues()) {
+            throw unsupported("query by example with string / property matchers");
+        }
+
+        // The probe's values to compare (unset ones — null or an empty
+        // collection — only with NullHandler.INCLUDE)
+        PersistentPropertyAccessor<S> probe = entity.getPropertyAccessor(example.getProbe());
+        List<MongoPersistentProperty> properties = new ArrayList<>();
+        List<Object> expected = new ArrayList<>();
+        for (MongoPersistentProperty property : entity) {
+            if (matcher.isIgnoredPath(property.getName())) continue;
+
+            Object value = probe.getProperty(property);
+            boolean unset = value == null || (value instanceof Collection<?> c && c.isEmpty());
+            if (unset && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) continue;
+            properties.add(property);
+            expected.add(value);
+        }
+
+        Class<S> probeType = example.getProbeType();
+        return documents.values().stream()
+                .map(d -> converter.read(probeType, d))
+                .filter(candidate -> {
+                    PersistentPropertyAccessor<S> actual = entity.getPropertyAccessor(candidate);
+                    for (int i = 0; i < properties.size(); i++) {
+                        boolean equal = Objects.equals(expected.get(i), actual.getProperty(properties.get(i)));
+                        if (equal != matcher.isAllMatching()) return equal;
+                    }
+                    return matcher.isAllMatching() || properties.isEmpty();
+                });
+    }
+
+    /**
+     * Orders entities by top-level properties like MongoDB (nulls lowest),
+     * ties broken by id so pages are stable.
+     */
+    @SuppressWarnings("unchecked")
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = null;
+
+        for (Sort.Order order : sort) {
+            MongoPersistentProperty property = entity.getRequiredPersistentProperty(order.getProperty());
+            Comparator<T> byProperty = Comparator.comparing(
+                    e -> (Comparable<Object>) accessor(e).getProperty(property),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) byProperty = byProperty.reversed();
+            result = result == null ? byProperty : result.thenComparing(byProperty);
+        }
+
+        Comparator<T> byId = Comparator.comparing(this::idOf, Comparator.nullsFirst(Comparator.naturalOrder()));
+        return result == null ? byId : result.thenComparing(byId);
+    }
+
+    private static <S> Page<S> page(List<S> all, Pageable pageable) {
+        if (pageable.isUnpaged()) return new PageImpl<>(all);
+
+        List<S> content = all.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+        return new PageImpl<>(content, pageable, all.size());
+    }
+
+    private UnsupportedOperationException unsupported(String what) {
+        return new UnsupportedOperationException(what + " is not supported by the in-memory repositories");
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.RevokedSession;
+import com.expensetracker.backend.repository.RevokedSessionRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * RevokedSessionRepository for the "local-perf" profile.
+ *
+ * No secondary index: the collection is small (TTL-bounded in MongoDB),
+ * so findByRevokedAtAfter simply scans it.
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryRevokedSessionRepository extends InMemoryRepository<RevokedSession>
+        implements RevokedSessionRepository {
+
+    public InMemoryRevokedSessionRepository(MappingMongoConverter converter) {
+        super(RevokedSession.class, converter, null);
+    }
+
+    @Override
+    public List<RevokedSession> findByRevokedAtAfter(Instant since) {
+        return findAll().stream()
+                .filter(r -> r.getRevokedAt() != null && r.getRevokedAt().isAfter(since))
+                .toList();
+    }
+}
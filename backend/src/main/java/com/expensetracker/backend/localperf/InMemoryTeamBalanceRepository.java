@@ -0,0 +1,69 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.TeamBalance;
+import com.expensetracker.backend.repository.TeamBalanceRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TeamBalanceRepository for the "local-perf" profile.
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryTeamBalanceRepository extends InMemoryRepository<TeamBalance> implements TeamBalanceRepository {
+
+    public InMemoryTeamBalanceRepository(MappingMongoConverter converter) {
+        super(TeamBalance.class, converter, null);
+    }
+
+    @Override
+    public boolean applyDeltas(String teamId, long epoch, Map<String, Long> deltas) {
+        // Same as the conditional $inc: atomic, never creates a missing ledger
+        Boolean applied = modify(teamId, ledger -> {
+            if (ledger.isBuilding() || ledger.getEpoch() != epoch) return null;
+
+            deltas.forEach((userId, delta) -> ledger.getBalances().merge(userId, delta, Long::sum));
+            return Boolean.TRUE;
+        });
+        return applied != null;
+    }
+
+    @Override
+    public boolean markDirty(String teamId) {
+        Boolean marked = modify(teamId, ledger -> {
+            if (!ledger.isBuilding()) return null;
+
+            ledger.setDirty(true);
+            return Boolean.TRUE;
+        });
+        return marked != null;
+    }
+
+    @Override
+    public TeamBalance startBuild(String teamId, Instant now) {
+        return upsert(teamId, () -> new TeamBalance(teamId, new HashMap<>()), ledger -> {
+            ledger.setEpoch(ledger.getEpoch() + 1);
+            ledger.setBuilding(true);
+            ledger.setDirty(false);
+            ledger.setBuildStartedAt(now);
+            return ledger;
+        });
+    }
+
+    @Override
+    public boolean finishBuild(String teamId, long epoch, Map<String, Long> balances) {
+        Boolean finished = modify(teamId, ledger -> {
+            if (ledger.getEpoch() != epoch || ledger.isDirty()) return null;
+
+            ledger.setBalances(new HashMap<>(balances));
+            ledger.setBuilding(false);
+            return Boolean.TRUE;
+        });
+        return finished != null;
+    }
+}
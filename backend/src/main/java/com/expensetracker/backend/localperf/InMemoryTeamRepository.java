@@ -0,0 +1,39 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.repository.TeamRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * TeamRepository for the "local-perf" profile.
+ *
+ * Secondary index: joinCode (unique, like joinCode_unique).
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryTeamRepository extends InMemoryRepository<Team> implements TeamRepository {
+
+    private final Index<Team> byJoinCode = index(t -> Collections.singletonList(t.getJoinCode()), true);
+
+    public InMemoryTeamRepository(MappingMongoConverter converter) {
+        super(Team.class, converter, null);
+    }
+
+    @Override
+    protected List<Index<Team>> indexes() {
+        return List.of(byJoinCode);
+    }
+
+    @Override
+    public Optional<Team> findByJoinCode(String joinCode) {
+        String id = byJoinCode.owner(joinCode);
+        return Optional.ofNullable(id != null ? load(id) : null)
+                .filter(t -> joinCode.equals(t.getJoinCode()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * UserRepository for the "local-perf" profile.
+ *
+ * Secondary index: email (unique, like email_unique).
+ */
+@Repository
+@Profile("local-perf")
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    private final Index<User> byEmail = index(u -> Collections.singletonList(u.getEmail()), true);
+
+    public InMemoryUserRepository(MappingMongoConverter converter) {
+        super(User.class, converter, null);
+    }
+
+    @Override
+    protected List<Index<User>> indexes() {
+        return List.of(byEmail);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        String id = byEmail.owner(email);
+        return Optional.ofNullable(id != null ? load(id) : null)
+                .filter(u -> email.equals(u.getEmail()));
+    }
+
+    @Override
+    public List<User> findContactsByIdIn(Collection<String> ids) {
+        // Same projection as the @Query on UserRepository
+        List<User> contacts = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            User user = loadProjected(id, "email", "firstName", "lastName", "profileImageVersion");
+            if (user != null) contacts.add(user);
+        }
+        return contacts;
+    }
+}
@@ -0,0 +1,58 @@
+package com.expensetracker.backend.localperf;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+/**
+ * ----------------------------------------------------------------------------
+ * LocalPerfConfig
+ * ----------------------------------------------------------------------------
+ * Wiring of the "local-perf" profile: the app runs without MongoDB, on the
+ * in-memory repositories of this package.
+ *
+ *      java -jar backend.jar --spring.profiles.active=local-perf
+ *      mvn spring-boot:run -Dspring-boot.run.profiles=local-perf
+ *
+ * application-local-perf.properties switches off the MongoDB
+ * auto-configuration (client, MongoTemplate, Spring Data repositories);
+ * the index migrator and the data backfills are disabled for this profile.
+ *
+ * The only MongoDB piece kept is the object mapper (MappingMongoConverter),
+ * which needs no connection: the in-memory repositories use it to store
+ * entities as BSON Documents, exactly like MongoTemplate would.
+ *
+ * LocalPerfDataGenerator fills the repositories with a synthetic dataset.
+ * ----------------------------------------------------------------------------
+ */
+@Configuration
+@Profile("local-perf")
+public class LocalPerfConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of());
+    }
+
+    @Bean
+    public MongoMappingContext mongoMappingContext(MongoCustomConversions conversions) {
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.setAutoIndexCreation(false);
+        return context;
+    }
+
+    @Bean
+    public MappingMongoConverter mappingMongoConverter(MongoMappingContext context, MongoCustomConversions conversions) {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,166 @@
+package com.expensetracker.backend.localperf;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.TeamRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.service.ExpenseSplitService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ----------------------------------------------------------------------------
+ * LocalPerfDataGenerator ("local-perf" profile)
+ * ----------------------------------------------------------------------------
+ * Fills the in-memory repositories with a synthetic, reproducible dataset
+ * at startup, so the controllers can be load-tested without a database.
+ *
+ * Shape (application-local-perf.properties, app.local-perf.*):
+ *   - users              : perf-user-<n>, email perf<n>@perf.local,
+ *                          all with the same password
+ *   - teams              : each with members-per-team random users
+ *   - expenses-per-team  : even splits, ~1/3 of the shares approved,
+ *                          ~1/6 pending approval, spread over the last year
+ *
+ * User ids and emails are predictable, so a load test can log in as
+ * perf<n>@perf.local without any discovery step. The password is hashed
+ * once and shared, so generating thousands of users stays fast.
+ *
+ * The same seed always produces the same data.
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("local-perf")
+public class LocalPerfDataGenerator implements ApplicationRunner {
+
+    private final UserRepository userRepo;
+    private final TeamRepository teamRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitService splitService;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.local-perf.users:1000}")
+    private int users;
+
+    @Value("${app.local-perf.teams:200}")
+    private int teams;
+
+    @Value("${app.local-perf.members-per-team:8}")
+    private int membersPerTeam;
+
+    @Value("${app.local-perf.expenses-per-team:200}")
+    private int expensesPerTeam;
+
+    @Value("${app.local-perf.password:password}")
+    private String password;
+
+    @Value("${app.local-perf.seed:42}")
+    private long seed;
+
+    public LocalPerfDataGenerator(UserRepository userRepo, TeamRepository teamRepo,
+                                  ExpenseRepository expenseRepo, ExpenseSplitService splitService,
+                                  PasswordEncoder passwordEncoder) {
+        this.userRepo = userRepo;
+        this.teamRepo = teamRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitService = splitService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+
+        // 1. Users (one shared password hash, at the configured cost)
+        String passwordHash = passwordEncoder.encode(password);
+        List<User> people = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            User user = new User("Perf", "User " + i, "perf" + i + "@perf.local", passwordHash);
+            user.setId(userId(i));
+            people.add(user);
+        }
+
+        // 2. Teams with random members
+        int members = Math.min(membersPerTeam, users);
+        Instant now = Instant.now();
+        int expenseCount = 0;
+
+        for (int t = 0; t < teams; t++) {
+            Team team = new Team();
+            team.setTeamName("Perf Team " + t);
+            team.setJoinCode(String.format("PERF%05d", t));
+            team.setCreatedAt(now);
+
+            List<User> teamMembers = pick(people, members, random);
+            team.setOwnerId(teamMembers.get(0).getId());
+            teamMembers.forEach(u -> team.getMemberIds().add(u.getId()));
+            teamRepo.save(team);
+            teamMembers.forEach(u -> u.addTeamId(team.getId()));
+
+            // 3. Expenses of the team
+            for (int e = 0; e < expensesPerTeam; e++) {
+                String payerId = team.getMemberIds().get(random.nextInt(members));
+
+                Expense expense = new Expense();
+                expense.setTeamId(team.getId());
+                expense.setPaidByUserId(payerId);
+                expense.setDescription("Perf expense " + e);
+                expense.setAmountMinor(100 + random.nextInt(50_000));
+                expense.setDate(now.minus(Duration.ofMinutes(random.nextInt(525_600))));
+
+                List<ExpenseShare> shares = splitService.splitEvenly(team.getMemberIds(), payerId, expense.getAmountMinor());
+                for (ExpenseShare share : shares) {
+                    share.setPayeeId(payerId);
+                    if (share.getUserId().equals(payerId)) continue;
+
+                    int roll = random.nextInt(6);
+                    if (roll < 2) {
+                        share.setStatus("APPROVED");
+                        share.setPaymentMethod("CASH");
+                    } else if (roll == 2) {
+                        share.setStatus("PENDING_CASH_APPROVAL");
+                        share.setPaymentMethod("CASH");
+                    }
+                }
+                expense.setShares(shares);
+
+                expenseRepo.save(expense);
+                expenseCount++;
+            }
+        }
+
+        userRepo.saveAll(people);
+
+        System.out.println("✅ local-perf dataset: " + users + " users, " + teams + " teams, "
+                + expenseCount + " expenses in " + (System.nanoTime() - start) / 1_000_000 + " ms"
+                + " (login: perf0@perf.local / " + password + ")");
+    }
+
+    /**
+     * Id of the n-th generated user.
+     */
+    public static String userId(int n) {
+        return String.format("perf-user-%06d", n);
+    }
+
+    private static List<User> pick(List<User> people, int count, Random random) {
+        Set<Integer> chosen = new LinkedHashSet<>();
+        while (chosen.size() < count) chosen.add(random.nextInt(people.size()));
+
+        List<User> picked = new ArrayList<>(count);
+        chosen.forEach(i -> picked.add(people.get(i)));
+        return picked;
+    }
+}
@@ -0,0 +1,153 @@
+package com.expensetracker.backend.localperf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ----------------------------------------------------------------------------
+ * LocalSmtpServer
+ * ----------------------------------------------------------------------------
+ * A tiny in-process SMTP server for the "local-perf" profile, listening on
+ * localhost:${spring.mail.port} (2525). It accepts every email and throws it
+ * away, so the email outbox (EmailOutboxWorker) runs end to end — connect,
+ * batch, retry — without a real mail server and without sending anything.
+ *
+ * Supported commands: EHLO / HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT
+ * (no AUTH / STARTTLS: both are off in application-local-perf.properties).
+ *
+ * app.local-perf.smtp.fail-rate (0.0 – 1.0) rejects that share of the
+ * recipients with a temporary error (451), to watch the outbox retry,
+ * back off and finally dead-letter emails.
+ *
+ * Each connection is served by its own virtual thread.
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("local-perf")
+public class LocalSmtpServer {
+
+    @Value("${spring.mail.port:2525}")
+    private int port;
+
+    @Value("${app.local-perf.smtp.fail-rate:0.0}")
+    private double failRate;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private ServerSocket serverSocket;
+
+    /**
+     * Binds the port before the app is ready, so the outbox worker finds it
+     * listening from its very first batch.
+     */
+    @PostConstruct
+    void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        Thread acceptor = new Thread(this::accept, "local-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        System.out.println("✅ Local SMTP server listening on localhost:" + port + " (fail-rate " + failRate + ")");
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().name("local-smtp-session").start(() -> session(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) System.err.println("❌ Local SMTP: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One SMTP conversation (any number of emails until QUIT).
+     */
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+
+            reply(out, "220 localhost ESMTP local-perf");
+
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SIZE 10485760");
+                    case "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        recipient = null;
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        if (failRate > 0 && ThreadLocalRandom.current().nextDouble() < failRate) {
+                            rejected.incrementAndGet();
+                            reply(out, "451 4.3.0 Simulated temporary failure");
+                        } else {
+                            recipient = line.substring(Math.min(line.length(), 8)).trim();
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        if (recipient == null) {
+                            reply(out, "503 5.5.1 No valid recipients");
+                            break;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        // Body is discarded; "." alone ends it
+                        while ((line = in.readLine()) != null && !line.equals(".")) { }
+                        long total = received.incrementAndGet();
+                        System.out.println("✅ Local SMTP: accepted email for " + recipient
+                                + " (" + total + " accepted, " + rejected.get() + " rejected)");
+                        recipient = null;
+                        reply(out, "250 OK");
+                    }
+                    case "RSET" -> {
+                        recipient = null;
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 5.5.2 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away mid-session; nothing to clean up
+        }
+    }
+
+    private static void reply(Writer out, String text) throws IOException {
+        out.write(text + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ----------------------------------------------------------------------------
+ * MetricsConfig
+ * ----------------------------------------------------------------------------
+ * What is measured, all scraped from /actuator/prometheus on the
+ * management port (management.server.port, 127.0.0.1:8081):
+ *
+ *   - http.server.requests              → per endpoint (uri template, method,
+ *                                         status) of every controller
+ *                                         (Spring Boot)
+ *   - spring.data.repository.invocations → per repository method, custom
+ *                                         fragments included (Spring Boot)
+ *   - mongodb.command*                  → per MongoDB command
+ *                                         (MongoCommandMetricsListener)
+ *   - cache.*, jwt.*, email.outbox.*, … → the services' own meters
+ *
+ * Histogram buckets for the first two are switched on in
+ * application.properties (management.metrics.distribution.*), so latency
+ * percentiles can be computed across instances in Prometheus.
+ * ----------------------------------------------------------------------------
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds the command listener to the MongoClient Spring Boot builds.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetrics(MeterRegistry meterRegistry) {
+        MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+        return settings -> settings.addCommandListener(listener);
+    }
+}
@@ -0,0 +1,151 @@
+package com.expensetracker.backend.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * MongoCommandMetricsListener
+ * ----------------------------------------------------------------------------
+ * Records every command the MongoDB driver sends (registered on the client
+ * by MetricsConfig):
+ *
+ *   - mongodb.command            → latency (timer + histogram), tagged by
+ *                                  command, collection and status
+ *   - mongodb.command.documents  → documents returned / written per command
+ *                                  (cursor batch size, findAndModify hit,
+ *                                  "n" of insert / update / delete)
+ *   - mongodb.command.reply.size → bytes of the server's reply
+ *
+ * Together with spring.data.repository.invocations (which repository method
+ * ran) this shows whether a slow call waits on the server, or fetches too
+ * many / too large documents.
+ *
+ * The collection is only known from the command sent, so it is remembered
+ * per request id between the "started" and "succeeded / failed" events.
+ * Reply sizes are read from the raw reply buffer (no re-encoding).
+ *
+ * Replaces Spring Boot's own command timer (mongodb.driver.commands,
+ * disabled in application.properties) so each command is timed once.
+ * ----------------------------------------------------------------------------
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    private static final String UNKNOWN = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    // request id → collection, between started and succeeded / failed
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collection(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String command = event.getCommandName();
+        String collection = collections.getOrDefault(event.getRequestId(), UNKNOWN);
+        collections.remove(event.getRequestId());
+
+        timer(command, collection, "SUCCESS").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        BsonDocument response = event.getResponse();
+        if (response == null) return;
+
+        long documents = documents(command, response);
+        if (documents >= 0) {
+            DistributionSummary.builder("mongodb.command.documents")
+                    .description("Documents returned or written by a MongoDB command")
+                    .tags("command", command, "collection", collection)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(documents);
+        }
+
+        if (response instanceof RawBsonDocument raw) {
+            DistributionSummary.builder("mongodb.command.reply.size")
+                    .description("Size of the reply to a MongoDB command")
+                    .baseUnit("bytes")
+                    .tags("command", command, "collection", collection)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(raw.getByteBuffer().remaining());
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String collection = collections.getOrDefault(event.getRequestId(), UNKNOWN);
+        collections.remove(event.getRequestId());
+
+        timer(event.getCommandName(), collection, "FAILED")
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private Timer timer(String command, String collection, String status) {
+        return Timer.builder("mongodb.command")
+                .description("Latency of MongoDB commands")
+                .tags("command", command, "collection", collection, "status", status)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    /**
+     * { find: "expenses", ... } → "expenses"; getMore names it in "collection".
+     */
+    private static String collection(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : UNKNOWN;
+    }
+
+    /**
+     * @return documents returned / written, or -1 if the command has no such count
+     */
+    private static long documents(String command, BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch");
+            if (batch == null) batch = cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : -1;
+        }
+
+        switch (command) {
+            case "findAndModify" -> {
+                BsonValue value = response.get("value");
+                return value != null && value.isDocument() ? 1 : 0;
+            }
+            case "insert", "update", "delete" -> {
+                BsonValue n = response.get("n");
+                return n != null && n.isNumber() ? n.asNumber().longValue() : -1;
+            }
+            default -> {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.expensetracker.backend.migration;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * ----------------------------------------------------------------------------
+ * IndexMigrationEndpoint
+ * ----------------------------------------------------------------------------
+ * Actuator endpoint showing the progress of IndexMigrator.
+ *
+ *      GET /actuator/indexes
+ *
+ * Response:
+ *   {
+ *     "total": 7,
+ *     "done": 5,
+ *     "counts":  { "EXISTS": 4, "BUILT": 1, "BUILDING": 1, "PENDING": 1 },
+ *     "indexes": [ { collection, name, keys, state, buildMillis, error }, ... ]
+ *   }
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("!local-perf")   // no MongoDB in the local-perf profile
+@Endpoint(id = "indexes")
+public class IndexMigrationEndpoint {
+
+    private final IndexMigrator migrator;
+
+    public IndexMigrationEndpoint(IndexMigrator migrator) {
+        this.migrator = migrator;
+    }
+
+    @ReadOperation
+    public Map<String, Object> indexes() {
+        List<IndexMigrator.IndexStatus> statuses = migrator.getStatuses();
+
+        Map<IndexMigrator.State, Integer> counts = new EnumMap<>(IndexMigrator.State.class);
+        int done = 0;
+        for (IndexMigrator.IndexStatus status : statuses) {
+            counts.merge(status.getState(), 1, Integer::sum);
+
+            IndexMigrator.State state = status.getState();
+            if (state != IndexMigrator.State.PENDING && state != IndexMigrator.State.BUILDING) done++;
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total", statuses.size());
+        response.put("done", done);
+        response.put("counts", counts);
+        response.put("indexes", statuses);
+        return response;
+    }
+}
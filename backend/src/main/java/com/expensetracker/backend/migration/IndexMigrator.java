@@ -0,0 +1,235 @@
+package com.expensetracker.backend.migration;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ----------------------------------------------------------------------------
+ * IndexMigrator
+ * ----------------------------------------------------------------------------
+ * Owns the index set of every collection.
+ *
+ * The indexes themselves are declared on the @Document models
+ * (@Indexed / @CompoundIndex). This class turns those declarations into
+ * real MongoDB indexes once the application has started:
+ *
+ *   1. Resolve the declared index set of every mapped collection.
+ *   2. Compare it with the indexes that already exist (listIndexes).
+ *   3. Build ONLY the missing ones, one after another, on a background
+ *      thread — never while the application is booting.
+ *   4. Record the progress of every index so it can be inspected through
+ *      the "indexes" actuator endpoint (IndexMigrationEndpoint).
+ *
+ * Why not spring.data.mongodb.auto-index-creation?
+ *  - It sends createIndexes for every index on every boot while the
+ *    repositories are being built, so a slow or unreachable database (or
+ *    a unique index that fails because of duplicate data) stops the whole
+ *    application from starting.
+ *
+ * A failed index is only reported — requests keep working, just without
+ * the index.
+ *
+ * Data a declared unique index depends on is fixed first, on the same
+ * thread: JoinCodeBackfill (distinct team join codes).
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("!local-perf")   // no MongoDB in the local-perf profile
+public class IndexMigrator {
+
+    /**
+     * Lifecycle of one declared index.
+     */
+    public enum State {
+        PENDING,    // declared, not looked at yet
+        EXISTS,     // already present in MongoDB, nothing to do
+        BUILDING,   // createIndexes sent, waiting for MongoDB
+        BUILT,      // created by this run
+        FAILED      // creation failed (see error)
+    }
+
+    /**
+     * Progress of one declared index, as reported by the actuator endpoint.
+     */
+    public static class IndexStatus {
+        private final String collection;
+        private final String name;
+        private final Map<String, Object> keys;
+        private volatile State state = State.PENDING;
+        private volatile Long buildMillis;
+        private volatile String error;
+
+        IndexStatus(String collection, String name, Map<String, Object> keys) {
+            this.collection = collection;
+            this.name = name;
+            this.keys = keys;
+        }
+
+        public String getCollection() { return collection; }
+        public String getName() { return name; }
+        public Map<String, Object> getKeys() { return keys; }
+        public State getState() { return state; }
+        public Long getBuildMillis() { return buildMillis; }
+        public String getError() { return error; }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final JoinCodeBackfill joinCodeBackfill;
+
+    // "collection.indexName" → status, in the order the indexes are built
+    private final Map<String, IndexStatus> statuses = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public IndexMigrator(MongoTemplate mongoTemplate,
+                         MongoMappingContext mappingContext,
+                         JoinCodeBackfill joinCodeBackfill) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.joinCodeBackfill = joinCodeBackfill;
+    }
+
+    /**
+     * Starts the migration in the background once the app is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(this::migrate, "index-migrator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Snapshot of the progress of every declared index.
+     */
+    public List<IndexStatus> getStatuses() {
+        synchronized (statuses) {
+            return new ArrayList<>(statuses.values());
+        }
+    }
+
+    /**
+     * Creates every declared index that does not exist yet.
+     */
+    void migrate() {
+        // joinCode_unique needs distinct codes (legacy ones may collide)
+        joinCodeBackfill.backfill();
+
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        // 1. Collect the declared index set of every mapped collection
+        Map<MongoPersistentEntity<?>, List<IndexDefinition>> declared = new LinkedHashMap<>();
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) continue;
+
+            List<IndexDefinition> definitions = new ArrayList<>();
+            resolver.resolveIndexFor(entity.getType()).forEach(definitions::add);
+            if (definitions.isEmpty()) continue;
+
+            declared.put(entity, definitions);
+            for (IndexDefinition definition : definitions) {
+                String name = indexName(definition);
+                statuses.put(entity.getCollection() + "." + name,
+                        new IndexStatus(entity.getCollection(), name, definition.getIndexKeys()));
+            }
+        }
+
+        int total = statuses.size();
+        System.out.println("Index migration started: " + total + " declared indexes");
+
+        // 2. + 3. Compare with MongoDB and build the missing ones
+        int done = 0;
+        for (var entry : declared.entrySet()) {
+            MongoPersistentEntity<?> entity = entry.getKey();
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+
+            Set<String> existing = new HashSet<>();
+            try {
+                for (IndexInfo info : indexOps.getIndexInfo()) {
+                    existing.add(info.getName());
+                }
+            } catch (Exception e) {
+                // Cannot even list indexes (database unreachable) → mark collection as failed
+                for (IndexDefinition definition : entry.getValue()) {
+                    fail(status(entity, definition), e);
+                    done++;
+                }
+                System.err.println("❌ Index migration: cannot read indexes of "
+                        + entity.getCollection() + ": " + e.getMessage());
+                continue;
+            }
+
+            for (IndexDefinition definition : entry.getValue()) {
+                IndexStatus status = status(entity, definition);
+
+                if (existing.contains(status.getName())) {
+                    status.state = State.EXISTS;
+                } else {
+                    build(indexOps, definition, status);
+                }
+
+                done++;
+                System.out.println("Index migration " + done + "/" + total + ": "
+                        + status.getCollection() + "." + status.getName() + " → " + status.getState());
+            }
+        }
+
+        System.out.println("Index migration finished");
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private void build(IndexOperations indexOps, IndexDefinition definition, IndexStatus status) {
+        status.state = State.BUILDING;
+        Instant start = Instant.now();
+
+        try {
+            indexOps.createIndex(definition);
+            status.buildMillis = Duration.between(start, Instant.now()).toMillis();
+            status.state = State.BUILT;
+        } catch (Exception e) {
+            // e.g. duplicate data for a unique index
+            fail(status, e);
+            System.err.println("❌ Index migration: " + status.getCollection() + "." + status.getName()
+                    + " failed: " + e.getMessage());
+        }
+    }
+
+    private void fail(IndexStatus status, Exception e) {
+        status.error = e.getMessage();
+        status.state = State.FAILED;
+    }
+
+    private IndexStatus status(MongoPersistentEntity<?> entity, IndexDefinition definition) {
+        return statuses.get(entity.getCollection() + "." + indexName(definition));
+    }
+
+    /**
+     * Name of a declared index: the "name" option if present, otherwise
+     * MongoDB's default (field_direction joined by "_").
+     */
+    private static String indexName(IndexDefinition definition) {
+        Object name = definition.getIndexOptions().get("name");
+        if (name != null) return name.toString();
+
+        StringJoiner joiner = new StringJoiner("_");
+        definition.getIndexKeys().forEach((field, direction) -> joiner.add(field + "_" + direction));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.expensetracker.backend.migration;
+
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.service.EntityCacheService;
+import com.expensetracker.backend.util.JoinCodes;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ----------------------------------------------------------------------------
+ * JoinCodeBackfill
+ * ----------------------------------------------------------------------------
+ * One-off data migration: gives every team that still has a legacy join
+ * code (8 hex digits = the creation timestamp of an ObjectId, see
+ * JoinCodes) a new random one.
+ *
+ *   - legacy codes can be guessed from a team's creation time
+ *   - two teams created in the same second share one, which would make the
+ *     unique joinCode index fail to build
+ *
+ * Run by IndexMigrator right BEFORE it builds the indexes (same background
+ * thread), so the joinCode_unique build sees distinct codes. Each team is
+ * one update guarded by its old code; a team whose code changed meanwhile
+ * is left alone. Old QR codes / shared codes of these teams stop working —
+ * members see the new code through the team QR.
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("!local-perf")   // no MongoDB in the local-perf profile
+public class JoinCodeBackfill {
+
+    private final MongoTemplate mongoTemplate;
+    private final EntityCacheService entityCache;
+
+    public JoinCodeBackfill(MongoTemplate mongoTemplate, EntityCacheService entityCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * Replaces every legacy join code.
+     */
+    void backfill() {
+        int replaced = 0;
+
+        try {
+            Query legacy = new Query(Criteria.where("joinCode").regex("^[0-9A-Fa-f]{8}$"));
+            legacy.fields().include("joinCode");
+
+            List<Team> teams = mongoTemplate.find(legacy, Team.class);
+            for (Team team : teams) {
+                if (!JoinCodes.isLegacy(team.getJoinCode())) continue;
+
+                if (replace(team)) {
+                    entityCache.teamChanged(team);   // drops the id and the old code
+                    replaced++;
+                }
+            }
+
+            if (replaced > 0) {
+                System.out.println("✅ Join code backfill: replaced " + replaced + " legacy join codes");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Join code backfill stopped after " + replaced + " teams: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the team still had its legacy code and got a new one
+     */
+    private boolean replace(Team team) {
+        String code = JoinCodes.generate();
+
+        // The unique index may not exist yet → make sure the new code is free
+        while (mongoTemplate.exists(new Query(Criteria.where("joinCode").is(code)), Team.class)) {
+            code = JoinCodes.generate();
+        }
+
+        Query query = new Query(Criteria.where("id").is(team.getId())
+                .and("joinCode").is(team.getJoinCode()));
+        Update update = new Update().set("joinCode", code).inc("version", 1);
+
+        return mongoTemplate.updateFirst(query, update, Team.class).getModifiedCount() > 0;
+    }
+}
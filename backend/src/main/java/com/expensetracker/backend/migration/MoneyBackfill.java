@@ -0,0 +1,159 @@
+package com.expensetracker.backend.migration;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ----------------------------------------------------------------------------
+ * MoneyBackfill
+ * ----------------------------------------------------------------------------
+ * One-off data migration: converts the legacy double amounts of expenses
+ * (Expense.amount, ExpenseShare.amount) to integer minor units
+ * (amountMinor), using the same rounding as new writes (Money.toMinor).
+ *
+ * Runs on a background thread after startup, in batches:
+ *   1. load the next N expenses that still have a legacy amount
+ *   2. per expense, one update guarded by its version:
+ *        set   amountMinor, shares.<i>.amountMinor
+ *        unset amount,      shares.<i>.amount
+ *        inc   version
+ *      (if the expense changed in the meantime the update does not match
+ *       and the expense is simply picked up again by the next batch)
+ *   3. repeat until no legacy amount is left
+ *
+ * An expense that still could not be converted after MAX_ATTEMPTS tries
+ * (kept changing, or its update failed) is skipped and logged; the next
+ * start tries it again. So the loop always ends.
+ *
+ * Until an expense is converted its getters fall back to the legacy double,
+ * so reads stay correct while this runs.
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("!local-perf")   // no MongoDB in the local-perf profile
+public class MoneyBackfill {
+
+    // Conversion attempts per expense before it is skipped for this run
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    // Expenses loaded per batch
+    @Value("${app.migration.money.batch-size:100}")
+    private int batchSize;
+
+    public MoneyBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Starts the backfill in the background once the app is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(this::backfill, "money-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Converts every legacy amount in the expenses collection.
+     */
+    void backfill() {
+        int converted = 0;
+        Map<String, Integer> attempts = new HashMap<>();
+        Set<String> skipped = new HashSet<>();
+
+        try {
+            while (true) {
+                Criteria legacy = new Criteria().orOperator(
+                        Criteria.where("amount").exists(true),
+                        Criteria.where("shares.amount").exists(true));
+                if (!skipped.isEmpty()) {
+                    legacy = new Criteria().andOperator(legacy, Criteria.where("id").nin(skipped));
+                }
+
+                List<Expense> batch = mongoTemplate.find(new Query(legacy).limit(batchSize), Expense.class);
+                if (batch.isEmpty()) break;
+
+                int convertedInBatch = 0;
+                for (Expense expense : batch) {
+                    if (tryConvert(expense)) {
+                        convertedInBatch++;
+                    } else if (attempts.merge(expense.getId(), 1, Integer::sum) >= MAX_ATTEMPTS) {
+                        skipped.add(expense.getId());
+                        System.err.println("❌ Money backfill: skipped expense " + expense.getId()
+                                + " after " + MAX_ATTEMPTS + " attempts");
+                    }
+                }
+
+                // Every update lost a race → give the writers a moment
+                if (convertedInBatch == 0) Thread.sleep(100);
+                converted += convertedInBatch;
+            }
+
+            if (converted > 0) {
+                System.out.println("✅ Money backfill: converted " + converted + " expenses to minor units");
+            }
+            if (!skipped.isEmpty()) {
+                System.err.println("❌ Money backfill: " + skipped.size() + " expenses left for the next start");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Money backfill stopped after " + converted + " expenses: " + e.getMessage());
+        }
+    }
+
+    /**
+     * convert(), with a failed update counted as a failed attempt (logged)
+     * instead of stopping the whole backfill.
+     */
+    private boolean tryConvert(Expense expense) {
+        try {
+            return convert(expense);
+        } catch (Exception e) {
+            System.err.println("❌ Money backfill: expense " + expense.getId() + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rewrites one expense's amounts as minor units.
+     *
+     * @return true if the expense was still unchanged and got converted
+     */
+    private boolean convert(Expense expense) {
+
+        // The getters already turn legacy doubles into minor units
+        Update update = new Update()
+                .set("amountMinor", expense.getAmountMinor())
+                .unset("amount")
+                .inc("version", 1);
+
+        List<ExpenseShare> shares = expense.getShares();
+        for (int i = 0; shares != null && i < shares.size(); i++) {
+            update.set("shares." + i + ".amountMinor", shares.get(i).getAmountMinor())
+                  .unset("shares." + i + ".amount");
+        }
+
+        // Same version → same shares array, so the indexes above still fit
+        Query query = new Query(Criteria.where("id").is(expense.getId())
+                .and("version").is(expense.getVersion()));
+
+        return mongoTemplate.updateFirst(query, update, Expense.class).getModifiedCount() > 0;
+    }
+}
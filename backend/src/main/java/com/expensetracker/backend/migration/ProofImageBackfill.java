@@ -0,0 +1,121 @@
+package com.expensetracker.backend.migration;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.service.ProofImageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ----------------------------------------------------------------------------
+ * ProofImageBackfill
+ * ----------------------------------------------------------------------------
+ * One-off data migration: moves UPI screenshots that are still stored inline
+ * (ExpenseShare.proofImage, base64) into the "proof_images" collection.
+ *
+ * Runs on a background thread after startup, in batches:
+ *   1. load the next N expenses that still have an inline proofImage
+ *      (only shares.userId + shares.proofImage are loaded)
+ *   2. store each image through ProofImageService
+ *   3. per share, one conditional update:
+ *        set   shares.$.proofImageId
+ *        unset shares.$.proofImage
+ *      (only applied if the share still holds the same image, so a payment
+ *       changed in the meantime is never overwritten)
+ *   4. repeat until no inline image is left
+ *
+ * Once everything is migrated a run costs a single (empty) query.
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("!local-perf")   // no MongoDB in the local-perf profile
+public class ProofImageBackfill {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProofImageService proofImageService;
+
+    // Expenses loaded per batch
+    @Value("${app.migration.proof-images.batch-size:100}")
+    private int batchSize;
+
+    public ProofImageBackfill(MongoTemplate mongoTemplate, ProofImageService proofImageService) {
+        this.mongoTemplate = mongoTemplate;
+        this.proofImageService = proofImageService;
+    }
+
+    /**
+     * Starts the backfill in the background once the app is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(this::backfill, "proof-image-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Moves every inline proof image out of the expenses collection.
+     */
+    void backfill() {
+        int moved = 0;
+
+        try {
+            while (true) {
+                Query batchQuery = new Query(Criteria.where("shares.proofImage").ne(null)).limit(batchSize);
+                batchQuery.fields().include("shares.userId").include("shares.proofImage");
+
+                List<Expense> batch = mongoTemplate.find(batchQuery, Expense.class);
+                if (batch.isEmpty()) break;
+
+                for (Expense expense : batch) {
+                    for (ExpenseShare share : expense.getShares()) {
+                        if (share.getProofImage() == null) continue;
+
+                        moveImage(expense.getId(), share);
+                        moved++;
+                    }
+                }
+
+                System.out.println("Proof image backfill: " + moved + " images moved so far");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Proof image backfill stopped after " + moved + " images: " + e.getMessage());
+            return;
+        }
+
+        if (moved > 0) {
+            System.out.println("✅ Proof image backfill finished: " + moved + " images moved");
+        }
+    }
+
+    private void moveImage(String expenseId, ExpenseShare share) {
+
+        // Unreadable legacy data is dropped rather than retried forever
+        String imageId;
+        try {
+            imageId = proofImageService.store(share.getProofImage());
+        } catch (IllegalArgumentException e) {
+            imageId = null;
+        }
+
+        // Only touch the share if it still holds this exact image
+        Query shareQuery = new Query(Criteria.where("id").is(expenseId)
+                .and("shares").elemMatch(Criteria.where("userId").is(share.getUserId())
+                        .and("proofImage").is(share.getProofImage())));
+
+        Update update = new Update()
+                .set("shares.$.proofImageId", imageId)
+                .unset("shares.$.proofImage");
+
+        mongoTemplate.updateFirst(shareQuery, update, Expense.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.backend.migration;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.Team;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * ----------------------------------------------------------------------------
+ * VersionBackfill
+ * ----------------------------------------------------------------------------
+ * One-off data migration for the @Version fields of Expense and Team.
+ *
+ * Documents written before versioning have no "version" field. Expense and
+ * Team decide new-vs-stored by their id (Persistable.isNew), so saving
+ * such a document is already a versioned update whose criteria
+ * { version: null } also match the missing field; it stores version 0.
+ * This backfill only tidies the data so every document carries the field:
+ *
+ *      updateMany({ version: { $exists: false } }, { $set: { version: 0 } })
+ *
+ * Runs in the background once the app is ready (like MoneyBackfill), so it
+ * never delays startup. A concurrent save of the same legacy document is
+ * harmless: both sides write version 0 — or the save ran first and the
+ * document no longer matches. Once done it is a no-op.
+ * ----------------------------------------------------------------------------
+ */
+@Component
+@Profile("!local-perf")   // no MongoDB in the local-perf profile
+public class VersionBackfill {
+
+    private final MongoTemplate mongoTemplate;
+
+    public VersionBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Starts the backfill in the background once the app is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(this::backfill, "version-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void backfill() {
+        for (Class<?> type : new Class<?>[] { Expense.class, Team.class }) {
+            try {
+                long updated = mongoTemplate.updateMulti(
+                        new Query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L),
+                        type).getModifiedCount();
+
+                if (updated > 0) {
+                    System.out.println("✅ Version backfill: " + updated + " " + type.getSimpleName() + " documents");
+                }
+            } catch (Exception e) {
+                // Database unreachable → do not wait for it once per collection;
+                // the next start tries again
+                System.err.println("❌ Version backfill failed for " + type.getSimpleName() + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+}
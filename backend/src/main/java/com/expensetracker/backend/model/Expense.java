@@ -1,6 +1,12 @@
 package com.expensetracker.backend.model;
 
+import com.expensetracker.backend.util.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -15,14 +21,27 @@ import java.util.List;
  *
  * Every expense includes:
  *  - Who paid (paidByUserId)
- *  - Total amount
+ *  - Total amount (stored as integer minor units, see Money)
  *  - Description
  *  - Time/date
  *  - A list of shares (ExpenseShare objects), one for each member
+ *
+ * Indexes (created by IndexMigrator after startup):
+ *  - teamId + date + _id                   → team expense listings / pagination
+ *  - teamId + paidByUserId + shares.status → pending approvals of a payee
+ *  - shares.userId + shares.status         → a member's open shares
  * ----------------------------------------------------------------------------
  */
 @Document(collection = "expenses")
-public class Expense {
+@CompoundIndexes({
+        @CompoundIndex(name = "team_date_id",
+                def = "{ 'teamId': 1, 'date': 1, '_id': 1 }"),
+        @CompoundIndex(name = "team_payer_share_status",
+                def = "{ 'teamId': 1, 'paidByUserId': 1, 'shares.status': 1 }"),
+        @CompoundIndex(name = "share_user_status",
+                def = "{ 'shares.userId': 1, 'shares.status': 1 }")
+})
+public class Expense implements Persistable<String> {
 
     /**
      * MongoDB document ID
@@ -42,9 +61,16 @@ public class Expense {
     private String description;
 
     /**
-     * Total amount spent for this expense.
+     * Total amount spent for this expense, in minor units (cents / paise).
+     * The JSON API still uses decimal "amount" (see getAmount / setAmount).
+     */
+    private Long amountMinor;
+
+    /**
+     * LEGACY: total as a double. Only present on documents written before
+     * amounts moved to minor units; MoneyBackfill converts and removes it.
      */
-    private double amount;
+    private Double amount;
 
     /**
      * ID of the user who paid the expense.
@@ -66,11 +92,34 @@ public class Expense {
      */
     private List<ExpenseShare> shares = new ArrayList<>();
 
+    /**
+     * Optimistic-locking version, managed by Spring Data.
+     * save() only succeeds if the stored version still equals this one,
+     * so concurrent read-modify-save cycles cannot silently overwrite each
+     * other (the loser gets an OptimisticLockingFailureException and is
+     * retried by OptimisticRetryService). In-place share updates bump it too.
+     */
+    @Version
+    private Long version;
+
     /**
      * Default constructor required by Spring and MongoDB.
      */
     public Expense() {}
 
+    /**
+     * New = not stored yet = no id (a new expense never has one before its first
+     * save). Spring Data would otherwise call an entity with a null version
+     * new and INSERT it, which fails for documents written before
+     * versioning; this way their save is a versioned update matching
+     * { version: null } (= field missing) that sets version 0.
+     */
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return id == null;
+    }
+
     // ------------------------------------------------------------------------
     // GETTERS
     // ------------------------------------------------------------------------
@@ -87,8 +136,21 @@ public class Expense {
         return description;
     }
 
+    /**
+     * Total in major units for the JSON API (e.g. 12.5).
+     */
     public double getAmount() {
-        return amount;
+        return Money.toMajor(getAmountMinor());
+    }
+
+    /**
+     * Total in minor units. Falls back to the legacy double for documents
+     * the backfill has not reached yet.
+     */
+    @JsonIgnore
+    public long getAmountMinor() {
+        if (amountMinor != null) return amountMinor;
+        return amount != null ? Money.toMinor(amount) : 0;
     }
 
     public String getPaidByUserId() {
@@ -103,6 +165,10 @@ public class Expense {
         return shares;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     // ------------------------------------------------------------------------
     // SETTERS
     // ------------------------------------------------------------------------
@@ -119,8 +185,17 @@ public class Expense {
         this.description = description;
     }
 
+    /**
+     * Sets the total from a decimal amount (rounded half-up to 2 decimals).
+     */
     public void setAmount(double amount) {
-        this.amount = amount;
+        setAmountMinor(Money.toMinor(amount));
+    }
+
+    @JsonIgnore
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+        this.amount = null;   // never write the legacy field again
     }
 
     public void setPaidByUserId(String paidByUserId) {
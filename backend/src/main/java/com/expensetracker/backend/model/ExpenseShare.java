@@ -1,5 +1,8 @@
 package com.expensetracker.backend.model;
 
+import com.expensetracker.backend.util.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,9 +18,9 @@ import java.util.List;
  *
  * Fields include:
  *  - userId: who owes this share
- *  - amount: how much they owe
+ *  - amountMinor: how much they owe, in minor units (JSON: "amount")
  *  - paymentMethod: CASH or UPI
- *  - proofImage: base64 screenshot for UPI payment
+ *  - proofImageId: reference to the UPI screenshot (stored in "proof_images")
  *  - status: payment approval workflow
  *  - payeeId: optional field to track who should receive money
  * ----------------------------------------------------------------------------
@@ -30,9 +33,16 @@ public class ExpenseShare {
     private String userId;
 
     /**
-     * Amount this user must pay for the expense.
+     * Amount this user must pay for the expense, in minor units.
+     * The JSON API still uses decimal "amount" (see getAmount / setAmount).
+     */
+    private Long amountMinor;
+
+    /**
+     * LEGACY: share as a double (documents written before minor units).
+     * MoneyBackfill converts and removes it.
      */
-    private double amount;
+    private Double amount;
 
     /**
      * How the user paid:
@@ -43,9 +53,20 @@ public class ExpenseShare {
     private String paymentMethod;
 
     /**
-     * UPI screenshot (stored as base64 string).
-     * Only required if paymentMethod = UPI.
+     * Reference to the UPI screenshot in the "proof_images" collection
+     * (see ProofImage). The bytes are served on demand by
+     * GET /api/expenses/proof/{proofImageId}.
+     * Only set if paymentMethod = UPI.
+     */
+    private String proofImageId;
+
+    /**
+     * LEGACY: UPI screenshot stored inline as base64.
+     * Only present on shares written before proof images moved to their own
+     * collection; ProofImageBackfill moves them out and clears this field.
+     * Never sent to the frontend.
      */
+    @JsonIgnore
     private String proofImage;
 
     /**
@@ -67,6 +88,14 @@ public class ExpenseShare {
      */
     private String payeeId;
 
+    /**
+     * Set when the share was approved by a bulk "settle up" (paymentMethod
+     * SETTLEMENT): id of that settlement, so it can tell exactly which
+     * expenses it changed (ExpenseRepositoryCustom.settleOutstanding).
+     */
+    @JsonIgnore
+    private String settlementId;
+
     /**
      * Default constructor.
      * Sets status to "UNPAID" by default.
@@ -83,9 +112,9 @@ public class ExpenseShare {
      * Constructor used when creating a new expense.
      * If the user is the payer, they are automatically marked as APPROVED.
      */
-    public ExpenseShare(String userId, double amount, boolean isPayer) {
+    public ExpenseShare(String userId, long amountMinor, boolean isPayer) {
         this.userId = userId;
-        this.amount = amount;
+        this.amountMinor = amountMinor;
         this.status = isPayer ? "APPROVED" : "UNPAID";
     }
 
@@ -101,12 +130,34 @@ public class ExpenseShare {
         this.userId = userId;
     }
 
+    /**
+     * Share in major units for the JSON API (e.g. 33.34).
+     */
     public double getAmount() {
-        return amount;
+        return Money.toMajor(getAmountMinor());
     }
 
+    /**
+     * Sets the share from a decimal amount (rounded half-up to 2 decimals).
+     */
     public void setAmount(double amount) {
-        this.amount = amount;
+        setAmountMinor(Money.toMinor(amount));
+    }
+
+    /**
+     * Share in minor units. Falls back to the legacy double for documents
+     * the backfill has not reached yet.
+     */
+    @JsonIgnore
+    public long getAmountMinor() {
+        if (amountMinor != null) return amountMinor;
+        return amount != null ? Money.toMinor(amount) : 0;
+    }
+
+    @JsonIgnore
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+        this.amount = null;   // never write the legacy field again
     }
 
     public String getPaymentMethod() {
@@ -117,10 +168,20 @@ public class ExpenseShare {
         this.paymentMethod = paymentMethod;
     }
 
+    public String getProofImageId() {
+        return proofImageId;
+    }
+
+    public void setProofImageId(String proofImageId) {
+        this.proofImageId = proofImageId;
+    }
+
+    @JsonIgnore
     public String getProofImage() {
         return proofImage;
     }
 
+    @JsonIgnore
     public void setProofImage(String proofImage) {
         this.proofImage = proofImage;
     }
@@ -141,11 +202,21 @@ public class ExpenseShare {
         this.payeeId = payeeId;
     }
 
+    @JsonIgnore
+    public String getSettlementId() {
+        return settlementId;
+    }
+
+    public void setSettlementId(String settlementId) {
+        this.settlementId = settlementId;
+    }
+
     /**
      * Backward compatible method.
      * Some older code uses setUpiScreenshot() instead of setProofImage().
-     * We map it internally to proofImage.
+     * We map it internally to the legacy inline proofImage.
      */
+    @JsonIgnore
     public void setUpiScreenshot(String proofImage) {
         setProofImage(proofImage);
     }
@@ -154,9 +225,9 @@ public class ExpenseShare {
     public String toString() {
         return "ExpenseShare{" +
                 "userId='" + userId + '\'' +
-                ", amount=" + amount +
+                ", amountMinor=" + getAmountMinor() +
                 ", paymentMethod='" + paymentMethod + '\'' +
-                ", proofImage='" + proofImage + '\'' +
+                ", proofImageId='" + proofImageId + '\'' +
                 ", status='" + status + '\'' +
                 ", payeeId='" + payeeId + '\'' +
                 '}';
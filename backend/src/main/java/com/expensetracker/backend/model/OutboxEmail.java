@@ -0,0 +1,125 @@
+package com.expensetracker.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * ----------------------------------------------------------------------------
+ * OutboxEmail Document (MongoDB)
+ * ----------------------------------------------------------------------------
+ * One email waiting to be sent (or already handled) by the email outbox.
+ *
+ * Instead of talking to the SMTP server inside a request, EmailService only
+ * stores the email here; EmailOutboxWorker sends it in the background.
+ * Because the email is persisted first, nothing is lost when the SMTP
+ * server is down or the application restarts.
+ *
+ * Status lifecycle:
+ *  - "PENDING" : waiting for its first / next attempt (nextAttemptAt)
+ *  - "SENDING" : claimed by a worker; nextAttemptAt is the end of the claim,
+ *                so if that worker dies the email becomes due again
+ *  - "SENT"    : delivered to the SMTP server (sentAt)
+ *  - "DEAD"    : gave up after app.mail.outbox.max-attempts (dead letter,
+ *                lastError says why); kept for inspection / manual resend
+ *
+ * Indexes:
+ *  - status + nextAttemptAt → the worker's "what is due?" query
+ *  - sentAt (TTL)           → sent emails are purged after 7 days; the TTL
+ *                             monitor ignores documents without sentAt, so
+ *                             pending and dead emails are never purged
+ * ----------------------------------------------------------------------------
+ */
+@Document(collection = "email_outbox")
+@CompoundIndex(name = "status_next_attempt", def = "{ 'status': 1, 'nextAttemptAt': 1 }")
+public class OutboxEmail {
+
+    /**
+     * MongoDB document ID
+     */
+    @Id
+    private String id;
+
+    private String to;
+    private String subject;
+    private String text;
+
+    /**
+     * "PENDING", "SENDING", "SENT" or "DEAD" (see above).
+     */
+    private String status;
+
+    /**
+     * Number of delivery attempts made so far.
+     */
+    private int attempts;
+
+    /**
+     * PENDING: earliest time of the next attempt (backoff).
+     * SENDING: end of the worker's claim.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Error of the last failed attempt, if any.
+     */
+    private String lastError;
+
+    private Instant createdAt;
+
+    /**
+     * When the SMTP server accepted the email (TTL index, 7 days).
+     */
+    @Indexed(name = "sent_ttl", expireAfter = "7d")
+    private Instant sentAt;
+
+    /**
+     * Default constructor required by Spring and MongoDB.
+     */
+    public OutboxEmail() {}
+
+    /**
+     * A new email, due right away.
+     */
+    public OutboxEmail(String to, String subject, String text) {
+        this.to = to;
+        this.subject = subject;
+        this.text = text;
+        this.status = "PENDING";
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // ---------------------------
+    // Getters
+    // ---------------------------
+
+    public String getId() { return id; }
+    public String getTo() { return to; }
+    public String getSubject() { return subject; }
+    public String getText() { return text; }
+    public String getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getSentAt() { return sentAt; }
+
+    // ---------------------------
+    // Setters
+    // ---------------------------
+
+    public void setId(String id) { this.id = id; }
+    public void setTo(String to) { this.to = to; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public void setText(String text) { this.text = text; }
+    public void setStatus(String status) { this.status = status; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public void setSentAt(Instant sentAt) { this.sentAt = sentAt; }
+}
@@ -1,8 +1,9 @@
 package com.expensetracker.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
-import java.time.LocalDateTime;
+import java.time.Instant;
 
 /**
  * ----------------------------------------------------------------------------
@@ -23,6 +24,8 @@ import java.time.LocalDateTime;
  *  - expiryDate  : When the token becomes invalid (example: after 30 minutes).
  *
  * Once the user resets the password successfully, this token is removed.
+ * Tokens that are never used are removed by MongoDB itself: expiryDate has
+ * a TTL index, so the server deletes each document once its expiry passes.
  * ----------------------------------------------------------------------------
  */
 
@@ -37,19 +40,28 @@ public class PasswordResetToken {
 
     /**
      * Email address of the user who requested the password reset.
+     * Indexed → deleteByEmail (run on every forgot-password request) is a
+     * direct lookup, not a collection scan.
      */
+    @Indexed(name = "email")
     private String email;
 
     /**
      * The actual reset token that gets emailed to the user.
+     * Unique index → findByToken is a direct lookup.
      */
+    @Indexed(name = "token_unique", unique = true)
     private String token;
 
     /**
      * When the token expires.
      * After this time, it cannot be used.
+     *
+     * Stored as a BSON date with a TTL index (expireAfter = 0s): MongoDB's
+     * TTL monitor purges the document shortly after this moment.
      */
-    private LocalDateTime expiryDate;
+    @Indexed(name = "expiry_ttl", expireAfter = "0s")
+    private Instant expiryDate;
 
     /**
      * Default constructor required by Spring + MongoDB.
@@ -59,7 +71,7 @@ public class PasswordResetToken {
     /**
      * Convenience constructor used when creating a new reset token.
      */
-    public PasswordResetToken(String email, String token, LocalDateTime expiryDate) {
+    public PasswordResetToken(String email, String token, Instant expiryDate) {
         this.email = email;
         this.token = token;
         this.expiryDate = expiryDate;
@@ -72,7 +84,7 @@ public class PasswordResetToken {
     public String getId() { return id; }
     public String getEmail() { return email; }
     public String getToken() { return token; }
-    public LocalDateTime getExpiryDate() { return expiryDate; }
+    public Instant getExpiryDate() { return expiryDate; }
 
     // ---------------------------
     // Setters
@@ -81,5 +93,5 @@ public class PasswordResetToken {
     public void setId(String id) { this.id = id; }
     public void setEmail(String email) { this.email = email; }
     public void setToken(String token) { this.token = token; }
-    public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
+    public void setExpiryDate(Instant expiryDate) { this.expiryDate = expiryDate; }
 }
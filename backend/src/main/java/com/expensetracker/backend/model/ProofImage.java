@@ -0,0 +1,76 @@
+package com.expensetracker.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * ----------------------------------------------------------------------------
+ * ProofImage Document (MongoDB)
+ * ----------------------------------------------------------------------------
+ * A payment proof screenshot (UPI), stored OUTSIDE the expense document.
+ *
+ * Expenses are read all the time (listings, summaries, approvals), but the
+ * screenshots are only needed when someone actually opens one. Keeping the
+ * bytes here means an ExpenseShare only carries a short reference
+ * (proofImageId) instead of a multi-megabyte base64 string.
+ *
+ * Content-addressed:
+ *  - the id is the SHA-256 hash of the image bytes
+ *  - the same screenshot uploaded twice is stored once
+ *  - the id never changes for given bytes, so it doubles as the HTTP ETag
+ * ----------------------------------------------------------------------------
+ */
+@Document(collection = "proof_images")
+public class ProofImage {
+
+    /**
+     * SHA-256 of the image bytes (hex).
+     */
+    @Id
+    private String id;
+
+    /**
+     * MIME type of the image, e.g. "image/png".
+     */
+    private String contentType;
+
+    /**
+     * Raw image bytes (stored as BSON binary, not base64 text).
+     */
+    private byte[] data;
+
+    /**
+     * When the image was first uploaded.
+     */
+    private Instant createdAt;
+
+    /**
+     * Default constructor required by Spring and MongoDB.
+     */
+    public ProofImage() {}
+
+    public ProofImage(String id, String contentType, byte[] data, Instant createdAt) {
+        this.id = id;
+        this.contentType = contentType;
+        this.data = data;
+        this.createdAt = createdAt;
+    }
+
+    // ------------------------------------------------------------------------
+    // GETTERS / SETTERS
+    // ------------------------------------------------------------------------
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
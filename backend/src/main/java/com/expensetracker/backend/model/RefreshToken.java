@@ -0,0 +1,114 @@
+package com.expensetracker.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * ----------------------------------------------------------------------------
+ * RefreshToken Document (MongoDB)
+ * ----------------------------------------------------------------------------
+ * One refresh token of a login session (see RefreshTokenService).
+ *
+ * Access tokens (JWT) are short-lived; a refresh token lets the frontend get
+ * a new one without sending the password again (no BCrypt check). Each
+ * refresh token works ONCE: using it issues a new one ("rotation") and
+ * marks this one as used.
+ *
+ * Why this exists:
+ *  - Only the SHA-256 of the token is stored, so a database leak does not
+ *    leak usable tokens.
+ *  - sessionId groups every token of one login ("family"). If a used token
+ *    is presented again, it was stolen (or replayed): the whole session is
+ *    revoked.
+ *
+ * Fields stored:
+ *  - id         : MongoDB document ID.
+ *  - tokenHash  : SHA-256 hex of the token (unique index).
+ *  - userId     : owner of the session.
+ *  - sessionId  : the login session (also the "sid" claim of its access tokens).
+ *  - createdAt  : when it was issued.
+ *  - usedAt     : when it was rotated (null = still usable).
+ *  - expiresAt  : end of its life; TTL index → MongoDB deletes it afterwards.
+ * ----------------------------------------------------------------------------
+ */
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    /**
+     * MongoDB primary key — generated automatically.
+     */
+    @Id
+    private String id;
+
+    /**
+     * SHA-256 hex of the token handed to the client.
+     * Unique index → findByTokenHash is a direct lookup.
+     */
+    @Indexed(name = "token_hash_unique", unique = true)
+    private String tokenHash;
+
+    /**
+     * Owner; indexed so all their sessions can be ended (password reset).
+     */
+    @Indexed(name = "user")
+    private String userId;
+
+    /**
+     * Login session; indexed so a whole session can be deleted at once.
+     */
+    @Indexed(name = "session")
+    private String sessionId;
+
+    private Instant createdAt;
+
+    /**
+     * Set when the token is rotated; a second use means replay.
+     */
+    private Instant usedAt;
+
+    /**
+     * TTL index (expireAfter = 0s): purged by MongoDB once expired.
+     */
+    @Indexed(name = "expiry_ttl", expireAfter = "0s")
+    private Instant expiresAt;
+
+    /**
+     * Default constructor required by Spring + MongoDB.
+     */
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, String userId, String sessionId, Instant createdAt, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // ---------------------------
+    // Getters
+    // ---------------------------
+
+    public String getId() { return id; }
+    public String getTokenHash() { return tokenHash; }
+    public String getUserId() { return userId; }
+    public String getSessionId() { return sessionId; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getUsedAt() { return usedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    // ---------------------------
+    // Setters
+    // ---------------------------
+
+    public void setId(String id) { this.id = id; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public void setUsedAt(Instant usedAt) { this.usedAt = usedAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,65 @@
+package com.expensetracker.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * ----------------------------------------------------------------------------
+ * RevokedSession Document (MongoDB)
+ * ----------------------------------------------------------------------------
+ * A login session whose access tokens must no longer be accepted (logout,
+ * or a replayed refresh token).
+ *
+ * Access tokens carry their session id ("sid" claim). RevocationService
+ * keeps the ids revoked within the last access token lifetime in memory,
+ * so checking a request costs no query.
+ *
+ * A session stays here until its refresh tokens can no longer be used
+ * either (expiresAt = revocation time + refresh token lifetime): refresh
+ * checks this collection directly. The TTL index then removes it.
+ * ----------------------------------------------------------------------------
+ */
+@Document(collection = "revoked_sessions")
+public class RevokedSession {
+
+    /**
+     * The session id itself (one document per revoked session).
+     */
+    @Id
+    private String sessionId;
+
+    /**
+     * Indexed: RevocationService reloads the recent revocations by it.
+     */
+    @Indexed(name = "revoked_at")
+    private Instant revokedAt;
+
+    /**
+     * TTL index (expireAfter = 0s): purged once no token (access or
+     * refresh) of the session can still be valid.
+     */
+    @Indexed(name = "expiry_ttl", expireAfter = "0s")
+    private Instant expiresAt;
+
+    /**
+     * Default constructor required by Spring and MongoDB.
+     */
+    public RevokedSession() {}
+
+    public RevokedSession(String sessionId, Instant revokedAt, Instant expiresAt) {
+        this.sessionId = sessionId;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getSessionId() { return sessionId; }
+    public Instant getRevokedAt() { return revokedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,6 +1,10 @@
 package com.expensetracker.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -23,7 +27,7 @@ import java.util.List;
  * ----------------------------------------------------------------------------
  */
 @Document(collection = "teams")
-public class Team {
+public class Team implements Persistable<String> {
 
     /**
      * Auto-generated MongoDB document ID.
@@ -44,8 +48,16 @@ public class Team {
 
     /**
      * A unique join code that allows new members to join the team.
-     * Example: "A1B2C3D4"
+     * Example: "K7XQ2MRP9D" (see JoinCodes)
+     *
+     * Unique index → findByJoinCode is a direct lookup and two teams can
+     * never share a code.
+     *
+     * Never serialized: anyone holding the code can join, so it only leaves
+     * the server in the create-team response and inside the members-only QR.
      */
+    @JsonIgnore
+    @Indexed(name = "joinCode_unique", unique = true)
     private String joinCode;
 
     /**
@@ -58,6 +70,15 @@ public class Team {
      */
     private List<String> memberIds = new ArrayList<>();
 
+    /**
+     * Optimistic-locking version, managed by Spring Data.
+     * Two concurrent joins both read the team and save it back; with this
+     * field the second save fails instead of dropping the first member,
+     * and OptimisticRetryService re-runs it on fresh data.
+     */
+    @Version
+    private Long version;
+
     // ----------------------------------------------------------------------
     // EXTRA FIELDS USED FOR SUMMARY SCREEN (TeamService)
     // These are NOT stored permanently for business logic.
@@ -87,6 +108,15 @@ public class Team {
 
     public String getId() { return id; }
 
+    /**
+     * New = no id yet. Keeps the save of a team stored before versioning an
+     * update ({ version: null } matches the missing field) instead of an
+     * INSERT that collides on _id.
+     */
+    @JsonIgnore
+    @Override
+    public boolean isNew() { return id == null; }
+
     public String getTeamName() { return teamName; }
     public void setTeamName(String teamName) { this.teamName = teamName; }
 
@@ -101,6 +131,8 @@ public class Team {
 
     public List<String> getMemberIds() { return memberIds; }
 
+    public Long getVersion() { return version; }
+
     // ---------------- SUMMARY FIELDS ------------------
 
     public String getUserName() { return userName; }
@@ -0,0 +1,104 @@
+package com.expensetracker.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ----------------------------------------------------------------------------
+ * TeamBalance Document (MongoDB)
+ * ----------------------------------------------------------------------------
+ * A running ledger of who owes what inside ONE team.
+ *
+ * Instead of re-reading every expense of a team to build the summary, the
+ * expense endpoints keep this single document up to date with atomic $inc
+ * updates whenever money changes hands:
+ *
+ *  - a new expense adds every unpaid share as a debt
+ *  - an approved payment settles that share's debt
+ *  - a deleted expense removes whatever was still outstanding
+ *
+ * The document id IS the team id, so reading the summary is a single lookup.
+ *
+ * Amounts are integer minor units (see Money), so the $inc updates add
+ * exactly and the ledger never drifts. Ledgers are rebuilt from the
+ * expenses on first use.
+ *
+ * Sign convention for the balances map (userId → minor units):
+ *  - positive → the user should receive money
+ *  - negative → the user still needs to pay
+ *
+ * Rebuild state (see TeamBalanceService):
+ *  - epoch    → bumped each time a rebuild starts; a $inc only applies to
+ *               the epoch its writer saw BEFORE saving its change, so a
+ *               change a rebuild may already have counted is never added
+ *               a second time
+ *  - building → a rebuild is counting the expenses right now
+ *  - dirty    → an expense changed during that rebuild; it must start over
+ * ----------------------------------------------------------------------------
+ */
+@Document(collection = "team_ledgers")
+public class TeamBalance {
+
+    /**
+     * Same value as the team's id (one ledger per team).
+     */
+    @Id
+    private String teamId;
+
+    /**
+     * Net balance per user id inside the team, in minor units.
+     */
+    private Map<String, Long> balances = new HashMap<>();
+
+    /**
+     * Number of rebuilds started so far (0 for ledgers stored before).
+     */
+    private long epoch;
+
+    /**
+     * True while a rebuild is counting the expenses (since buildStartedAt).
+     */
+    private boolean building;
+    private Instant buildStartedAt;
+
+    /**
+     * True if an expense changed while building; the rebuild must repeat.
+     */
+    private boolean dirty;
+
+    /**
+     * Default constructor required by Spring and MongoDB.
+     */
+    public TeamBalance() {}
+
+    public TeamBalance(String teamId, Map<String, Long> balances) {
+        this.teamId = teamId;
+        this.balances = balances;
+    }
+
+    // ------------------------------------------------------------------------
+    // GETTERS / SETTERS
+    // ------------------------------------------------------------------------
+
+    public String getTeamId() { return teamId; }
+    public void setTeamId(String teamId) { this.teamId = teamId; }
+
+    public Map<String, Long> getBalances() { return balances; }
+    public void setBalances(Map<String, Long> balances) { this.balances = balances; }
+
+    public long getEpoch() { return epoch; }
+    public void setEpoch(long epoch) { this.epoch = epoch; }
+
+    public boolean isBuilding() { return building; }
+    public void setBuilding(boolean building) { this.building = building; }
+
+    public Instant getBuildStartedAt() { return buildStartedAt; }
+    public void setBuildStartedAt(Instant buildStartedAt) { this.buildStartedAt = buildStartedAt; }
+
+    public boolean isDirty() { return dirty; }
+    public void setDirty(boolean dirty) { this.dirty = dirty; }
+}
@@ -2,8 +2,11 @@
 package com.expensetracker.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.expensetracker.backend.util.Hashes;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,15 +18,23 @@ public class User {
 
     private String firstName;
     private String lastName;
+
+    // unique: one account per email (also makes findByEmail an index lookup)
+    @Indexed(name = "email_unique", unique = true)
     private String email;
     private String password;
 
     // NEW: supports multi-team
     private List<String> teamIds = new ArrayList<>();
 
-    // NEW: profile picture stored as base64 or image URL
+    // NEW: profile picture stored as an image data URL (PNG / JPEG / GIF / WebP)
     private String profileImage;
 
+    // Short hash of profileImage, kept in sync by setProfileImage().
+    // Lets avatar URLs / ETags change only when the picture changes,
+    // without loading the (large) image itself.
+    private String profileImageVersion;
+
     // NEW: optional phone number
     private String phone;
 
@@ -65,9 +76,23 @@ public class User {
         }
     }
 
-    // profile image - base64 or url
+    // profile image - image data URL (also refreshes profileImageVersion)
     public String getProfileImage() { return profileImage; }
-    public void setProfileImage(String profileImage) { this.profileImage = profileImage; }
+    public void setProfileImage(String profileImage) {
+        this.profileImage = profileImage;
+        this.profileImageVersion = versionOf(profileImage);
+    }
+
+    public String getProfileImageVersion() { return profileImageVersion; }
+
+    /**
+     * Version tag of a profile image: first 16 hex chars of its SHA-256,
+     * or null when there is no image.
+     */
+    public static String versionOf(String profileImage) {
+        if (profileImage == null || profileImage.isEmpty()) return null;
+        return Hashes.sha256Hex(profileImage).substring(0, 16);
+    }
 
     // phone
     public String getPhone() { return phone; }
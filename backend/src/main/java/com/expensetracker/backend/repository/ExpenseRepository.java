@@ -1,6 +1,7 @@
 package com.expensetracker.backend.repository;
 
 import com.expensetracker.backend.model.Expense;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
@@ -26,9 +27,12 @@ import java.util.List;
  *   { "teamId": <teamId> }
  *
  * This lets you fetch all expenses for a specific team.
+ *
+ * Queries that cannot be expressed as method names (aggregations etc.)
+ * live in ExpenseRepositoryCustom / ExpenseRepositoryImpl.
  * ----------------------------------------------------------------------------
  */
-public interface ExpenseRepository extends MongoRepository<Expense, String> {
+public interface ExpenseRepository extends MongoRepository<Expense, String>, ExpenseRepositoryCustom {
 
     /**
      * Returns all expenses belonging to a specific team.
@@ -37,4 +41,34 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
      * @return List of Expense documents where teamId matches
      */
     List<Expense> findByTeamId(String teamId);
+
+    /**
+     * Returns the expenses a payee still has to approve payments for,
+     * with ONLY the pending shares attached (and without proof images).
+     *
+     * Pipeline sent to MongoDB:
+     *   1. $match   → team + payee + at least one share in a PENDING_* status
+     *                 (served by the teamId / paidByUserId / shares.status index)
+     *   2. $project → keep description and the amount (amountMinor, plus the
+     *                 legacy amount of documents MoneyBackfill has not
+     *                 converted yet), filter shares down to the pending ones
+     *   3. $unset   → drop the base64 proofImage from those shares
+     *
+     * The result only depends on how many approvals are pending, not on how
+     * many expenses the team has ever recorded.
+     *
+     * @param teamId  the team to look in
+     * @param payeeId the user who paid the expenses (and approves payments)
+     * @return partial Expense documents (id, description, amount, pending shares);
+     *         getAmountMinor() works for both stored forms
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { teamId: ?0, paidByUserId: ?1,"
+                    + " shares: { $elemMatch: { status: { $in: ['PENDING_CASH_APPROVAL', 'PENDING_UPI_APPROVAL'] } } } } }",
+            "{ $project: { description: 1, amountMinor: 1, amount: 1,"
+                    + " shares: { $filter: { input: '$shares', as: 'share',"
+                    + " cond: { $in: ['$$share.status', ['PENDING_CASH_APPROVAL', 'PENDING_UPI_APPROVAL']] } } } } }",
+            "{ $unset: 'shares.proofImage' }"
+    })
+    List<Expense> findPendingApprovals(String teamId, String payeeId);
 }
@@ -0,0 +1,160 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.expensetracker.backend.dto.ShareTransition;
+import com.expensetracker.backend.dto.TeamTotals;
+import com.expensetracker.backend.model.Expense;
+
+/**
+ * ----------------------------------------------------------------------------
+ * ExpenseRepositoryCustom
+ * ----------------------------------------------------------------------------
+ * Hand-written queries for the "expenses" collection that cannot be derived
+ * from a method name (aggregations, partial updates, projections).
+ *
+ * Spring Data picks up the implementation (ExpenseRepositoryImpl)
+ * automatically and merges it into ExpenseRepository.
+ * ----------------------------------------------------------------------------
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Sums, per team, what a user still owes and what they should receive,
+     * using ONE aggregation pipeline evaluated inside MongoDB:
+     *
+     *      $match  { teamId: { $in: teamIds }, user is payer or share owner }
+     *      $unwind "$shares"
+     *      $match  { shares.status ≠ APPROVED, user involved in the share }
+     *      $group  { _id: "$teamId", needToPay: $sum, needToGet: $sum }
+     *
+     * Only the two sums per team travel over the wire — no expense documents
+     * and no proof images.
+     *
+     * Teams without any outstanding share for the user are not returned.
+     *
+     * @param teamIds the teams to look at
+     * @param userId  the user the totals are computed for
+     * @return one TeamTotals per team that has outstanding shares
+     */
+    List<TeamTotals> sumOutstandingByTeam(Collection<String> teamIds, String userId);
+
+    /**
+     * Keyset (cursor) pagination over a team's expenses, newest first.
+     *
+     * The page starts right after the (date, id) of the last expense of the
+     * previous page:
+     *
+     *      { teamId, $or: [ { date < afterDate },
+     *                       { date == afterDate, _id < afterId } ] }
+     *      sort { date: -1, _id: -1 }, limit
+     *
+     * Unlike skip/offset, every page costs the same no matter how deep it is
+     * (served by the teamId + date + _id index).
+     *
+     * @param teamId    the team to list
+     * @param payerId   only expenses paid by this user, or null for all
+     * @param afterDate date of the last expense already returned, or null for the first page
+     * @param afterId   id of the last expense already returned, or null for the first page
+     * @param limit     maximum number of expenses to return
+     * @return up to limit expenses, newest first
+     */
+    List<Expense> findTeamPage(String teamId, String payerId, Instant afterDate, String afterId, int limit);
+
+    /**
+     * Streams ALL expenses of a team (newest first) through a MongoDB cursor,
+     * so callers never hold the full history in memory.
+     *
+     * The returned stream holds an open cursor and MUST be closed
+     * (use try-with-resources).
+     *
+     * @param teamId  the team to export
+     * @param payerId only expenses paid by this user, or null for all
+     * @return lazily fetched expenses
+     */
+    Stream<Expense> streamTeamExpenses(String teamId, String payerId);
+
+    /**
+     * Changes the status of ONE share in place, as a single conditional
+     * findAndModify:
+     *
+     *      query  { _id, shares: { $elemMatch: { userId, status: { $in: from } } } }
+     *      update { $set: { "shares.$[elem].status": to, ... } }
+     *      arrayFilters [ { elem.userId: userId, elem.status: { $in: from } } ]
+     *
+     * The update only applies if the share still has one of the expected
+     * statuses, so two concurrent actions can never overwrite each other:
+     * the loser simply gets null back. Only the changed fields are written.
+     * With transition.byPayer(...) the query also requires
+     * { paidByUserId: payerId }, so only the payee can apply it; with
+     * transition.inTeam(...) it requires { teamId }.
+     *
+     * @param expenseId  the expense
+     * @param userId     owner of the share to change
+     * @param transition expected current status(es) → new status (+ payment fields)
+     * @return the expense as it was BEFORE the change, with teamId,
+     *         paidByUserId and only the affected share loaded;
+     *         null if no share matched (missing, or status already changed)
+     */
+    Expense transitionShare(String expenseId, String userId, ShareTransition transition);
+
+    /**
+     * Loads an expense with only ONE member's share (plus teamId and
+     * paidByUserId). Used to explain why a transition did not apply.
+     *
+     * @param expenseId the expense
+     * @param userId    owner of the share
+     * @return the partial expense (shares empty if the user has no share),
+     *         or null if the expense does not exist
+     */
+    Expense findWithShare(String expenseId, String userId);
+
+    /**
+     * Deletes an expense and returns the document that was deleted, in one
+     * findAndRemove, so the caller removes exactly its debts (not those of
+     * an older copy it loaded before).
+     *
+     * @param expenseId the expense
+     * @return the deleted expense, or null if it did not exist (any more)
+     */
+    Expense findAndDelete(String expenseId);
+
+    /**
+     * Loads the expenses of a team paid by one member that still have an
+     * unapproved share, with only what settling needs: paidByUserId, version
+     * and the shares' userId / status / amount (never proof images).
+     *
+     *      { teamId, paidByUserId: payeeId, shares: { $elemMatch: { status: { $ne: "APPROVED" } } } }
+     *
+     * Served by the team_payer_share_status index.
+     *
+     * @param teamId  the team
+     * @param payeeId the member the money is owed to
+     * @return expenses with at least one share not APPROVED
+     */
+    List<Expense> findOutstanding(String teamId, String payeeId);
+
+    /**
+     * Marks every outstanding share of the given expenses as APPROVED
+     * (paymentMethod SETTLEMENT) in ONE unordered bulk write, one update
+     * per expense:
+     *
+     *      query  { _id, version }
+     *      update { $set: { "shares.$[s].status": "APPROVED",
+     *                       "shares.$[s].settlementId": <new id>, ... },
+     *               $inc: { version: 1 } }
+     *      arrayFilters [ { s.userId: { $ne: payer }, s.status: { $ne: "APPROVED" } } ]
+     *
+     * The version guard means an expense changed since it was loaded is
+     * left alone instead of being settled with stale amounts. A bulk write
+     * only reports how many updates matched; if some did not, the expenses
+     * carrying this settlement's id are looked up (one more query).
+     *
+     * @param expenses expenses as returned by findOutstanding
+     * @return ids of the expenses that were actually updated
+     */
+    List<String> settleOutstanding(List<Expense> expenses);
+}
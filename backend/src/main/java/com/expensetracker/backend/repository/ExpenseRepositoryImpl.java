@@ -0,0 +1,226 @@
+package com.expensetracker.backend.repository;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.expensetracker.backend.dto.ShareTransition;
+import com.expensetracker.backend.dto.TeamTotals;
+import com.expensetracker.backend.model.Expense;
+
+/**
+ * Implementation of ExpenseRepositoryCustom using MongoTemplate.
+ */
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    // Sort order shared by pagination and streaming (matches the team_date_id index)
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "date", "id");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<TeamTotals> sumOutstandingByTeam(Collection<String> teamIds, String userId) {
+
+        // Share belongs to the user, and someone else paid the expense
+        AggregationExpression userOwes = BooleanOperators.And.and(
+                ComparisonOperators.Eq.valueOf("shares.userId").equalToValue(userId),
+                ComparisonOperators.Ne.valueOf("paidByUserId").notEqualToValue(userId));
+
+        // User paid the expense, and the share belongs to someone else
+        AggregationExpression userIsOwed = BooleanOperators.And.and(
+                ComparisonOperators.Eq.valueOf("paidByUserId").equalToValue(userId),
+                ComparisonOperators.Ne.valueOf("shares.userId").notEqualToValue(userId));
+
+        // Share amount in minor units; shares MoneyBackfill has not converted
+        // yet still carry the legacy double → floor(decimal(amount) * 100 + 0.5),
+        // i.e. half-up like Money.toMinor ($round would round half to even).
+        // Going through decimal keeps 1.005 at 100.5 instead of 100.4999…
+        AggregationExpression legacyCents = ArithmeticOperators.valueOf(
+                ConvertOperators.valueOf("shares.amount").convertToDecimal()).multiplyBy(100);
+        AggregationExpression shareMinor = ConditionalOperators.ifNull("shares.amountMinor")
+                .then(ConvertOperators.ToLong.toLong(ArithmeticOperators.valueOf(
+                        ArithmeticOperators.valueOf(legacyCents).add(0.5)).floor()));
+
+        Aggregation aggregation = newAggregation(
+                // Only expenses of the user's teams that involve the user at all
+                match(Criteria.where("teamId").in(teamIds)
+                        .orOperator(
+                                Criteria.where("paidByUserId").is(userId),
+                                Criteria.where("shares.userId").is(userId))),
+
+                // One row per share
+                unwind("shares"),
+
+                // Drop settled shares (status null counts as UNPAID, like before)
+                match(Criteria.where("shares.status").ne("APPROVED")
+                        .orOperator(
+                                Criteria.where("paidByUserId").is(userId),
+                                Criteria.where("shares.userId").is(userId))),
+
+                // Turn each share into "what it adds to pay / get"
+                project("teamId")
+                        .and(ConditionalOperators.when(userOwes).then(shareMinor).otherwise(0L))
+                        .as("needToPay")
+                        .and(ConditionalOperators.when(userIsOwed).then(shareMinor).otherwise(0L))
+                        .as("needToGet"),
+
+                // Add them up per team
+                group("teamId")
+                        .sum("needToPay").as("needToPay")
+                        .sum("needToGet").as("needToGet"));
+
+        return mongoTemplate.aggregate(aggregation, Expense.class, TeamTotals.class).getMappedResults();
+    }
+
+    @Override
+    public List<Expense> findTeamPage(String teamId, String payerId, Instant afterDate, String afterId, int limit) {
+
+        Criteria criteria = teamCriteria(teamId, payerId);
+
+        // Continue strictly after the last (date, id) of the previous page
+        if (afterDate != null && afterId != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("date").lt(afterDate),
+                    Criteria.where("date").is(afterDate).and("id").lt(afterId));
+        }
+
+        Query query = new Query(criteria).with(NEWEST_FIRST).limit(limit);
+
+        return mongoTemplate.find(query, Expense.class);
+    }
+
+    @Override
+    public Stream<Expense> streamTeamExpenses(String teamId, String payerId) {
+        Query query = new Query(teamCriteria(teamId, payerId)).with(NEWEST_FIRST);
+        return mongoTemplate.stream(query, Expense.class);
+    }
+
+    @Override
+    public Expense transitionShare(String expenseId, String userId, ShareTransition transition) {
+
+        // Shares written before statuses existed have none → they count as UNPAID
+        List<String> from = new ArrayList<>(transition.getFromStatuses());
+        if (from.contains("UNPAID")) from.add(null);
+
+        // Expense must contain this user's share in one of the expected statuses
+        Query query = new Query(Criteria.where("id").is(expenseId)
+                .and("shares").elemMatch(Criteria.where("userId").is(userId).and("status").in(from)));
+
+        // Payee-only actions: the expense must also have been paid by this user
+        if (transition.getPayerId() != null) {
+            query.addCriteria(Criteria.where("paidByUserId").is(transition.getPayerId()));
+        }
+
+        // Caller-supplied team (no extra read to look it up)
+        if (transition.getTeamId() != null) {
+            query.addCriteria(Criteria.where("teamId").is(transition.getTeamId()));
+        }
+
+        // Return only what callers need: who paid, which team, and the old share
+        query.fields().include("teamId").include("paidByUserId")
+                .elemMatch("shares", Criteria.where("userId").is(userId));
+
+        // Write only the changed fields of that one share
+        Update update = new Update()
+                .set("shares.$[elem].status", transition.getToStatus())
+                .inc("version", 1) // keep optimistic locking of full saves meaningful
+                .filterArray(Criteria.where("elem.userId").is(userId).and("elem.status").in(from));
+
+        if (transition.touchesPayment()) {
+            update.set("shares.$[elem].paymentMethod", transition.getPaymentMethod())
+                  .set("shares.$[elem].proofImageId", transition.getProofImageId())
+                  .unset("shares.$[elem].proofImage");
+        }
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Expense.class);
+    }
+
+    @Override
+    public Expense findWithShare(String expenseId, String userId) {
+        Query query = new Query(Criteria.where("id").is(expenseId));
+        query.fields().include("teamId").include("paidByUserId")
+                .elemMatch("shares", Criteria.where("userId").is(userId));
+
+        return mongoTemplate.findOne(query, Expense.class);
+    }
+
+    @Override
+    public Expense findAndDelete(String expenseId) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(expenseId)), Expense.class);
+    }
+
+    @Override
+    public List<Expense> findOutstanding(String teamId, String payeeId) {
+        Query query = new Query(Criteria.where("teamId").is(teamId)
+                .and("paidByUserId").is(payeeId)
+                .and("shares").elemMatch(Criteria.where("status").ne("APPROVED")));
+        query.fields().include("teamId").include("paidByUserId").include("version")
+                .include("shares.userId").include("shares.status")
+                .include("shares.amountMinor").include("shares.amount");
+
+        return mongoTemplate.find(query, Expense.class);
+    }
+
+    @Override
+    public List<String> settleOutstanding(List<Expense> expenses) {
+        if (expenses.isEmpty()) return List.of();
+
+        String settlementId = UUID.randomUUID().toString();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+
+        for (Expense expense : expenses) {
+            Query query = new Query(Criteria.where("id").is(expense.getId())
+                    .and("version").is(expense.getVersion()));
+
+            Update update = new Update()
+                    .set("shares.$[s].status", "APPROVED")
+                    .set("shares.$[s].paymentMethod", "SETTLEMENT")
+                    .set("shares.$[s].settlementId", settlementId)
+                    .inc("version", 1)
+                    .filterArray(Criteria.where("s.userId").ne(expense.getPaidByUserId())
+                            .and("s.status").ne("APPROVED"));
+
+            bulk.updateOne(query, update);
+        }
+
+        List<String> ids = expenses.stream().map(Expense::getId).toList();
+        if (bulk.execute().getMatchedCount() == ids.size()) return ids;
+
+        // Some changed meanwhile and were skipped → which ones carry our id?
+        Query settled = new Query(Criteria.where("id").in(ids).and("shares.settlementId").is(settlementId));
+        settled.fields().include("id");
+        return mongoTemplate.find(settled, Expense.class).stream().map(Expense::getId).toList();
+    }
+
+    private static Criteria teamCriteria(String teamId, String payerId) {
+        Criteria criteria = Criteria.where("teamId").is(teamId);
+        if (payerId != null) criteria = criteria.and("paidByUserId").is(payerId);
+        return criteria;
+    }
+}
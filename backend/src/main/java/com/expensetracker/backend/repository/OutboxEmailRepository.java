@@ -0,0 +1,30 @@
+package com.expensetracker.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.expensetracker.backend.model.OutboxEmail;
+
+/**
+ * ----------------------------------------------------------------------------
+ * OutboxEmailRepository
+ * ----------------------------------------------------------------------------
+ * Database access for the "email_outbox" collection (see OutboxEmail).
+ *
+ * save() enqueues a new email; the worker side (claiming due emails and
+ * recording the outcome of each attempt) lives in OutboxEmailRepositoryCustom.
+ *
+ *      long countByStatus(String status)
+ *
+ * Spring Data turns this into { "status": <status> } → used for the
+ * outbox gauges (pending / dead emails).
+ * ----------------------------------------------------------------------------
+ */
+public interface OutboxEmailRepository
+        extends MongoRepository<OutboxEmail, String>, OutboxEmailRepositoryCustom {
+
+    /**
+     * @param status "PENDING", "SENDING", "SENT" or "DEAD"
+     * @return number of outbox emails in that status
+     */
+    long countByStatus(String status);
+}
@@ -0,0 +1,55 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import com.expensetracker.backend.model.OutboxEmail;
+
+/**
+ * ----------------------------------------------------------------------------
+ * OutboxEmailRepositoryCustom
+ * ----------------------------------------------------------------------------
+ * Atomic state changes of the email outbox, used by EmailOutboxWorker.
+ *
+ * Every change is a single findAndModify / update guarded by the expected
+ * status, so two workers (or two instances of the app) never send the same
+ * email twice within a claim.
+ * ----------------------------------------------------------------------------
+ */
+public interface OutboxEmailRepositoryCustom {
+
+    /**
+     * Claims up to `limit` due emails, oldest due first. Each one is
+     * atomically switched with:
+     *
+     *      findAndModify { status: PENDING | SENDING, nextAttemptAt: { $lte: now } }
+     *                    { $set: { status: SENDING, nextAttemptAt: now + lease },
+     *                      $inc: { attempts: 1 } }
+     *
+     * SENDING emails whose claim ran out (the worker died mid-batch) are
+     * due again, so nothing stays stuck. The attempt is counted when it is
+     * claimed, so an email that crashes the worker still ends up DEAD.
+     *
+     * @param limit maximum number of emails to claim
+     * @param now   current time
+     * @param lease how long the claim lasts
+     * @return the claimed emails (attempts already incremented)
+     */
+    List<OutboxEmail> claimDue(int limit, Instant now, Duration lease);
+
+    /**
+     * SENDING → SENT.
+     */
+    void markSent(String id, Instant sentAt);
+
+    /**
+     * SENDING → PENDING, retried at nextAttemptAt.
+     */
+    void reschedule(String id, Instant nextAttemptAt, String error);
+
+    /**
+     * SENDING → DEAD (no more attempts).
+     */
+    void markDead(String id, String error);
+}
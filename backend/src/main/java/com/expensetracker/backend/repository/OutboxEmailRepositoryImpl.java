@@ -0,0 +1,76 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.expensetracker.backend.model.OutboxEmail;
+
+/**
+ * Implementation of OutboxEmailRepositoryCustom using MongoTemplate.
+ */
+public class OutboxEmailRepositoryImpl implements OutboxEmailRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<OutboxEmail> claimDue(int limit, Instant now, Duration lease) {
+
+        // Due = waiting for an attempt, or claimed by a worker whose claim ran out
+        // (served by the status_next_attempt index)
+        Query due = new Query(Criteria.where("status").in("PENDING", "SENDING")
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by("nextAttemptAt"));
+
+        Update claim = new Update()
+                .set("status", "SENDING")
+                .set("nextAttemptAt", now.plus(lease))
+                .inc("attempts", 1);
+
+        FindAndModifyOptions returnNew = FindAndModifyOptions.options().returnNew(true);
+
+        // One findAndModify per email: each claim is atomic on its own
+        List<OutboxEmail> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            OutboxEmail email = mongoTemplate.findAndModify(due, claim, returnNew, OutboxEmail.class);
+            if (email == null) break;
+            claimed.add(email);
+        }
+        return claimed;
+    }
+
+    @Override
+    public void markSent(String id, Instant sentAt) {
+        mongoTemplate.updateFirst(sending(id),
+                new Update().set("status", "SENT").set("sentAt", sentAt).unset("lastError"),
+                OutboxEmail.class);
+    }
+
+    @Override
+    public void reschedule(String id, Instant nextAttemptAt, String error) {
+        mongoTemplate.updateFirst(sending(id),
+                new Update().set("status", "PENDING").set("nextAttemptAt", nextAttemptAt).set("lastError", error),
+                OutboxEmail.class);
+    }
+
+    @Override
+    public void markDead(String id, String error) {
+        mongoTemplate.updateFirst(sending(id),
+                new Update().set("status", "DEAD").unset("nextAttemptAt").set("lastError", error),
+                OutboxEmail.class);
+    }
+
+    private static Query sending(String id) {
+        return new Query(Criteria.where("_id").is(id).and("status").is("SENDING"));
+    }
+}
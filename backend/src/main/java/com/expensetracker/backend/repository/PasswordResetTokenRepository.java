@@ -2,6 +2,7 @@ package com.expensetracker.backend.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import com.expensetracker.backend.model.PasswordResetToken;
+import java.time.Instant;
 import java.util.Optional;
 
 /**
@@ -19,12 +20,14 @@ import java.util.Optional;
  *
  * Below we define a custom query method:
  *
- *      Optional<PasswordResetToken> findByToken(String token)
+ *      Optional<PasswordResetToken> findByTokenAndExpiryDateAfter(String token, Instant now)
  *
  * Spring Data automatically converts this method into:
- *      { "token": <token_value> }
+ *      { "token": <token_value>, "expiryDate": { $gt: <now> } }
  *
  * This is used when verifying a password-reset link clicked by the user.
+ * Expired tokens are filtered out by the query itself (the TTL monitor
+ * only runs about once a minute, so a few may still be stored).
  *
  * Returning Optional helps avoid null checks and prevents crashes when
  * the token does not exist.
@@ -33,10 +36,20 @@ import java.util.Optional;
 public interface PasswordResetTokenRepository extends MongoRepository<PasswordResetToken, String> {
 
     /**
-     * Finds a reset token document by its token string.
+     * Finds a reset token document by its token string, ignoring tokens
+     * whose expiry has already passed.
      *
      * @param token - the actual reset token sent to the user's email
-     * @return optional containing the token details if found
+     * @param now   - current time; tokens expiring before it are skipped
+     * @return optional containing the token details if found and still valid
      */
-    Optional<PasswordResetToken> findByToken(String token);
+    Optional<PasswordResetToken> findByTokenAndExpiryDateAfter(String token, Instant now);
+
+    /**
+     * Removes every reset token issued for an email.
+     * Used before issuing a new one, so each user has at most one live token.
+     *
+     * @param email - the user's email address
+     */
+    void deleteByEmail(String email);
 }
@@ -0,0 +1,22 @@
+package com.expensetracker.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.expensetracker.backend.model.ProofImage;
+
+/**
+ * ----------------------------------------------------------------------------
+ * ProofImageRepository
+ * ----------------------------------------------------------------------------
+ * Database access for the "proof_images" collection.
+ *
+ * The id of a ProofImage is the SHA-256 of its bytes, so the standard
+ * MongoRepository methods are all we need:
+ *
+ *  - existsById(hash) → is this screenshot already stored?
+ *  - insert(image)    → store a new screenshot
+ *  - findById(hash)   → load the bytes for the image endpoint
+ * ----------------------------------------------------------------------------
+ */
+public interface ProofImageRepository extends MongoRepository<ProofImage, String> {
+}
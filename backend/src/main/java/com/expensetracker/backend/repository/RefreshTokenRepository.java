@@ -0,0 +1,50 @@
+package com.expensetracker.backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.expensetracker.backend.model.RefreshToken;
+
+/**
+ * ----------------------------------------------------------------------------
+ * RefreshTokenRepository
+ * ----------------------------------------------------------------------------
+ * Database access for the "refresh_tokens" collection (see RefreshToken).
+ *
+ * Derived queries:
+ *
+ *      findByTokenHash(hash)      → { "tokenHash": <hash> }      (token_hash_unique)
+ *      deleteBySessionId(session) → remove { "sessionId": <id> } (session index)
+ *      findByUserId(user)         → { "userId": <id> }           (user index)
+ *      deleteByUserId(user)       → remove { "userId": <id> }    (user index)
+ *
+ * Rotation itself (use a token exactly once) is atomic and lives in
+ * RefreshTokenRepositoryCustom.
+ * ----------------------------------------------------------------------------
+ */
+public interface RefreshTokenRepository
+        extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
+
+    /**
+     * @param tokenHash SHA-256 hex of the token
+     * @return the stored token (used or not), if it exists
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Removes every refresh token of a login session (logout / replay).
+     */
+    void deleteBySessionId(String sessionId);
+
+    /**
+     * @return every stored refresh token of a user, over all their sessions
+     */
+    List<RefreshToken> findByUserId(String userId);
+
+    /**
+     * Removes every refresh token of a user (password reset).
+     */
+    void deleteByUserId(String userId);
+}
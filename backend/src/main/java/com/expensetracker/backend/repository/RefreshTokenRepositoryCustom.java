@@ -0,0 +1,22 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Instant;
+
+import com.expensetracker.backend.model.RefreshToken;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Uses a refresh token, at most once, in ONE conditional update:
+     *
+     *      findAndModify { tokenHash, usedAt: null, expiresAt: { $gt: now } }
+     *                    { $set: { usedAt: now } }
+     *
+     * Of two concurrent calls with the same token only one gets it back.
+     *
+     * @param tokenHash SHA-256 hex of the token
+     * @param now       current time
+     * @return the token, or null if it is unknown, expired or already used
+     */
+    RefreshToken consume(String tokenHash, Instant now);
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.expensetracker.backend.model.RefreshToken;
+
+public class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public RefreshToken consume(String tokenHash, Instant now) {
+
+        // Still unused and not expired (the TTL monitor may lag behind)
+        Query query = new Query(Criteria.where("tokenHash").is(tokenHash)
+                .and("usedAt").is(null)
+                .and("expiresAt").gt(now));
+
+        return mongoTemplate.findAndModify(query, new Update().set("usedAt", now),
+                FindAndModifyOptions.options().returnNew(true), RefreshToken.class);
+    }
+}
@@ -0,0 +1,31 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.expensetracker.backend.model.RevokedSession;
+
+/**
+ * ----------------------------------------------------------------------------
+ * RevokedSessionRepository
+ * ----------------------------------------------------------------------------
+ * Database access for the "revoked_sessions" collection (see RevokedSession).
+ *
+ *      findByRevokedAtAfter(since) → { "revokedAt": { $gt: since } }
+ *      existsById(sessionId)       → { "_id": sessionId }
+ *
+ * RevocationService reloads the sessions revoked within one access token
+ * lifetime at every refresh; the refresh endpoint checks single sessions
+ * by id (entries live as long as a refresh token).
+ * ----------------------------------------------------------------------------
+ */
+public interface RevokedSessionRepository extends MongoRepository<RevokedSession, String> {
+
+    /**
+     * @param since oldest revocation time of interest
+     * @return every session revoked after it
+     */
+    List<RevokedSession> findByRevokedAtAfter(Instant since);
+}
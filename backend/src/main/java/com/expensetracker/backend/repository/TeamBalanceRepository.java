@@ -0,0 +1,22 @@
+package com.expensetracker.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.expensetracker.backend.model.TeamBalance;
+
+/**
+ * ----------------------------------------------------------------------------
+ * TeamBalanceRepository
+ * ----------------------------------------------------------------------------
+ * Database access for the "team_ledgers" collection (one ledger per team).
+ *
+ * The standard MongoRepository methods are used to read a ledger
+ * (findById(teamId)) and to store a freshly rebuilt one.
+ *
+ * Incremental updates live in TeamBalanceRepositoryCustom, because Spring
+ * Data cannot derive an atomic $inc update from a method name.
+ * ----------------------------------------------------------------------------
+ */
+public interface TeamBalanceRepository
+        extends MongoRepository<TeamBalance, String>, TeamBalanceRepositoryCustom {
+}
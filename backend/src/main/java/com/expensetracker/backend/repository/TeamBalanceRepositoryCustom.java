@@ -0,0 +1,72 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+import com.expensetracker.backend.model.TeamBalance;
+
+/**
+ * ----------------------------------------------------------------------------
+ * TeamBalanceRepositoryCustom
+ * ----------------------------------------------------------------------------
+ * Hand-written queries for the "team_ledgers" collection.
+ *
+ * Spring Data picks up the implementation (TeamBalanceRepositoryImpl)
+ * automatically and merges it into TeamBalanceRepository.
+ *
+ * Ledgers stored before the rebuild state existed have no epoch / building
+ * fields; they count as epoch 0, not building.
+ * ----------------------------------------------------------------------------
+ */
+public interface TeamBalanceRepositoryCustom {
+
+    /**
+     * Atomically adds the given amounts to a team's ledger in ONE update:
+     *
+     *      query  { _id: teamId, epoch, building: { $ne: true } }
+     *      update { $inc: { "balances.<userId>": <delta>, ... } }
+     *
+     * Only applies if no rebuild started since the caller read the epoch
+     * (see TeamBalanceService.begin). The ledger is NOT created when
+     * missing; callers rebuild it instead so it never starts from a partial
+     * history.
+     *
+     * @param teamId the team (and ledger) id
+     * @param epoch  the ledger epoch read before the change was saved
+     * @param deltas userId → minor units to add (negative to subtract)
+     * @return true if the ledger was updated
+     */
+    boolean applyDeltas(String teamId, long epoch, Map<String, Long> deltas);
+
+    /**
+     * Tells a running rebuild that an expense changed under it:
+     *
+     *      query  { _id: teamId, building: true }
+     *      update { $set: { dirty: true } }
+     *
+     * @return true if a rebuild was running (it will start over)
+     */
+    boolean markDirty(String teamId);
+
+    /**
+     * Starts a rebuild: one findAndModify with upsert
+     *
+     *      update { $inc: { epoch: 1 }, $set: { building: true, dirty: false, buildStartedAt } }
+     *
+     * The stored balances stay untouched until finishBuild.
+     *
+     * @return the ledger after the update (its epoch identifies this rebuild)
+     */
+    TeamBalance startBuild(String teamId, Instant now);
+
+    /**
+     * Stores the result of a rebuild, unless it is no longer valid:
+     *
+     *      query  { _id: teamId, epoch, dirty: { $ne: true } }
+     *      update { $set: { balances, building: false } }
+     *
+     * @return false if an expense changed meanwhile (dirty) or another
+     *         rebuild started since (epoch moved on)
+     */
+    boolean finishBuild(String teamId, long epoch, Map<String, Long> balances);
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.backend.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.expensetracker.backend.model.TeamBalance;
+
+/**
+ * Implementation of TeamBalanceRepositoryCustom using MongoTemplate.
+ */
+public class TeamBalanceRepositoryImpl implements TeamBalanceRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean applyDeltas(String teamId, long epoch, Map<String, Long> deltas) {
+
+        // Build one $inc per user so the whole change is a single atomic write
+        Update update = new Update();
+        deltas.forEach((userId, delta) -> update.inc("balances." + userId, delta));
+
+        Query query = new Query(Criteria.where("teamId").is(teamId)
+                .and("building").ne(true)
+                .andOperator(epochIs(epoch)));
+
+        return mongoTemplate.updateFirst(query, update, TeamBalance.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean markDirty(String teamId) {
+        Query query = new Query(Criteria.where("teamId").is(teamId).and("building").is(true));
+        return mongoTemplate.updateFirst(query, new Update().set("dirty", true), TeamBalance.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public TeamBalance startBuild(String teamId, Instant now) {
+        Query query = new Query(Criteria.where("teamId").is(teamId));
+
+        Update update = new Update()
+                .inc("epoch", 1)
+                .set("building", true)
+                .set("dirty", false)
+                .set("buildStartedAt", now);
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), TeamBalance.class);
+    }
+
+    @Override
+    public boolean finishBuild(String teamId, long epoch, Map<String, Long> balances) {
+        Query query = new Query(Criteria.where("teamId").is(teamId)
+                .and("epoch").is(epoch)
+                .and("dirty").ne(true));
+
+        Update update = new Update()
+                .set("balances", balances)
+                .set("building", false);
+
+        return mongoTemplate.updateFirst(query, update, TeamBalance.class).getMatchedCount() > 0;
+    }
+
+    // Ledgers stored before epochs existed have no field → epoch 0
+    private static Criteria epochIs(long epoch) {
+        return epoch == 0
+                ? new Criteria().orOperator(Criteria.where("epoch").is(0L), Criteria.where("epoch").exists(false))
+                : Criteria.where("epoch").is(epoch);
+    }
+}
@@ -2,7 +2,10 @@ package com.expensetracker.backend.repository;
 
 import com.expensetracker.backend.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,6 +37,9 @@ import java.util.Optional;
  * This is used during login, registration checks, password reset, etc.
  *
  * Returning Optional<User> makes it safer and avoids null pointer issues.
+ *
+ * findContactsByIdIn() loads MANY users in one query but only their
+ * id, email, name and avatar version (no password hash, image or team list).
  * ----------------------------------------------------------------------------
  */
 public interface UserRepository extends MongoRepository<User, String> {
@@ -46,4 +52,21 @@ public interface UserRepository extends MongoRepository<User, String> {
      * @return Optional<User> containing the user if found
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Batched lookup of users by id, loading only the fields needed to
+     * display them (id, email, first/last name, avatar version).
+     *
+     * Query sent to MongoDB:
+     *      find({ _id: { $in: ids } },
+     *           { email: 1, firstName: 1, lastName: 1, profileImageVersion: 1 })
+     *
+     * The returned User objects are partial — password, profileImage and
+     * teamIds are null/empty, so they must never be saved back.
+     *
+     * @param ids the user ids to resolve
+     * @return the users that exist (missing ids are skipped)
+     */
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'email': 1, 'firstName': 1, 'lastName': 1, 'profileImageVersion': 1 }")
+    List<User> findContactsByIdIn(Collection<String> ids);
 }
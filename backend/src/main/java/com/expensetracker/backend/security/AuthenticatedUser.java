@@ -0,0 +1,30 @@
+package com.expensetracker.backend.security;
+
+import java.util.Set;
+
+/**
+ * ----------------------------------------------------------------------------
+ * AuthenticatedUser
+ * ----------------------------------------------------------------------------
+ * Who is calling, as stated by the verified JWT (see JwtAuthenticationFilter).
+ * Controllers receive it with @AuthenticationPrincipal instead of trusting
+ * a userId / email sent by the client, and without loading the user.
+ *
+ *  - userId  : claim "uid"
+ *  - email   : subject
+ *  - teamIds : claim "teams", the user's teams when the token was issued
+ *
+ * teamIds is a snapshot: a team joined after login is missing from it
+ * until the next login, so it is only used as a fast path for membership
+ * checks (see TeamAccessService), never as the final answer.
+ * ----------------------------------------------------------------------------
+ */
+public record AuthenticatedUser(String userId, String email, Set<String> teamIds) {
+
+    /**
+     * @return true if this user is the given user
+     */
+    public boolean is(String otherUserId) {
+        return userId.equals(otherUserId);
+    }
+}
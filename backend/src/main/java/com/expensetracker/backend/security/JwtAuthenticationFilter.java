@@ -0,0 +1,107 @@
+package com.expensetracker.backend.security;
+
+import com.expensetracker.backend.service.JwtService;
+import com.expensetracker.backend.service.RevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ----------------------------------------------------------------------------
+ * JwtAuthenticationFilter
+ * ----------------------------------------------------------------------------
+ * Reads "Authorization: Bearer <token>" on every request, verifies the token
+ * (JwtService.verify: signature + expiry, cached per token) and stores the
+ * caller as an AuthenticatedUser in the security context.
+ *
+ * Everything the controllers need (user id, email, team ids) is inside the
+ * token's claims, so authenticating a request costs no database lookup.
+ *
+ *  - no header            → request continues anonymously
+ *  - invalid / expired    → request continues anonymously; protected
+ *    token (or one issued   endpoints then answer 401 (SecurityConfig), so
+ *    before "sid" existed)  the frontend refreshes the token or logs out
+ *  - revoked session      → same as invalid (RevocationService: in-memory
+ *    (logout, replay)       Bloom filter + set, no database lookup)
+ *
+ * Created by SecurityConfig (not a @Component, so Spring Boot does not also
+ * register it as a plain servlet filter).
+ * ----------------------------------------------------------------------------
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+    private final RevocationService revocationService;
+
+    public JwtAuthenticationFilter(JwtService jwtService, RevocationService revocationService) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith(BEARER)) {
+            AuthenticatedUser user = authenticate(header.substring(BEARER.length()).trim());
+
+            if (user != null) {
+                // No credentials kept, no authorities: access rules are per team / user
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(user, null, List.of());
+
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * @return the caller, or null if the token is not valid
+     */
+    private AuthenticatedUser authenticate(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+        String email = claims.getSubject();
+        String sessionId = claims.get(JwtService.SESSION_CLAIM, String.class);
+        if (userId == null || email == null || sessionId == null) return null;
+
+        // Logged out / replayed session: its tokens stay signed but are refused
+        if (revocationService.isRevoked(sessionId)) return null;
+
+        return new AuthenticatedUser(userId, email, teamIds(claims.get(JwtService.TEAMS_CLAIM)));
+    }
+
+    private static Set<String> teamIds(Object claim) {
+        if (!(claim instanceof Collection<?> ids)) return Set.of();
+        return ids.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+    }
+}
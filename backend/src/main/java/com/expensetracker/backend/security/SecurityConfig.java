@@ -1,16 +1,26 @@
 package com.expensetracker.backend.security;
 
 import java.util.List;
+
+import com.expensetracker.backend.service.JwtService;
+import com.expensetracker.backend.service.RevocationService;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -30,7 +40,14 @@ public class SecurityConfig {
     //      - login handlers
     // ------------------------------------------------------------------------------
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtService jwtService,
+                                                   RevocationService revocationService,
+                                                   @Value("${server.port:8080}") int serverPort,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
+
+        // Actuator on its own (loopback-only) port → that port is open as a whole
+        boolean separateManagementPort = managementPort > 0 && managementPort != serverPort;
 
         http
             // ---------------------------------------------------------------
@@ -44,6 +61,18 @@ public class SecurityConfig {
             // ---------------------------------------------------------------
             .cors(Customizer.withDefaults())
 
+            // ---------------------------------------------------------------
+            // No HTTP session: every request carries its JWT
+            // ---------------------------------------------------------------
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+
+            // ---------------------------------------------------------------
+            // Bearer token → AuthenticatedUser in the security context
+            // (no database lookup, see JwtAuthenticationFilter)
+            // ---------------------------------------------------------------
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService, revocationService),
+                    UsernamePasswordAuthenticationFilter.class)
+
             // ---------------------------------------------------------------
             // Define which endpoints require authentication
             // ---------------------------------------------------------------
@@ -51,23 +80,45 @@ public class SecurityConfig {
 
                 // Open endpoints — NO TOKEN REQUIRED
                 .requestMatchers(
-                        "/api/auth/**",        // login, register, reset password
-                        "/api/team/create",     // anyone can create team
-                        "/api/team/join",       // anyone can join using join code
-                        "/api/expenses/**",     // all expense endpoints open
+                        "/api/auth/register",
+                        "/api/auth/login",
+                        "/api/auth/refresh",    // access token may be expired
+                        "/api/auth/logout",     // identified by the refresh token
+                        "/api/auth/forgot-password",
+                        "/api/auth/reset-password",
                         "/h2-console/**",       // H2 debug console
                         "/v3/api-docs/**",      // Swagger docs
-                        "/swagger-ui/**",       // Swagger UI
-                        "/api/auth/user/**"     // get user details
+                        "/swagger-ui/**"        // Swagger UI
+                ).permitAll()
+
+                // Images loaded by <img src> (cannot send a header); their
+                // URLs are unguessable ids / content hashes
+                .requestMatchers(HttpMethod.GET,
+                        "/api/auth/user/*/avatar",
+                        "/api/expenses/proof/*"
                 ).permitAll()
 
-                // Protected endpoint (requires JWT token)
-                .requestMatchers("/api/team/expenses/me").authenticated()
+                // Every other API call needs a valid token; per-team / per-user
+                // access is checked by the controllers
+                .requestMatchers("/api/**").authenticated()
+
+                // Actuator: open on the management port (management.server.port,
+                // bound to 127.0.0.1); if it shares the public port instead,
+                // only health stays open there
+                .requestMatchers(request -> separateManagementPort && request.getLocalPort() == managementPort)
+                        .permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").denyAll()
 
-                // Everything else is permitted
+                // Everything else (health probes /livez /readyz, ...) is permitted
                 .anyRequest().permitAll()
             )
 
+            // ---------------------------------------------------------------
+            // Missing / invalid token on a protected endpoint → plain 401
+            // ---------------------------------------------------------------
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+
             // ---------------------------------------------------------------
             // Disable default login page + disable basic authentication
             // because we use JWT + our own login API
@@ -87,11 +138,18 @@ public class SecurityConfig {
     // ------------------------------------------------------------------------------
     //  PASSWORD ENCODER
     //  BCryptPasswordEncoder is the safest hashing algorithm for passwords.
-    //  Used in registerUser(), resetPassword(), login checks, etc.
+    //  Used (through PasswordHashingService) in registerUser(), resetPassword(),
+    //  login checks, etc.
+    //
+    //  Cost (log2 rounds): app.security.bcrypt.cost, pinned in configuration so
+    //  every instance hashes alike and startup measures nothing. Pick it
+    //  offline on the production hardware (AuthBenchmark, bcryptMatches with
+    //  -p bcryptCost=10,11,12: about 100 ms per hash). Raising it makes every
+    //  login upgrade its hash (PasswordHashingService.needsRehash).
     // ------------------------------------------------------------------------------
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 
 
@@ -0,0 +1,138 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ---------------------------------------------------------------------------
+ * BalanceKernel
+ * ---------------------------------------------------------------------------
+ * Adds up the outstanding debts of many expenses of ONE team.
+ *
+ * Every user id is interned once to a dense int index (0, 1, 2, ...), and
+ * the balances live in a plain long[] (minor units, see Money). Adding a
+ * share is then an array update — no boxed Long per share and no
+ * Map.merge per share. Only the final result is turned back into a Map.
+ *
+ * Same rules as the ledger (TeamBalanceService):
+ *   - every share that is NOT approved and does NOT belong to the payer
+ *     means: share owner owes the amount → payer should get the amount
+ *   - positive balance = should get, negative = needs to pay
+ *
+ * Not thread-safe: create one per computation (it is cheap).
+ *
+ *      BalanceKernel kernel = new BalanceKernel(team.getMemberIds());
+ *      expenses.forEach(e -> kernel.addOutstanding(e, 1));
+ *      Map<String, Long> balances = kernel.toMap();
+ * ---------------------------------------------------------------------------
+ */
+public final class BalanceKernel {
+
+    // userId → dense index into ids / balances
+    private final Map<String, Integer> indexOf;
+    private String[] ids;
+    private long[] balances;
+    private int size;
+
+    /**
+     * Empty kernel; ids are interned as they show up.
+     */
+    public BalanceKernel() {
+        this(16);
+    }
+
+    /**
+     * @param expectedUsers how many distinct users to size the arrays for
+     */
+    public BalanceKernel(int expectedUsers) {
+        int capacity = Math.max(expectedUsers, 4);
+        this.indexOf = new HashMap<>(capacity * 4 / 3 + 1);
+        this.ids = new String[capacity];
+        this.balances = new long[capacity];
+    }
+
+    /**
+     * Kernel with the team's members interned up front (in member order).
+     */
+    public BalanceKernel(List<String> memberIds) {
+        this(memberIds.size());
+        for (String id : memberIds) intern(id);
+    }
+
+    /**
+     * Returns the dense index of a user id, adding it if it is new.
+     */
+    public int intern(String userId) {
+        Integer index = indexOf.get(userId);
+        if (index != null) return index;
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            balances = Arrays.copyOf(balances, size * 2);
+        }
+
+        ids[size] = userId;
+        indexOf.put(userId, size);
+        return size++;
+    }
+
+    /**
+     * Adds (sign = 1) or removes (sign = -1) the outstanding debts of one
+     * expense.
+     */
+    public void addOutstanding(Expense expense, int sign) {
+        String payerId = expense.getPaidByUserId();
+        int payer = -1;   // interned lazily: expenses without debts add nothing
+
+        for (ExpenseShare share : expense.getShares()) {
+
+            // Payer's own share and approved payments are not debts
+            if (share.getUserId().equals(payerId)) continue;
+            if ("APPROVED".equals(share.getStatus())) continue;
+
+            if (payer < 0) payer = intern(payerId);
+
+            long amount = sign * share.getAmountMinor();
+            balances[intern(share.getUserId())] -= amount;
+            balances[payer] += amount;
+        }
+    }
+
+    /**
+     * Adds a raw amount (minor units) to one interned user.
+     */
+    public void add(int index, long amount) {
+        balances[index] += amount;
+    }
+
+    /**
+     * @return the balance of a user in minor units (0 if never seen)
+     */
+    public long balanceOf(String userId) {
+        Integer index = indexOf.get(userId);
+        return index != null ? balances[index] : 0;
+    }
+
+    /**
+     * @return number of interned users
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return userId → balance in minor units, for every interned user
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> result = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            result.put(ids[i], balances[i]);
+        }
+        return result;
+    }
+}
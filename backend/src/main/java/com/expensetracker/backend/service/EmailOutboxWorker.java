@@ -0,0 +1,243 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.OutboxEmail;
+import com.expensetracker.backend.repository.OutboxEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ----------------------------------------------------------------------------
+ * EmailOutboxWorker
+ * ----------------------------------------------------------------------------
+ * Sends the emails queued in the "email_outbox" collection (see EmailService
+ * and OutboxEmail) on one background thread, so no request ever waits for
+ * the SMTP server.
+ *
+ * Loop:
+ *   1. Claim up to app.mail.outbox.batch-size due emails (atomic, see
+ *      OutboxEmailRepositoryCustom.claimDue).
+ *   2. Send them ALL over ONE SMTP connection: JavaMailSender.send(messages...)
+ *      connects / authenticates / STARTTLS once per batch instead of once
+ *      per email.
+ *   3. Record the outcome of each email:
+ *        - accepted                    → SENT
+ *        - failed, attempts left       → PENDING again, after an exponential
+ *                                        backoff with jitter
+ *                                        (initial-backoff × 2^(attempts-1),
+ *                                        capped at max-backoff)
+ *        - failed, max-attempts reached → DEAD (dead letter, lastError kept)
+ *   4. A full batch → go on at once; otherwise sleep until the next poll
+ *      (app.mail.outbox.poll-interval) or until EmailService wakes it up
+ *      because a new email was queued.
+ *
+ * A connection / authentication failure fails the whole batch; a rejected
+ * recipient only fails its own email.
+ *
+ * Metrics:
+ *   - email.outbox.sent / .retried / .dead → outcome counters
+ *   - email.outbox.batch                   → time to send one batch
+ * ----------------------------------------------------------------------------
+ */
+@Component
+public class EmailOutboxWorker {
+
+    // Same sender for every system email
+    private static final String FROM = "no-reply@expensetracker.com";
+
+    // Stored error messages are capped (some SMTP errors are huge)
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    // Released by EmailService when a new email is queued
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchTimer;
+
+    public EmailOutboxWorker(OutboxEmailRepository outboxRepository,
+                             JavaMailSender mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${app.mail.outbox.poll-interval:5s}") Duration pollInterval,
+                             @Value("${app.mail.outbox.lease:2m}") Duration lease,
+                             @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${app.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                             @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff) {
+
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        this.sent = meterRegistry.counter("email.outbox.sent");
+        this.retried = meterRegistry.counter("email.outbox.retried");
+        this.dead = meterRegistry.counter("email.outbox.dead");
+        this.batchTimer = Timer.builder("email.outbox.batch")
+                .description("Time to send one batch of outbox emails over one SMTP connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the worker thread once the app is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread worker = new Thread(this::run, "email-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Asks the worker to look for due emails now instead of at the next poll.
+     */
+    public void wakeUp() {
+        wakeUp.release();
+    }
+
+    private void run() {
+        while (true) {
+            int claimed = 0;
+            try {
+                claimed = drain();
+            } catch (Exception e) {
+                // Database unreachable, ... → try again at the next poll
+                System.err.println("❌ Email outbox: " + e.getMessage());
+            }
+
+            // A full batch probably means more is due → no sleep
+            if (claimed >= batchSize) continue;
+
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();   // one pass serves every email queued meanwhile
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims and sends one batch.
+     *
+     * @return number of emails claimed
+     */
+    int drain() {
+        List<OutboxEmail> batch = outboxRepository.claimDue(batchSize, Instant.now(), lease);
+        if (batch.isEmpty()) return 0;
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = toMessage(batch.get(i));
+        }
+
+        // Which messages failed and why (keyed by the message object itself)
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Per-message failures; a failed connection lists every message
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                for (SimpleMailMessage message : messages) failures.put(message, e);
+            }
+        } catch (Exception e) {
+            // Authentication, bad configuration, ... → the whole batch failed
+            for (SimpleMailMessage message : messages) failures.put(message, e);
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        Instant now = Instant.now();
+        for (int i = 0; i < messages.length; i++) {
+            OutboxEmail email = batch.get(i);
+            Exception failure = failures.get(messages[i]);
+
+            if (failure == null) {
+                outboxRepository.markSent(email.getId(), now);
+                sent.increment();
+            } else if (email.getAttempts() >= maxAttempts) {
+                outboxRepository.markDead(email.getId(), describe(failure));
+                dead.increment();
+                System.err.println("❌ Email to " + email.getTo() + " given up after "
+                        + email.getAttempts() + " attempts: " + failure.getMessage());
+            } else {
+                outboxRepository.reschedule(email.getId(), now.plus(backoff(email.getAttempts())), describe(failure));
+                retried.increment();
+            }
+        }
+
+        int delivered = messages.length - failures.size();
+        if (delivered > 0) System.out.println("✅ Email outbox: sent " + delivered + "/" + messages.length);
+        if (!failures.isEmpty()) System.err.println("❌ Email outbox: " + failures.size() + "/"
+                + messages.length + " failed: " + failures.values().iterator().next().getMessage());
+
+        return batch.size();
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private static SimpleMailMessage toMessage(OutboxEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email.getTo());
+        message.setSubject(email.getSubject());
+        message.setText(email.getText());
+        message.setFrom(FROM);
+        return message;
+    }
+
+    /**
+     * Delay before the next attempt: initial × 2^(attempts-1), capped, with
+     * jitter so emails that failed together do not retry together.
+     */
+    private Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        millis = Math.min(millis, maxBackoff.toMillis());
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(millis / 2, millis + 1)); // jitter
+    }
+
+    private static String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+
+        // The SMTP reply ("451 4.3.0 ...") sits on the innermost exception
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        if (root != e && root.getMessage() != null) message += " (" + root.getMessage().trim() + ")";
+
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -1,8 +1,8 @@
 package com.expensetracker.backend.service;
 
+import com.expensetracker.backend.model.OutboxEmail;
+import com.expensetracker.backend.repository.OutboxEmailRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 /**
@@ -11,8 +11,13 @@ import org.springframework.stereotype.Service;
  * ----------------------------------------------------------------------------
  * This service is responsible for sending emails from your application.
  *
- * Spring Boot uses JavaMailSender, which is automatically configured using
- * values from application.properties (SMTP server, username, password, etc.)
+ * Emails are NOT sent inside the request: sendEmail() stores them in the
+ * "email_outbox" collection and returns at once. EmailOutboxWorker then
+ * delivers them in the background, in batches over one SMTP connection,
+ * retrying failures with backoff (see EmailOutboxWorker).
+ *
+ * The SMTP server itself (JavaMailSender) is configured from
+ * application.properties (host, username, password, etc.)
  *
  * Wherever you need to send an email (password reset, notifications, etc.),
  * you inject this service and call sendEmail().
@@ -21,49 +26,30 @@ import org.springframework.stereotype.Service;
 @Service
 public class EmailService {
 
-    /** 
-     * JavaMailSender is Spring’s built-in tool that knows how to connect to an
-     * SMTP server and send emails.
-     *
-     * Spring automatically injects (autowires) the configured mail sender.
-     */
     @Autowired
-    private JavaMailSender mailSender;
+    private OutboxEmailRepository outboxRepository;
+
+    @Autowired
+    private EmailOutboxWorker outboxWorker;
 
     /**
-     * Sends a simple plain-text email.
+     * Queues a simple plain-text email for delivery.
      *
      * @param to       Recipient email address
      * @param subject  Email subject line
      * @param text     Body content of the email
      *
      * Steps:
-     * 1. Create a SimpleMailMessage object.
-     * 2. Add recipient, subject, body.
-     * 3. Set a "no-reply" sender address.
-     * 4. Send the email using mailSender.
-     * 5. Log the result (success or failure).
+     * 1. Store the email in the outbox (so it survives SMTP outages / restarts).
+     * 2. Wake up the worker, which sends it within moments.
+     *
+     * @throws org.springframework.dao.DataAccessException if the email could
+     *         not be stored (the caller should report a failure)
      */
     public void sendEmail(String to, String subject, String text) {
-        try {
-            // Build the email structure.
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-
-            // Setting a static 'no-reply' email — common practice for system messages.
-            message.setFrom("no-reply@expensetracker.com");
-
-            // Actually send the email.
-            mailSender.send(message);
-
-            System.out.println("✅ Email sent successfully to: " + to);
+        outboxRepository.save(new OutboxEmail(to, subject, text));
+        outboxWorker.wakeUp();
 
-        } catch (Exception e) {
-            // If something goes wrong (SMTP failure, invalid address, etc.)
-            System.err.println("❌ Failed to send email: " + e.getMessage());
-            e.printStackTrace();
-        }
+        System.out.println("✅ Email queued for: " + to);
     }
 }
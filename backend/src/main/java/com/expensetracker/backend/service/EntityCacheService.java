@@ -0,0 +1,218 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.TeamRepository;
+import com.expensetracker.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ---------------------------------------------------------------------------
+ * EntityCacheService
+ * ---------------------------------------------------------------------------
+ * In-process cache (Caffeine) for the lookups almost every request makes:
+ *
+ *   findUser(id)                 ← userRepo.findById
+ *   findUserByEmail(email)       ← userRepo.findByEmail
+ *   findTeam(id)                 ← teamRepo.findById
+ *   findTeamByJoinCode(code)     ← teamRepo.findByJoinCode
+ *
+ * Layout:
+ *   - users, teams     : id → entity, bounded by an estimated size in bytes
+ *                        (a user with an inline profile picture weighs far
+ *                        more than one without)
+ *   - emails, joinCodes: key → id, bounded by entry count; the entity found
+ *                        through them is checked against the key, so a
+ *                        changed email never returns the wrong user
+ *
+ * An entity only ever enters users / teams through that cache's own
+ * loader (users.get(id, loader)). Caffeine makes an invalidate of the same
+ * id wait for a running load and then drops its result, so a copy read
+ * before a save can never be cached after the save's invalidation. (A key
+ * lookup therefore costs two queries on a cold miss: key → id, id → entity.)
+ *
+ * Consistency:
+ *   - Every code path that saves a user / team calls userChanged /
+ *     teamChanged afterwards, which drops the cached copy (write-through
+ *     invalidation); the next read loads the new version.
+ *   - Entries also expire after app.cache.expire-after-write, which bounds
+ *     staleness from writes this instance does not see (other instances,
+ *     data migrations).
+ *   - Misses are not cached, so a user who just registered is found at once.
+ *
+ * Cached entities are SHARED between requests: treat them as read-only.
+ * To modify a user or team, load it from the repository, save it, then
+ * call userChanged / teamChanged.
+ *
+ * Hit / miss / eviction counters: /actuator/metrics/cache.gets?tag=cache:users
+ * (also cache.evictions, cache.size, cache.eviction.weight).
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class EntityCacheService {
+
+    private final UserRepository userRepo;
+    private final TeamRepository teamRepo;
+
+    private final Cache<String, User> users;
+    private final Cache<String, Team> teams;
+    private final Cache<String, String> userIdsByEmail;
+    private final Cache<String, String> teamIdsByJoinCode;
+
+    public EntityCacheService(UserRepository userRepo,
+                              TeamRepository teamRepo,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.users.max-weight-mb:32}") long usersMaxWeightMb,
+                              @Value("${app.cache.teams.max-weight-mb:8}") long teamsMaxWeightMb,
+                              @Value("${app.cache.keys.max-entries:100000}") long keysMaxEntries,
+                              @Value("${app.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+
+        this.userRepo = userRepo;
+        this.teamRepo = teamRepo;
+
+        users = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(usersMaxWeightMb * 1024 * 1024)
+                .weigher((String id, User user) -> weigh(user))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .<String, User>build(), "users");
+
+        teams = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(teamsMaxWeightMb * 1024 * 1024)
+                .weigher((String id, Team team) -> weigh(team))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .<String, Team>build(), "teams");
+
+        userIdsByEmail = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(keysMaxEntries)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .<String, String>build(), "userEmails");
+
+        teamIdsByJoinCode = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(keysMaxEntries)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .<String, String>build(), "joinCodes");
+    }
+
+    // -----------------------------------------------------------------------
+    // Users
+    // -----------------------------------------------------------------------
+
+    /**
+     * Cached userRepo.findById (read-only result).
+     */
+    public Optional<User> findUser(String userId) {
+        if (userId == null) return Optional.empty();
+        return Optional.ofNullable(users.get(userId, id -> userRepo.findById(id).orElse(null)));
+    }
+
+    /**
+     * Cached userRepo.findByEmail (read-only result).
+     */
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null) return Optional.empty();
+
+        // Only the id: the user itself is loaded (and cached) by findUser
+        String userId = userIdsByEmail.get(email, e -> userRepo.findByEmail(e)
+                .map(User::getId)
+                .orElse(null));
+        if (userId == null) return Optional.empty();
+
+        Optional<User> user = findUser(userId);
+
+        // Email changed since the key was cached → forget it and look again
+        if (user.isEmpty() || !email.equals(user.get().getEmail())) {
+            userIdsByEmail.invalidate(email);
+            return userRepo.findByEmail(email);
+        }
+        return user;
+    }
+
+    /**
+     * Drops the cached copy of a user after it was saved.
+     */
+    public void userChanged(User user) {
+        if (user.getId() != null) users.invalidate(user.getId());
+        if (user.getEmail() != null) userIdsByEmail.invalidate(user.getEmail());
+    }
+
+    // -----------------------------------------------------------------------
+    // Teams
+    // -----------------------------------------------------------------------
+
+    /**
+     * Cached teamRepo.findById (read-only result).
+     */
+    public Optional<Team> findTeam(String teamId) {
+        if (teamId == null) return Optional.empty();
+        return Optional.ofNullable(teams.get(teamId, id -> teamRepo.findById(id).orElse(null)));
+    }
+
+    /**
+     * Cached teamRepo.findByJoinCode (read-only result).
+     */
+    public Optional<Team> findTeamByJoinCode(String joinCode) {
+        if (joinCode == null) return Optional.empty();
+
+        String teamId = teamIdsByJoinCode.get(joinCode, code -> teamRepo.findByJoinCode(code)
+                .map(Team::getId)
+                .orElse(null));
+        if (teamId == null) return Optional.empty();
+
+        Optional<Team> team = findTeam(teamId);
+
+        if (team.isEmpty() || !joinCode.equals(team.get().getJoinCode())) {
+            teamIdsByJoinCode.invalidate(joinCode);
+            return teamRepo.findByJoinCode(joinCode);
+        }
+        return team;
+    }
+
+    /**
+     * Drops the cached copy of a team after it was saved.
+     */
+    public void teamChanged(Team team) {
+        if (team.getId() != null) teams.invalidate(team.getId());
+        if (team.getJoinCode() != null) teamIdsByJoinCode.invalidate(team.getJoinCode());
+    }
+
+    // -----------------------------------------------------------------------
+    // Size estimates (bytes, roughly: 2 per char + object overhead)
+    // -----------------------------------------------------------------------
+
+    private static int weigh(User user) {
+        long bytes = 256
+                + chars(user.getFirstName()) + chars(user.getLastName())
+                + chars(user.getEmail()) + chars(user.getPassword()) + chars(user.getPhone())
+                + chars(user.getProfileImage())
+                + 64L * size(user.getTeamIds());
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int weigh(Team team) {
+        long bytes = 256
+                + chars(team.getTeamName()) + chars(team.getJoinCode())
+                + 64L * size(team.getMemberIds());
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long chars(String s) {
+        return s == null ? 0 : 2L * s.length();
+    }
+
+    private static int size(List<String> ids) {
+        return ids == null ? 0 : ids.size();
+    }
+}
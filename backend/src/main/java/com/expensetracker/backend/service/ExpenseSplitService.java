@@ -0,0 +1,221 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.util.Money;
+import com.expensetracker.backend.util.SplitEngine;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ---------------------------------------------------------------------------
+ * ExpenseSplitService
+ * ---------------------------------------------------------------------------
+ * Builds the shares of a new expense (no database access).
+ *
+ *   ✔ splitEvenly()       → POST /api/expenses/add
+ *   ✔ parseCustomSplit()  → POST /api/expenses/custom-add
+ *
+ * All amounts are minor units and go through SplitEngine, so the shares
+ * always add up to the expense total (except for the legacy "as entered"
+ * custom split, see parseCustomSplit).
+ *
+ * Neither checks team membership; callers pass the result through
+ * requireMembers() with the team's member list.
+ *
+ * Invalid input is reported as IllegalArgumentException with a message
+ * that can be shown to the user as-is.
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class ExpenseSplitService {
+
+    /**
+     * Splits an amount evenly between team members. The first
+     * (amount % members) members get one extra minor unit.
+     *
+     * @param memberIds   who shares the expense, in team order
+     * @param payerId     who paid (their share is APPROVED right away)
+     * @param amountMinor total in minor units
+     * @return one share per member
+     */
+    public List<ExpenseShare> splitEvenly(List<String> memberIds, String payerId, long amountMinor) {
+        if (amountMinor < 0) throw new IllegalArgumentException("Amount must not be negative");
+
+        long[] parts = new long[memberIds.size()];
+        SplitEngine.equal(amountMinor, parts);
+
+        // Payer is marked APPROVED, others UNPAID
+        List<ExpenseShare> shares = new ArrayList<>(parts.length);
+        for (int i = 0; i < parts.length; i++) {
+            String memberId = memberIds.get(i);
+            shares.add(new ExpenseShare(memberId, parts[i], memberId.equals(payerId)));
+        }
+
+        return shares;
+    }
+
+    /**
+     * Builds an (unsaved) expense from a custom-add request body:
+     *
+     *      { teamId, paidByUserId, amount, description, splitType?, shares: [...] }
+     *
+     * splitType decides how the shares are computed:
+     *   EQUAL    → shares: [{ userId }]          amount split evenly
+     *   WEIGHTED → shares: [{ userId, weight }]  amount split by weight
+     *   EXACT    → shares: [{ userId, amount }]  must add up to amount
+     *   (absent) → shares: [{ userId, amount }]  stored as entered
+     *              (older clients; they may knowingly submit a mismatch)
+     *
+     * @param body the JSON request body
+     * @return the expense with its shares and date set
+     * @throws IllegalArgumentException if the body is invalid
+     */
+    public Expense parseCustomSplit(Map<String, Object> body) {
+
+        String teamId = string(body, "teamId");
+        String paidByUserId = string(body, "paidByUserId");
+        String description = string(body, "description");
+        String splitType = string(body, "splitType");
+
+        if (teamId == null || paidByUserId == null) {
+            throw new IllegalArgumentException("TeamId and PaidByUserId are required");
+        }
+
+        List<Map<?, ?>> incomingShares = shares(body.get("shares"));
+        long[] parts = new long[incomingShares.size()];
+
+        long amount = minor(body.get("amount"), "amount");
+        if (amount < 0) throw new IllegalArgumentException("Amount must not be negative");
+
+        if ("EQUAL".equalsIgnoreCase(splitType)) {
+            SplitEngine.equal(amount, parts);
+        } else if ("WEIGHTED".equalsIgnoreCase(splitType)) {
+            long[] weights = new long[parts.length];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = weight(incomingShares.get(i).get("weight"));
+            }
+            try {
+                SplitEngine.weighted(amount, weights, parts);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid amount, share or weight");
+            }
+        } else if (splitType == null || "EXACT".equalsIgnoreCase(splitType)) {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = minor(incomingShares.get(i).get("amount"), "share amount");
+            }
+            if (splitType != null) SplitEngine.exact(amount, parts);
+        } else {
+            throw new IllegalArgumentException("Invalid split type");
+        }
+
+        List<ExpenseShare> shares = new ArrayList<>(parts.length);
+        for (int i = 0; i < parts.length; i++) {
+            String uid = string(incomingShares.get(i), "userId");
+            if (uid == null) throw new IllegalArgumentException("Every share needs a userId");
+
+            ExpenseShare share = new ExpenseShare(uid, parts[i], uid.equals(paidByUserId));
+            share.setPayeeId(paidByUserId);
+            shares.add(share);
+        }
+
+        Expense expense = new Expense();
+        expense.setTeamId(teamId);
+        expense.setPaidByUserId(paidByUserId);
+        expense.setDescription(description);
+        expense.setAmountMinor(amount);
+        expense.setDate(Instant.now());
+        expense.setShares(shares);
+        return expense;
+    }
+
+    /**
+     * Checks that the payer and everyone holding a share belong to the team,
+     * so nobody outside it can be billed or credited.
+     *
+     * @param expense   the expense to check (payer and shares set)
+     * @param memberIds the team's member ids
+     * @throws IllegalArgumentException naming the first non-member
+     */
+    public void requireMembers(Expense expense, Collection<String> memberIds) {
+        if (memberIds == null || !memberIds.contains(expense.getPaidByUserId())) {
+            throw new IllegalArgumentException("Payer is not a member of this team");
+        }
+        for (ExpenseShare share : expense.getShares()) {
+            if (!memberIds.contains(share.getUserId())) {
+                throw new IllegalArgumentException("User " + share.getUserId() + " is not a member of this team");
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Request body parsing (JSON values arrive as String / Number / Map / List)
+    // -----------------------------------------------------------------------
+
+    /**
+     * @return the text field, or null if absent
+     * @throws IllegalArgumentException if it is present but not text
+     */
+    private static String string(Map<?, ?> json, String field) {
+        Object value = json.get(field);
+        if (value == null || value instanceof String) return (String) value;
+        throw new IllegalArgumentException(field + " must be a string");
+    }
+
+    /**
+     * @return the "shares" array, every element an object
+     * @throws IllegalArgumentException if it is missing, empty or malformed
+     */
+    private static List<Map<?, ?>> shares(Object value) {
+        if (value != null && !(value instanceof List<?>)) {
+            throw new IllegalArgumentException("shares must be a list");
+        }
+        List<?> list = (List<?>) value;
+        if (list == null || list.isEmpty()) {
+            throw new IllegalArgumentException("At least one share is required");
+        }
+
+        List<Map<?, ?>> shares = new ArrayList<>(list.size());
+        for (Object share : list) {
+            if (!(share instanceof Map<?, ?> map)) throw new IllegalArgumentException("Every share must be an object");
+            shares.add(map);
+        }
+        return shares;
+    }
+
+    /**
+     * A money amount given as a JSON number or numeric string.
+     */
+    private static long minor(Object value, String what) {
+        if (value == null) throw new IllegalArgumentException("Missing " + what);
+        if (!(value instanceof Number || value instanceof String)) {
+            throw new IllegalArgumentException("Invalid " + what);
+        }
+        try {
+            return Money.parseMinor(value);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + what);
+        }
+    }
+
+    /**
+     * A split weight: a whole JSON number or numeric string.
+     */
+    private static long weight(Object value) {
+        if (value == null) throw new IllegalArgumentException("Every share needs a weight");
+        if (!(value instanceof Number || value instanceof String)) {
+            throw new IllegalArgumentException("Invalid weight");
+        }
+        try {
+            return new BigDecimal(value.toString().trim()).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid weight");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.expensetracker.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ---------------------------------------------------------------------------
+ * JoinAttemptLimiter
+ * ---------------------------------------------------------------------------
+ * Caps how many WRONG join codes one user may try, so codes cannot be
+ * guessed by brute force through POST /api/team/join.
+ *
+ *   - every invalid code counts as a failure for the caller
+ *   - after app.team.join.max-failures failures the caller is blocked
+ *     (429) until app.team.join.failure-window has passed since the first
+ *     failure of the window
+ *   - successful joins are never limited and do not reset the count
+ *
+ * Counts live in memory (Caffeine, fixed window per user), so with several
+ * instances the effective limit is max-failures per instance — still far
+ * below what guessing a random code (JoinCodes) would take.
+ *
+ * Metrics: team.join.blocked → attempts refused by the limit
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class JoinAttemptLimiter {
+
+    private final int maxFailures;
+    private final Duration window;
+
+    // userId → failures in the current window (entry expires with the window)
+    private final Cache<String, AtomicInteger> failures;
+
+    private final Counter blocked;
+
+    public JoinAttemptLimiter(MeterRegistry meterRegistry,
+                              @Value("${app.team.join.max-failures:10}") int maxFailures,
+                              @Value("${app.team.join.failure-window:15m}") Duration window) {
+
+        this.maxFailures = maxFailures;
+        this.window = window;
+        this.failures = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        this.blocked = Counter.builder("team.join.blocked")
+                .description("Join attempts refused because the caller tried too many wrong codes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the user may try a join code now
+     */
+    public boolean tryAcquire(String userId) {
+        AtomicInteger count = failures.getIfPresent(userId);
+        if (count == null || count.get() < maxFailures) return true;
+
+        blocked.increment();
+        return false;
+    }
+
+    /**
+     * Records a wrong join code for the user.
+     */
+    public void recordFailure(String userId) {
+        // The entry is written once per window, so it expires with the window
+        failures.get(userId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * @return how long a blocked caller should wait (Retry-After)
+     */
+    public Duration getWindow() {
+        return window;
+    }
+}
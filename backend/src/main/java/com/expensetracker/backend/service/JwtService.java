@@ -1,12 +1,25 @@
 package com.expensetracker.backend.service;
 
+import com.expensetracker.backend.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Serializer;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ----------------------------------------------------------------------------
@@ -22,7 +35,29 @@ import java.util.Date;
  *   ✔ Extracts user information (email) from an incoming token
  *   ✔ Validates signature using a secret key
  *
+ * Claims of a token:
+ *   - sub   → email
+ *   - uid   → user id
+ *   - teams → ids of the user's teams when the token was issued
+ *   - sid   → login session (RefreshTokenService); revoked sessions are
+ *             rejected by JwtAuthenticationFilter (RevocationService)
+ * so JwtAuthenticationFilter knows who is calling without loading the user.
+ *
+ * Tokens are short-lived access tokens (app.jwt.access-ttl, 15 minutes);
+ * the frontend renews them with a refresh token instead of logging in again.
+ *
  * JJWT (io.jsonwebtoken) handles the cryptography and token building.
+ *
+ * Performance (tokens are checked on every authenticated request):
+ *   - the signing key, the parser and the JSON serializer are set up ONCE;
+ *     all are thread-safe (JJWT otherwise looks up its JSON (de)serializer
+ *     through the class path for every token, which used to cost more than
+ *     the cryptography itself)
+ *   - verified claims are cached per token string (bounded, Caffeine) until
+ *     the token expires, so a token seen again skips the HMAC check and the
+ *     JSON parsing; invalid tokens are never cached
+ *
+ * Hit / miss counters: /actuator/metrics/cache.gets?tag=cache:jwtClaims
  * ----------------------------------------------------------------------------
  */
 @Service
@@ -39,36 +74,95 @@ public class JwtService {
     private static final String SECRET_KEY = "THIS_IS_A_VERY_SECRET_KEY_1234567890";
 
     /**
-     * Converts the string-based SECRET_KEY into an HMAC-SHA256 signing key
-     * that JJWT library can use.
-     *
-     * HMAC requires the key as bytes → we convert using UTF-8 encoding.
+     * Claim names (besides the standard subject = email).
+     */
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TEAMS_CLAIM = "teams";
+    public static final String SESSION_CLAIM = "sid";
+
+    /**
+     * SECRET_KEY as an HMAC-SHA256 signing key that JJWT can use
+     * (HMAC requires the key as bytes → UTF-8).
+     */
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Parser verifying tokens with the same key (reused for every token).
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+
+    /**
+     * JSON serializer of new tokens (jjwt-jackson, found once via ServiceLoader).
+     */
+    @SuppressWarnings("unchecked")
+    private final Serializer<Map<String, ?>> serializer = ServiceLoader.load(Serializer.class)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No JJWT JSON serializer on the class path"));
+
+    /**
+     * token → verified claims, each entry living until the token expires.
+     * Cached claims are shared: read them, never modify them.
+     */
+    private final Cache<String, Claims> verifiedClaims;
+
+    /**
+     * Lifetime of an access token.
+     */
+    private final Duration accessTtl;
+
+    public JwtService(MeterRegistry meterRegistry,
+                      @Value("${app.jwt.claims-cache.max-entries:10000}") long maxCachedTokens,
+                      @Value("${app.jwt.access-ttl:15m}") Duration accessTtl) {
+
+        this.accessTtl = accessTtl;
+
+        verifiedClaims = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .<String, Claims>build(), "jwtClaims");
     }
 
     /**
-     * Generates a new JWT token for a user.
+     * Generates a new JWT access token for a user.
      *
-     * @param email - the user's email address (saved as subject inside the token).
+     * @param user      - the user (email, id and team ids go into the token).
+     * @param sessionId - the login session the token belongs to.
      * @return the signed JWT in compact string form.
      *
      * Token details:
      * - subject → email (acts as user identity)
+     * - uid / teams → user id and team ids (saves a user lookup per request)
+     * - sid → login session (checked against revoked sessions)
      * - issuedAt → token creation time
-     * - expiration → 1 hour from now
+     * - expiration → app.jwt.access-ttl from now
      * - signWith → signs token with SECRET_KEY using HS256 algorithm
      */
-    public String generateToken(String email) {
+    public String generateToken(User user, String sessionId) {
+        List<String> teamIds = user.getTeamIds() != null ? user.getTeamIds() : List.of();
+        long now = System.currentTimeMillis();
+
         return Jwts.builder()
-                .setSubject(email) // who the token belongs to
-                .setIssuedAt(new Date()) // token creation time
-                .setExpiration(new Date(System.currentTimeMillis() + (1000 * 60 * 60))) // valid 1 hour
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // sign using SECRET_KEY
+                .setSubject(user.getEmail()) // who the token belongs to
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TEAMS_CLAIM, teamIds)
+                .claim(SESSION_CLAIM, sessionId)
+                .setIssuedAt(new Date(now)) // token creation time
+                .setExpiration(new Date(now + accessTtl.toMillis())) // short-lived
+                .signWith(signingKey, SignatureAlgorithm.HS256) // sign using SECRET_KEY
+                .serializeToJsonWith(serializer)
                 .compact(); // convert to final JWT string
     }
 
+    /**
+     * @return how long a new access token is valid
+     */
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
     /**
      * Extracts the email (subject) from a token.
      *
@@ -83,11 +177,57 @@ public class JwtService {
      * @return email stored inside the token
      */
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey()) // verify with same secret key
-                .build()
-                .parseClaimsJws(token) // parse and validate token
-                .getBody()
-                .getSubject(); // extract email (subject)
+        return verify(token).getSubject(); // extract email (subject)
+    }
+
+    /**
+     * Verifies a token (signature, format, expiration) and returns its claims.
+     *
+     * A token that was verified before is answered from the cache, after
+     * re-checking that it has not expired in the meantime.
+     *
+     * @param token the JWT sent from frontend
+     * @return the token's claims (shared, read-only)
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims verify(String token) {
+        Claims cached = verifiedClaims.getIfPresent(token);
+        if (cached != null && !isExpired(cached)) return cached;
+
+        // Full check: signature + JSON parsing + expiration (throws if invalid)
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verifiedClaims.put(token, claims);
+        return claims;
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    /**
+     * Caffeine expiry: a cached token disappears when the token itself expires
+     * (tokens without an expiration stay until evicted by size).
+     */
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) return Long.MAX_VALUE;
+
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,100 @@
+package com.expensetracker.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * ---------------------------------------------------------------------------
+ * OptimisticRetryService
+ * ---------------------------------------------------------------------------
+ * Runs a read-modify-save block and re-runs it when the save loses an
+ * optimistic-locking race (@Version on Expense / Team).
+ *
+ * How it is used:
+ *
+ *      optimisticRetry.run("team.join", () -> {
+ *          Team team = teamRepo.findById(id).orElseThrow();   // fresh read
+ *          team.getMemberIds().add(userId);                   // modify
+ *          return teamRepo.save(team);                        // version-checked write
+ *      });
+ *
+ * The block MUST re-read what it modifies, because every retry starts over
+ * from the current database state.
+ *
+ * Retries are bounded (app.retry.max-attempts) with exponential backoff +
+ * jitter, so hot documents do not turn into a retry storm.
+ *
+ * Metrics (Micrometer, tag "operation"):
+ *   - optimistic.conflicts  → a save lost a race
+ *   - optimistic.retries    → a block was run again
+ *   - optimistic.exhausted  → gave up after max attempts
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class OptimisticRetryService {
+
+    private final MeterRegistry meterRegistry;
+
+    // Total attempts per block (first try included)
+    @Value("${app.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    // Backoff before the first retry; doubled every retry up to the cap
+    @Value("${app.retry.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+
+    @Value("${app.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    public OptimisticRetryService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the block, retrying on optimistic-locking conflicts.
+     *
+     * @param operation name used as metric tag (e.g. "team.join")
+     * @param block     read-modify-save logic (re-reads on every attempt)
+     * @return whatever the block returns
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T run(String operation, Supplier<T> block) {
+        long backoff = initialBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return block.get();
+            } catch (OptimisticLockingFailureException e) {
+                counter("optimistic.conflicts", operation).increment();
+
+                if (attempt >= maxAttempts) {
+                    counter("optimistic.exhausted", operation).increment();
+                    throw e;
+                }
+
+                counter("optimistic.retries", operation).increment();
+                sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1)); // jitter
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.expensetracker.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ---------------------------------------------------------------------------
+ * PasswordHashingService
+ * ---------------------------------------------------------------------------
+ * Runs every BCrypt operation (hash a new password, check a login) on a
+ * small dedicated thread pool instead of the request threads.
+ *
+ * Why: one BCrypt check burns ~100 ms of CPU on purpose. A burst of logins
+ * on the request threads would pin every core and starve the cheap
+ * endpoints. Here at most app.security.hashing.threads hashes run at once;
+ * the rest of the CPU stays available for everything else.
+ *
+ * Backpressure:
+ *   - at most app.security.hashing.queue-capacity operations may wait
+ *   - when the queue is full, or an operation waited longer than
+ *     app.security.hashing.timeout-ms, BusyException is thrown right away
+ *     → the controller answers 503 + Retry-After instead of piling up
+ *
+ * Cost: the PasswordEncoder bean (SecurityConfig, app.security.bcrypt.cost,
+ * chosen offline with AuthBenchmark). needsRehash() tells whether a stored
+ * hash uses a lower cost than the current one, so logins upgrade it (see
+ * AuthController).
+ *
+ * Metrics:
+ *   - password.hashing{operation=encode|matches} → latency histogram
+ *     (hashing only), p50 / p95 / p99 at /actuator/metrics/password.hashing
+ *   - password.hashing.wait                      → time spent queued
+ *   - password.hashing.rejected                  → fast 503s
+ *   - executor.*{name=passwordHashing}           → pool / queue depth
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class PasswordHashingService {
+
+    /**
+     * Thrown when the hashing pool is saturated (queue full or wait too long).
+     */
+    public static class BusyException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public BusyException() {
+            super("Password hashing is saturated");
+        }
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.security.hashing.threads:0}") int threads,
+                                  @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.security.hashing.timeout-ms:5000}") long timeoutMillis) {
+
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+
+        // 0 → half of the cores (at least one), the other half serves requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());   // full queue → RejectedExecutionException
+
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "passwordHashing");
+
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time password hashing operations spent queued")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing operations refused because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a new password (register, reset).
+     *
+     * @throws BusyException if the hashing pool is saturated
+     */
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against its stored hash (login).
+     *
+     * @throws BusyException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String hash) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, hash));
+    }
+
+    /**
+     * @return true if the hash was made with a lower cost than the configured one
+     */
+    public boolean needsRehash(String hash) {
+        return hash != null && passwordEncoder.upgradeEncoding(hash);
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private <T> T run(Timer timer, Supplier<T> operation) {
+        long queuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(operation);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Still queued → drop it; already running → let it finish unseen
+            future.cancel(false);
+            rejected.increment();
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("password.hashing")
+                .description("BCrypt hashing time")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
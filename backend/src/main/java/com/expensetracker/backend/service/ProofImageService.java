@@ -0,0 +1,96 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.ProofImage;
+import com.expensetracker.backend.repository.ProofImageRepository;
+import com.expensetracker.backend.util.DataUrl;
+import com.expensetracker.backend.util.Hashes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * ---------------------------------------------------------------------------
+ * ProofImageService
+ * ---------------------------------------------------------------------------
+ * Stores payment proof screenshots in the "proof_images" blob collection
+ * and hands back a short reference for the ExpenseShare.
+ *
+ * The frontend uploads screenshots as data URLs
+ * ("data:image/png;base64,iVBOR..."); plain base64 is accepted too.
+ *
+ * Only PNG, JPEG, GIF and WebP are accepted, and the stored type is the
+ * one detected from the bytes (DataUrl), never the uploader's claim.
+ *
+ * Images are content-addressed: the reference is the SHA-256 of the bytes,
+ * so uploading the same screenshot twice stores it once. It is known
+ * before anything is written, which lets callers reference an image first
+ * and store it only once the reference stuck (prepare → update → save),
+ * so a refused update never leaves an unreferenced blob behind.
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class ProofImageService {
+
+    // Inject Proof Image Repository
+    @Autowired
+    private ProofImageRepository imageRepo;
+
+    /**
+     * Stores an uploaded screenshot (if not stored already).
+     *
+     * @param dataUrlOrBase64 "data:image/<type>;base64,<data>" or plain base64
+     * @return the image id to keep on the share, or null if nothing was uploaded
+     * @throws IllegalArgumentException if the data is not valid base64 or not
+     *         a PNG / JPEG / GIF / WebP image
+     */
+    public String store(String dataUrlOrBase64) {
+        ProofImage image = prepare(dataUrlOrBase64);
+        if (image == null) return null;
+
+        save(image);
+        return image.getId();
+    }
+
+    /**
+     * Validates an upload and computes its id, without storing anything.
+     *
+     * @param dataUrlOrBase64 "data:image/<type>;base64,<data>" or plain base64
+     * @return the image to pass to save(), or null if nothing was uploaded
+     * @throws IllegalArgumentException if the data is not valid base64 or not
+     *         a PNG / JPEG / GIF / WebP image
+     */
+    public ProofImage prepare(String dataUrlOrBase64) {
+        if (dataUrlOrBase64 == null || dataUrlOrBase64.isBlank()) return null;
+
+        DataUrl image = DataUrl.parse(dataUrlOrBase64);
+        String id = Hashes.sha256Hex(image.getBytes());
+        return new ProofImage(id, image.getContentType(), image.getBytes(), Instant.now());
+    }
+
+    /**
+     * Stores a prepared image (if not stored already).
+     */
+    public void save(ProofImage image) {
+        // Same bytes → same id → already stored
+        if (imageRepo.existsById(image.getId())) return;
+
+        try {
+            imageRepo.insert(image);
+        } catch (DuplicateKeyException e) {
+            // Uploaded concurrently by another request — same content, nothing to do
+        }
+    }
+
+    /**
+     * Loads a stored screenshot.
+     *
+     * @param id the image id (SHA-256 hex)
+     * @return the image if it exists
+     */
+    public Optional<ProofImage> find(String id) {
+        return imageRepo.findById(id);
+    }
+}
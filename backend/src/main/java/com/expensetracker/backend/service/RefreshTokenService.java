@@ -0,0 +1,188 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.RefreshToken;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.RefreshTokenRepository;
+import com.expensetracker.backend.util.Hashes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * ----------------------------------------------------------------------------
+ * RefreshTokenService
+ * ----------------------------------------------------------------------------
+ * Login sessions made of two tokens:
+ *
+ *   - access token  : short-lived JWT (app.jwt.access-ttl, 15 min) sent with
+ *                     every API call, verified without any lookup
+ *   - refresh token : long random secret (app.jwt.refresh-ttl, 14 days)
+ *                     only sent to /api/auth/refresh to get a new pair
+ *
+ * Both belong to one session id (the "sid" claim of the access token).
+ *
+ * Refresh tokens are stored as SHA-256 hashes only ("refresh_tokens"), so a
+ * leaked database does not leak usable tokens. They ROTATE: every refresh
+ * consumes the old token (atomically, RefreshTokenRepositoryCustom.consume)
+ * and hands out a new one.
+ *
+ * Presenting an already-used token means it was copied (two parties hold
+ * the same session), so the whole session is ended: its refresh tokens are
+ * deleted and the session is revoked (RevocationService), which also kills
+ * its access tokens. Exception: a reuse within app.jwt.refresh-reuse-grace
+ * of the rotation is the same browser refreshing twice in parallel (two
+ * tabs) → only that request is refused.
+ *
+ * Logout does the same as a detected replay, for the caller's own session;
+ * a password reset does it for every session of the user (endAllSessions).
+ * ----------------------------------------------------------------------------
+ */
+@Service
+public class RefreshTokenService {
+
+    // 256 random bits per refresh token
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * Thrown when a refresh token is unknown, expired, already used or its
+     * session was revoked (the caller must log in again → 401).
+     */
+    public static class InvalidRefreshTokenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public InvalidRefreshTokenException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * What login and refresh hand out.
+     *
+     * @param accessToken  JWT for the Authorization header
+     * @param refreshToken secret for the next /api/auth/refresh
+     * @param expiresIn    lifetime of the access token, in seconds
+     */
+    public record TokenPair(String accessToken, String refreshToken, long expiresIn) {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevocationService revocationService;
+    private final JwtService jwtService;
+    private final EntityCacheService entityCache;
+
+    private final Duration refreshTtl;
+    private final Duration reuseGrace;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               RevocationService revocationService,
+                               JwtService jwtService,
+                               EntityCacheService entityCache,
+                               @Value("${app.jwt.refresh-ttl:14d}") Duration refreshTtl,
+                               @Value("${app.jwt.refresh-reuse-grace:10s}") Duration reuseGrace) {
+
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revocationService = revocationService;
+        this.jwtService = jwtService;
+        this.entityCache = entityCache;
+        this.refreshTtl = refreshTtl;
+        this.reuseGrace = reuseGrace;
+    }
+
+    /**
+     * Starts a new session for a user who just logged in.
+     */
+    public TokenPair login(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Trades a refresh token for a new access + refresh token (same session).
+     * The team ids in the new access token are re-read from the user.
+     *
+     * @throws InvalidRefreshTokenException if the token cannot be used
+     */
+    public TokenPair refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Refresh token is required");
+        }
+
+        String tokenHash = Hashes.sha256Hex(refreshToken);
+        Instant now = Instant.now();
+
+        RefreshToken consumed = refreshTokenRepository.consume(tokenHash, now);
+        if (consumed == null) {
+            // Unknown, expired or already used; the last one is a replay
+            Optional<RefreshToken> known = refreshTokenRepository.findByTokenHash(tokenHash);
+            if (known.isPresent() && known.get().getUsedAt() != null
+                    && known.get().getUsedAt().plus(reuseGrace).isBefore(now)) {
+                endSession(known.get().getSessionId());
+                System.err.println("❌ Refresh token reused, session revoked for user " + known.get().getUserId());
+            }
+            throw new InvalidRefreshTokenException("Invalid or expired refresh token");
+        }
+
+        // Not the in-memory snapshot: it lags other instances and forgets a
+        // session once its access tokens are gone, refresh tokens live longer
+        if (revocationService.isRevokedInDatabase(consumed.getSessionId())) {
+            throw new InvalidRefreshTokenException("Session has been revoked");
+        }
+
+        User user = entityCache.findUser(consumed.getUserId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("User no longer exists"));
+
+        return issue(user, consumed.getSessionId());
+    }
+
+    /**
+     * Ends the session a refresh token belongs to (unknown tokens are ignored).
+     */
+    public void logout(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) return;
+
+        refreshTokenRepository.findByTokenHash(Hashes.sha256Hex(refreshToken))
+                .ifPresent(token -> endSession(token.getSessionId()));
+    }
+
+    /**
+     * Ends every session of a user (password reset): their access tokens are
+     * refused and their refresh tokens deleted, so each device must log in
+     * again with the new password.
+     */
+    public void endAllSessions(String userId) {
+        // Revoke first: a refresh racing with the delete then still fails
+        refreshTokenRepository.findByUserId(userId).stream()
+                .map(RefreshToken::getSessionId)
+                .distinct()
+                .forEach(revocationService::revoke);
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private TokenPair issue(User user, String sessionId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        refreshTokenRepository.save(new RefreshToken(
+                Hashes.sha256Hex(refreshToken), user.getId(), sessionId, now, now.plus(refreshTtl)));
+
+        String accessToken = jwtService.generateToken(user, sessionId);
+        return new TokenPair(accessToken, refreshToken, jwtService.getAccessTtl().toSeconds());
+    }
+
+    private void endSession(String sessionId) {
+        refreshTokenRepository.deleteBySessionId(sessionId);
+        revocationService.revoke(sessionId);
+    }
+}
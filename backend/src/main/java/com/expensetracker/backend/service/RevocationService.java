@@ -0,0 +1,221 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.RevokedSession;
+import com.expensetracker.backend.repository.RevokedSessionRepository;
+import com.expensetracker.backend.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ----------------------------------------------------------------------------
+ * RevocationService
+ * ----------------------------------------------------------------------------
+ * Knows which login sessions were revoked (logout, refresh token replay), so
+ * JwtAuthenticationFilter can reject their access tokens before they expire.
+ *
+ * This check runs on EVERY authenticated request, so it never touches the
+ * database. It answers from an in-memory snapshot:
+ *
+ *   - a Bloom filter of the revoked session ids → "certainly not revoked"
+ *     for almost every request, in a few nanoseconds
+ *   - the exact set (session id → expiry)      → consulted only when the
+ *     filter says "maybe"
+ *
+ * The "revoked_sessions" collection is the source of truth (shared by every
+ * instance):
+ *
+ *   - revoke() stores the session there AND adds it to the local snapshot,
+ *     so on this instance it takes effect at once
+ *   - a background thread reloads the collection every
+ *     app.jwt.revocation.refresh-interval (30 s) and swaps in a fresh
+ *     snapshot; that is how revocations made by OTHER instances arrive
+ *
+ * In memory, a revocation only has to outlive the access tokens it blocks:
+ * the snapshot holds the sessions revoked within app.jwt.access-ttl, so it
+ * stays small (the last 15 minutes).
+ *
+ * The stored entries live for app.jwt.refresh-ttl (TTL index): a revoked
+ * session must not come back through a refresh token it still holds.
+ * RefreshTokenService asks isRevokedInDatabase() — one lookup by id, on a
+ * rare endpoint, and never a stale answer.
+ *
+ * If a reload fails (database down) the previous snapshot is kept.
+ *
+ * Metrics:
+ *   - jwt.revocation.sessions        → revoked sessions in the snapshot
+ *   - jwt.revocation.false.positives → filter said "maybe", set said no
+ * ----------------------------------------------------------------------------
+ */
+@Service
+public class RevocationService {
+
+    // Target false-positive rate of the filter (only costs a map lookup)
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    // Minimum filter capacity, so revocations between reloads fit comfortably
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * One consistent view of the revoked sessions. The filter is rebuilt with
+     * every reload (keys cannot be removed from a Bloom filter).
+     */
+    private record Snapshot(BloomFilter filter, Map<String, Instant> sessions) {
+
+        static Snapshot of(Map<String, Instant> sessions) {
+            BloomFilter filter = new BloomFilter(Math.max(MIN_CAPACITY, 2L * sessions.size()), FALSE_POSITIVE_RATE);
+            sessions.keySet().forEach(filter::put);
+            return new Snapshot(filter, sessions);
+        }
+    }
+
+    private final RevokedSessionRepository revokedSessionRepository;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Duration refreshInterval;
+
+    private volatile Snapshot snapshot = Snapshot.of(new ConcurrentHashMap<>());
+
+    private final MeterRegistry meterRegistry;
+    private final Counter falsePositives;
+
+    public RevocationService(RevokedSessionRepository revokedSessionRepository,
+                             JwtService jwtService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.jwt.refresh-ttl:14d}") Duration refreshTtl,
+                             @Value("${app.jwt.revocation.refresh-interval:30s}") Duration refreshInterval) {
+
+        this.revokedSessionRepository = revokedSessionRepository;
+        this.accessTtl = jwtService.getAccessTtl();
+        this.refreshTtl = refreshTtl;
+        this.refreshInterval = refreshInterval;
+
+        this.meterRegistry = meterRegistry;
+        this.falsePositives = meterRegistry.counter("jwt.revocation.false.positives");
+    }
+
+    /**
+     * Registers the size gauge once the service is fully constructed (the
+     * gauge holds a reference to it).
+     */
+    @PostConstruct
+    void registerGauge() {
+        Gauge.builder("jwt.revocation.sessions", this, service -> service.snapshot.sessions().size())
+                .description("Revoked login sessions held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the reload thread once the app is ready (first load included).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread refresher = new Thread(this::run, "jwt-revocation");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /**
+     * @param sessionId "sid" claim of an access token (null → not revoked)
+     * @return true if the session was revoked and its tokens must be refused
+     */
+    public boolean isRevoked(String sessionId) {
+        if (sessionId == null) return false;
+
+        Snapshot current = snapshot;
+        if (!current.filter().mightContain(sessionId)) return false;   // the usual answer
+
+        Instant expiresAt = current.sessions().get(sessionId);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * Authoritative check against the collection (one query), for paths
+     * where a snapshot up to one reload interval old is not good enough.
+     *
+     * @param sessionId session of a refresh token
+     * @return true if the session was revoked within the refresh token lifetime
+     */
+    public boolean isRevokedInDatabase(String sessionId) {
+        return sessionId != null && revokedSessionRepository.existsById(sessionId);
+    }
+
+    /**
+     * Revokes a login session: its access tokens are refused from now on
+     * (on this instance at once, on the others after their next reload),
+     * and its refresh tokens for as long as they could be used.
+     *
+     * @throws org.springframework.dao.DataAccessException if it could not be stored
+     */
+    public void revoke(String sessionId) {
+        Instant now = Instant.now();
+
+        revokedSessionRepository.save(new RevokedSession(sessionId, now, now.plus(refreshTtl)));
+        add(sessionId, now.plus(accessTtl));
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    private void run() {
+        while (true) {
+            try {
+                reload();
+            } catch (Exception e) {
+                // Database unreachable, ... → keep the old snapshot, retry later
+                System.err.println("❌ Revoked sessions could not be reloaded: " + e.getMessage());
+            }
+
+            try {
+                Thread.sleep(refreshInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the sessions revoked within one access
+     * token lifetime.
+     */
+    void reload() {
+        Instant now = Instant.now();
+        List<RevokedSession> stored = revokedSessionRepository.findByRevokedAtAfter(now.minus(accessTtl));
+
+        Map<String, Instant> sessions = new ConcurrentHashMap<>(Math.max(16, stored.size() * 2));
+        for (RevokedSession session : stored) {
+            sessions.put(session.getSessionId(), session.getRevokedAt().plus(accessTtl));
+        }
+
+        // Locked against add(): a revocation made while the query ran is
+        // carried over instead of lost with the old snapshot
+        synchronized (this) {
+            snapshot.sessions().forEach((sessionId, expiresAt) -> {
+                if (expiresAt.isAfter(now)) sessions.putIfAbsent(sessionId, expiresAt);
+            });
+            snapshot = Snapshot.of(sessions);
+        }
+    }
+
+    private synchronized void add(String sessionId, Instant expiresAt) {
+        Snapshot current = snapshot;
+        current.sessions().put(sessionId, expiresAt);   // set first: "maybe" must find it
+        current.filter().put(sessionId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.Transfer;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * ---------------------------------------------------------------------------
+ * SettlePlanService
+ * ---------------------------------------------------------------------------
+ * Turns a team's net balances into a short list of payments that settles
+ * everyone ("debt simplification").
+ *
+ * Instead of every member paying back every share one by one, only the net
+ * balance of each user matters. A greedy min-cash-flow pass then pairs the
+ * biggest debtor with the biggest creditor:
+ *
+ *   1. creditors (balance > 0) and debtors (balance < 0) go into two
+ *      max-heaps ordered by amount
+ *   2. pop the largest of each, transfer min(debt, credit)
+ *   3. whoever still has a balance left goes back into its heap
+ *   4. repeat until the heaps are empty
+ *
+ * Every round settles at least one user completely, so there are at most
+ * (users - 1) transfers, and the whole plan costs O(n log n) — a few
+ * milliseconds even for thousands of members.
+ *
+ * Balances are minor units (see Money), so the plan settles to the cent.
+ * Ties are broken by user id, so the same balances give the same plan.
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class SettlePlanService {
+
+    /**
+     * A user with an open balance (amount is always positive here).
+     */
+    private static final class Party {
+        final String userId;
+        long amount;
+
+        Party(String userId, long amount) {
+            this.userId = userId;
+            this.amount = amount;
+        }
+    }
+
+    // Largest amount first, then lowest user id
+    private static final Comparator<Party> LARGEST_FIRST =
+            Comparator.<Party>comparingLong(p -> p.amount).reversed()
+                    .thenComparing(p -> p.userId);
+
+    /**
+     * Computes the transfers that settle the given balances.
+     *
+     * @param balances userId → net balance in minor units
+     *                 (positive = should get, negative = needs to pay)
+     * @return the payments to make (at most users - 1 of them)
+     */
+    public List<Transfer> plan(Map<String, Long> balances) {
+
+        PriorityQueue<Party> creditors = new PriorityQueue<>(LARGEST_FIRST);
+        PriorityQueue<Party> debtors = new PriorityQueue<>(LARGEST_FIRST);
+
+        for (var entry : balances.entrySet()) {
+            long balance = entry.getValue();
+            if (balance > 0) creditors.add(new Party(entry.getKey(), balance));
+            if (balance < 0) debtors.add(new Party(entry.getKey(), -balance));
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+
+        // A ledger always sums to zero, so both heaps empty together; the
+        // && only guards against a corrupted ledger.
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            Party creditor = creditors.poll();
+            Party debtor = debtors.poll();
+
+            long amount = Math.min(creditor.amount, debtor.amount);
+            transfers.add(new Transfer(debtor.userId, creditor.userId, amount));
+
+            creditor.amount -= amount;
+            debtor.amount -= amount;
+
+            if (creditor.amount > 0) creditors.add(creditor);
+            if (debtor.amount > 0) debtors.add(debtor);
+        }
+
+        return transfers;
+    }
+}
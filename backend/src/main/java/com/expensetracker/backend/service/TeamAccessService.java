@@ -0,0 +1,41 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.security.AuthenticatedUser;
+import org.springframework.stereotype.Service;
+
+/**
+ * ---------------------------------------------------------------------------
+ * TeamAccessService
+ * ---------------------------------------------------------------------------
+ * Answers "may this caller see / change this team?" (= is a member).
+ *
+ *   1. teamIds claim of the caller's token → no lookup at all (the common case)
+ *   2. otherwise the team's member list (EntityCacheService), because the
+ *      claim is a snapshot from login: a team created or joined since then
+ *      is only found here
+ *
+ * So most requests are authorized from the token alone, and a stale token
+ * never locks anyone out of a team they just joined.
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class TeamAccessService {
+
+    private final EntityCacheService entityCache;
+
+    public TeamAccessService(EntityCacheService entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * @return true if the caller is a member of the team (false for unknown teams)
+     */
+    public boolean isMember(AuthenticatedUser user, String teamId) {
+        if (user == null || teamId == null) return false;
+        if (user.teamIds().contains(teamId)) return true;
+
+        return entityCache.findTeam(teamId)
+                .map(team -> team.getMemberIds() != null && team.getMemberIds().contains(user.userId()))
+                .orElse(false);
+    }
+}
@@ -0,0 +1,236 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.model.TeamBalance;
+import com.expensetracker.backend.repository.ExpenseRepository;
+import com.expensetracker.backend.repository.TeamBalanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * ---------------------------------------------------------------------------
+ * TeamBalanceService
+ * ---------------------------------------------------------------------------
+ * Keeps the per-team balance ledger (TeamBalance) in sync with expenses.
+ *
+ * A team's balance is the sum of all debts that are still outstanding:
+ *   - every share that is NOT approved and does NOT belong to the payer
+ *     means: share owner owes the amount → payer should get the amount
+ *
+ * ExpenseController calls this service after each change:
+ *   ✔ expense added          → add its outstanding shares
+ *   ✔ payment approved       → remove that share's debt
+ *   ✔ approval reverted      → put that share's debt back
+ *   ✔ expense deleted        → remove whatever was still outstanding
+ *   ✔ team settled up        → remove the settled expenses' debts at once
+ *
+ * Amounts are integer minor units (see Money). Each change is a single
+ * atomic $inc on the ledger document, so the summary
+ * endpoint only has to read one document regardless of the team's history.
+ *
+ * The per-share arithmetic lives in BalanceKernel (dense long[] balances).
+ *
+ * Teams created before the ledger existed have no document yet. The first
+ * read or write for such a team rebuilds it once from the expenses.
+ *
+ * Rebuilds run while other requests keep changing expenses, so:
+ *   1. a writer calls begin() BEFORE saving its change; the Ticket holds
+ *      the ledger's epoch (bumped by every rebuild)
+ *   2. after saving, its deltas only apply to that same epoch, and only if
+ *      no rebuild is running. Then no rebuild can have counted the change.
+ *   3. otherwise it cannot know whether a rebuild counted its change: it
+ *      marks the running rebuild dirty (which then counts again), or, if
+ *      none is running any more, rebuilds the ledger itself
+ * A rebuild stores its result only if it is still the latest one and
+ * nothing changed while it counted (TeamBalanceRepositoryCustom).
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class TeamBalanceService {
+
+    // A rebuild still "running" after this long is assumed dead (crash) and redone
+    private static final Duration BUILD_LEASE = Duration.ofMinutes(1);
+
+    // Rebuilds restarted in a row because expenses kept changing
+    private static final int MAX_BUILD_ATTEMPTS = 3;
+
+    /**
+     * What a writer saw of the ledger before saving its change (see begin()).
+     *
+     * @param ready false if the ledger was missing or being rebuilt
+     */
+    public record Ticket(String teamId, long epoch, boolean ready) {}
+
+    // Inject Team Balance Repository
+    @Autowired
+    private TeamBalanceRepository balanceRepo;
+
+    // Inject Expense Repository (only used for one-time rebuilds)
+    @Autowired
+    private ExpenseRepository expenseRepo;
+
+    /**
+     * Returns the current balance of every user in the team.
+     *
+     * @param teamId the team to read
+     * @return userId → balance in minor units
+     *         (positive = should get, negative = needs to pay)
+     */
+    public Map<String, Long> getBalances(String teamId) {
+        TeamBalance ledger = balanceRepo.findById(teamId).orElse(null);
+        if (ledger == null) return rebuild(teamId);
+
+        if (ledger.isBuilding()) {
+            // Its builder died → take over; otherwise count directly meanwhile
+            if (leaseExpired(ledger)) return rebuild(teamId);
+            return computeFromExpenses(teamId);
+        }
+
+        return ledger.getBalances();
+    }
+
+    /**
+     * Reads the ledger's epoch. Call BEFORE saving a change to the team's
+     * expenses and pass the ticket to the matching record...() call.
+     */
+    public Ticket begin(String teamId) {
+        return balanceRepo.findById(teamId)
+                .map(ledger -> new Ticket(teamId, ledger.getEpoch(), !ledger.isBuilding()))
+                .orElseGet(() -> new Ticket(teamId, 0, false));
+    }
+
+    /**
+     * Records a newly saved expense in the team ledger.
+     */
+    public void recordExpenseAdded(Ticket ticket, Expense expense) {
+        apply(ticket, outstandingDeltas(expense, 1));
+    }
+
+    /**
+     * Removes a deleted expense's outstanding debts from the team ledger.
+     *
+     * @param expense the document as it was deleted
+     */
+    public void recordExpenseDeleted(Ticket ticket, Expense expense) {
+        apply(ticket, outstandingDeltas(expense, -1));
+    }
+
+    /**
+     * Records a share moving into or out of the APPROVED state.
+     *
+     * @param expense the expense the share belongs to
+     * @param share   the share whose approval changed
+     * @param settled true if the share just became APPROVED,
+     *                false if an approved share was reverted
+     */
+    public void recordShareSettled(Ticket ticket, Expense expense, ExpenseShare share, boolean settled) {
+
+        String payerId = expense.getPaidByUserId();
+
+        // The payer's own share never counted as a debt
+        if (share.getUserId().equals(payerId)) return;
+
+        long amount = settled ? share.getAmountMinor() : -share.getAmountMinor();
+
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(share.getUserId(), amount);   // member owes less
+        deltas.put(payerId, -amount);            // payer gets less
+
+        apply(ticket, deltas);
+    }
+
+    /**
+     * Removes the outstanding debts of many expenses that were just settled
+     * in bulk, as ONE ledger update.
+     */
+    public void recordExpensesSettled(Ticket ticket, List<Expense> expenses) {
+        BalanceKernel kernel = new BalanceKernel();
+        for (Expense expense : expenses) {
+            kernel.addOutstanding(expense, -1);
+        }
+        apply(ticket, kernel.toMap());
+    }
+
+    // -----------------------------------------------------------------------
+    // Internal helpers
+    // -----------------------------------------------------------------------
+
+    /**
+     * Applies deltas to the ledger the ticket saw. If a rebuild started
+     * since (or was running, or there was no ledger), the change may or may
+     * not have been counted by it, so it is counted again instead. The
+     * caller has already persisted its change, so any later count includes it.
+     */
+    private void apply(Ticket ticket, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) return;
+
+        String teamId = ticket.teamId();
+        if (ticket.ready() && balanceRepo.applyDeltas(teamId, ticket.epoch(), deltas)) return;
+
+        // A running rebuild starts over and counts the change
+        if (balanceRepo.markDirty(teamId)) return;
+
+        rebuild(teamId);
+    }
+
+    /**
+     * Computes the ledger of a team from its expenses and stores it (first
+     * use of a team, or after a change raced a rebuild).
+     *
+     * Starts over while expenses change during the count (dirty). Gives up
+     * after MAX_BUILD_ATTEMPTS and leaves the ledger "building": it is
+     * rebuilt by the next request once the lease is over.
+     */
+    private Map<String, Long> rebuild(String teamId) {
+        for (int attempt = 1; ; attempt++) {
+            long epoch = balanceRepo.startBuild(teamId, Instant.now()).getEpoch();
+
+            Map<String, Long> balances = computeFromExpenses(teamId);
+            if (balanceRepo.finishBuild(teamId, epoch, balances)) return balances;
+
+            // A newer rebuild took over → it stores the result
+            TeamBalance current = balanceRepo.findById(teamId).orElse(null);
+            if (current != null && current.getEpoch() != epoch) return balances;
+
+            if (attempt >= MAX_BUILD_ATTEMPTS) {
+                System.err.println("❌ Ledger of team " + teamId + " kept changing during rebuild, retrying later");
+                return balances;
+            }
+        }
+    }
+
+    private static boolean leaseExpired(TeamBalance ledger) {
+        return ledger.getBuildStartedAt() == null
+                || ledger.getBuildStartedAt().plus(BUILD_LEASE).isBefore(Instant.now());
+    }
+
+    /**
+     * Sums the outstanding debts of every expense of a team, reading the
+     * expenses through a cursor so large histories are never held at once.
+     */
+    private Map<String, Long> computeFromExpenses(String teamId) {
+        BalanceKernel kernel = new BalanceKernel();
+
+        try (Stream<Expense> expenses = expenseRepo.streamTeamExpenses(teamId, null)) {
+            expenses.forEach(expense -> kernel.addOutstanding(expense, 1));
+        }
+
+        return kernel.toMap();
+    }
+
+    /**
+     * Debts an expense contributes to the ledger, multiplied by sign
+     * (+1 when adding the expense, -1 when removing it).
+     */
+    private Map<String, Long> outstandingDeltas(Expense expense, int sign) {
+        BalanceKernel kernel = new BalanceKernel(expense.getShares().size());
+        kernel.addOutstanding(expense, sign);
+        return kernel.toMap();
+    }
+}
@@ -0,0 +1,107 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.util.Hashes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ---------------------------------------------------------------------------
+ * TeamQrService
+ * ---------------------------------------------------------------------------
+ * Join QR codes of teams, rendered once and then served from memory.
+ *
+ * The code encodes the team's join link (join link prefix + join code),
+ * which the frontend routes to /join-team/:code, and which JoinTeam's
+ * scanner reads the code back from (last path segment). The join code
+ * lets anyone join, so the image is only served to members.
+ *
+ * Encoding a QR matrix and compressing it to PNG takes milliseconds of CPU,
+ * while the result never changes for a team: it only depends on the text
+ * it encodes. So:
+ *
+ *   - PNGs live in a Caffeine cache keyed by that text, bounded by their
+ *     size in bytes (app.qr.cache.max-weight-mb); concurrent first requests
+ *     for the same team render it only once
+ *   - each PNG carries a strong ETag (SHA-256 of size + encoded text), so
+ *     browsers revalidate with a 304 instead of downloading it again
+ *   - precompute() renders a new team's code in the background right after
+ *     it is created, so the first request is already a cache hit
+ *
+ * Hit / miss counters: /actuator/metrics/cache.gets?tag=cache:teamQr
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class TeamQrService {
+
+    // Rendered size in pixels
+    private static final int SIZE = 300;
+
+    /**
+     * A rendered QR code and its ETag (quoted, ready for the header).
+     */
+    public record TeamQr(byte[] png, String etag) {}
+
+    private final Cache<String, TeamQr> cache;
+
+    // Text before the join code, e.g. http://localhost:5173/join-team/
+    private final String joinUrlPrefix;
+
+    public TeamQrService(MeterRegistry meterRegistry,
+                         @Value("${app.qr.join-url-prefix:http://localhost:5173/join-team/}") String joinUrlPrefix,
+                         @Value("${app.qr.cache.max-weight-mb:4}") long maxWeightMb) {
+
+        this.joinUrlPrefix = joinUrlPrefix;
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((String text, TeamQr qr) -> qr.png().length)
+                .recordStats()
+                .<String, TeamQr>build(), "teamQr");
+    }
+
+    /**
+     * @param joinCode the team's join code
+     * @return the team's join QR code (rendered on first use)
+     */
+    public TeamQr forJoinCode(String joinCode) {
+        return cache.get(joinUrlPrefix + joinCode, TeamQrService::render);
+    }
+
+    /**
+     * Renders the team's QR code in the background (e.g. right after the
+     * team was created), without delaying the current request.
+     */
+    public void precompute(String joinCode) {
+        CompletableFuture.runAsync(() -> forJoinCode(joinCode));
+    }
+
+    /**
+     * Encodes the text as a QR code PNG (no caching).
+     */
+    public static TeamQr render(String text) {
+        try {
+            BitMatrix matrix = new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, SIZE, SIZE);
+
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            MatrixToImageWriter.writeToStream(matrix, "PNG", png);
+
+            // Same text and size → same image → same ETag
+            return new TeamQr(png.toByteArray(), "\"" + Hashes.sha256Hex(SIZE + ":" + text) + "\"");
+
+        } catch (WriterException | IOException e) {
+            throw new IllegalStateException("Failed to generate QR code", e);
+        }
+    }
+}
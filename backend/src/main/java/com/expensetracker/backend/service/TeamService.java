@@ -1,12 +1,11 @@
 package com.expensetracker.backend.service;
 
-import com.expensetracker.backend.model.Expense;
-import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.dto.TeamTotals;
 import com.expensetracker.backend.model.Team;
 import com.expensetracker.backend.model.User;
 import com.expensetracker.backend.repository.ExpenseRepository;
 import com.expensetracker.backend.repository.TeamRepository;
-import com.expensetracker.backend.repository.UserRepository;
+import com.expensetracker.backend.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -22,9 +21,8 @@ import java.util.*;
  *   ✔ Calculate how much a user needs to pay or receive in each team.
  *
  * The method getTeamExpensesForUser():
- *   - Reads all teams the user is part of
- *   - Fetches all expenses inside each team
- *   - Reads each expense share and calculates:
+ *   - Reads all teams the user is part of (one query)
+ *   - Runs ONE aggregation over those teams' expenses that calculates:
  *         • needToPay → money the user still owes
  *         • needToGet → money the user should receive
  *
@@ -38,9 +36,9 @@ public class TeamService {
     @Autowired
     private TeamRepository teamRepo;
 
-    // Inject User Repository
+    // Cached user lookups
     @Autowired
-    private UserRepository userRepo;
+    private EntityCacheService entityCache;
 
     // Inject Expense Repository
     @Autowired
@@ -59,73 +57,40 @@ public class TeamService {
         List<Team> list = new ArrayList<>();
 
         // Fetch user by ID. If not found, return empty list.
-        Optional<User> userOpt = userRepo.findById(userId);
+        Optional<User> userOpt = entityCache.findUser(userId);
         if (userOpt.isEmpty()) return list;
 
         User user = userOpt.get();
 
-        // Loop through all team IDs the user belongs to
+        // Fetch all of the user's teams in one query, keyed by id
+        Map<String, Team> teamsById = new HashMap<>();
+        for (Team team : teamRepo.findAllById(user.getTeamIds())) {
+            teamsById.put(team.getId(), team);
+        }
+
+        // Let MongoDB compute needToPay / needToGet for every team at once.
+        // Rules (same as before):
+        //   - needToPay → unapproved shares of this user in expenses paid by someone else
+        //   - needToGet → unapproved shares of other members in expenses this user paid
+        Map<String, TeamTotals> totalsByTeam = new HashMap<>();
+        for (TeamTotals totals : expenseRepo.sumOutstandingByTeam(teamsById.keySet(), userId)) {
+            totalsByTeam.put(totals.getTeamId(), totals);
+        }
+
+        // Keep the user's own team order
         for (String teamId : user.getTeamIds()) {
 
-            // Fetch the actual team document from DB
-            Optional<Team> teamOpt = teamRepo.findById(teamId);
-            if (teamOpt.isEmpty()) continue; // skip invalid teams
-
-            Team team = teamOpt.get();
-
-            // Fetch all expenses belonging to this team
-            List<Expense> expenses = expenseRepo.findByTeamId(teamId);
-
-            // Track total amounts the user owes or should receive
-            double needToPay = 0;
-            double needToGet = 0;
-
-            // Process each expense inside the team
-            for (Expense exp : expenses) {
-
-                String paidBy = exp.getPaidByUserId(); // The person who paid the whole bill
-
-                // Loop through every member's share
-                for (ExpenseShare s : exp.getShares()) {
-
-                    // If status is null (older expenses), treat as UNPAID
-                    String status = s.getStatus();
-                    if (status == null) status = "UNPAID";
-
-                    boolean isApproved = "APPROVED".equals(status);
-
-                    // -------------------------------------------------------
-                    // CASE 1: USER NEEDS TO PAY (owes money)
-                    // Conditions:
-                    // - user is not the payer
-                    // - user is the share owner
-                    // - payment not approved yet
-                    // -------------------------------------------------------
-                    if (!s.getUserId().equals(paidBy)     // This user isn't the payer
-                            && s.getUserId().equals(userId) // This share belongs to this user
-                            && !isApproved) {                // Still pending
-                        needToPay += s.getAmount();
-                    }
-
-                    // -------------------------------------------------------
-                    // CASE 2: USER NEEDS TO GET (should receive)
-                    // Conditions:
-                    // - user is the payer
-                    // - another member owes money
-                    // - payment for that share is not yet approved
-                    // -------------------------------------------------------
-                    if (paidBy.equals(userId)                // user paid entire expense
-                            && !s.getUserId().equals(userId) // another member
-                            && !isApproved) {                // still pending
-                        needToGet += s.getAmount();
-                    }
-                }
-            }
+            Team team = teamsById.get(teamId);
+            if (team == null) continue; // skip invalid teams
+
+            // Teams with nothing outstanding are simply missing from the aggregation
+            TeamTotals totals = totalsByTeam.getOrDefault(teamId, new TeamTotals());
 
             // Set summary fields inside Team object so frontend can read them
             team.setUserName(user.getFullName());
-            team.setNeedToPay(Math.round(needToPay * 100.0) / 100.0); // round to 2 decimals
-            team.setNeedToGet(Math.round(needToGet * 100.0) / 100.0);
+            // Totals are exact minor units → no rounding needed
+            team.setNeedToPay(Money.toMajor(totals.getNeedToPay()));
+            team.setNeedToGet(Money.toMajor(totals.getNeedToGet()));
 
             // Add team to final output
             list.add(team);
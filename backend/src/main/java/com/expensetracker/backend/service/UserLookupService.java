@@ -0,0 +1,99 @@
+package com.expensetracker.backend.service;
+
+import com.expensetracker.backend.dto.TeamMember;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * ---------------------------------------------------------------------------
+ * UserLookupService
+ * ---------------------------------------------------------------------------
+ * Turns user ids into something readable (email, name).
+ *
+ * Screens like the team summary need to show many users at once. Calling
+ * userRepo.findById() for each of them costs one database round trip per
+ * member, so this service resolves the whole batch with ONE query that only
+ * loads id, email and name (see UserRepository.findContactsByIdIn).
+ *
+ * Ids that do not match any user fall back to the id itself, so callers
+ * always get an entry for every id they asked for.
+ * ---------------------------------------------------------------------------
+ */
+@Service
+public class UserLookupService {
+
+    // Inject User Repository
+    @Autowired
+    private UserRepository userRepo;
+
+    /**
+     * Loads the contact fields of many users in one query.
+     *
+     * @param ids user ids to resolve
+     * @return userId → partial User (id, email, firstName, lastName, profileImageVersion)
+     */
+    public Map<String, User> findContacts(Collection<String> ids) {
+
+        Map<String, User> byId = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return byId;
+
+        for (User user : userRepo.findContactsByIdIn(ids)) {
+            byId.put(user.getId(), user);
+        }
+
+        return byId;
+    }
+
+    /**
+     * Builds the lightweight member list of a team, in the given order.
+     * Ids that do not match any user are skipped.
+     *
+     * @param ids user ids (e.g. Team.getMemberIds())
+     * @return id, full name, email and avatar URL of each member
+     */
+    public List<TeamMember> findMembers(List<String> ids) {
+        Map<String, User> contacts = findContacts(ids);
+
+        List<TeamMember> members = new ArrayList<>(contacts.size());
+        for (String id : ids) {
+            User user = contacts.get(id);
+            if (user == null) continue;
+
+            members.add(new TeamMember(id, user.getFullName(), user.getEmail(), avatarUrl(user)));
+        }
+
+        return members;
+    }
+
+    /**
+     * Path of a user's avatar. The version makes the URL change whenever the
+     * picture changes, so browsers may cache each URL forever.
+     */
+    public static String avatarUrl(User user) {
+        String url = "/api/auth/user/" + user.getId() + "/avatar";
+        String version = user.getProfileImageVersion();
+        return version != null ? url + "?v=" + version : url;
+    }
+
+    /**
+     * Resolves user ids to email addresses.
+     *
+     * @param ids user ids to resolve
+     * @return userId → email (or the id itself if the user does not exist)
+     */
+    public Map<String, String> emailsById(Collection<String> ids) {
+        Map<String, User> contacts = findContacts(ids);
+
+        Map<String, String> emails = new HashMap<>();
+        for (String id : ids) {
+            User user = contacts.get(id);
+            emails.put(id, user != null ? user.getEmail() : id);
+        }
+
+        return emails;
+    }
+}
@@ -0,0 +1,103 @@
+package com.expensetracker.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ----------------------------------------------------------------------------
+ * BloomFilter
+ * ----------------------------------------------------------------------------
+ * A fixed-size Bloom filter of strings: put() a key, then
+ * mightContain() answers
+ *
+ *   - false → the key was certainly never put (the common, fast answer)
+ *   - true  → it probably was; confirm with an exact lookup
+ *
+ * Sized for an expected number of keys and a false-positive rate
+ * (bits = -n·ln(p) / ln²2, hashes = bits/n · ln2). Putting more keys than
+ * expected still works, only with more false positives.
+ *
+ * Keys are hashed once to 64 bits (FNV-1a + a final mix), split into two
+ * 32-bit halves, and the k positions derived from those (Kirsch–Mitzenmacher
+ * double hashing). No allocation per call.
+ *
+ * Thread-safe: bits are set with atomic CAS, so concurrent put() and
+ * mightContain() need no lock. Keys cannot be removed (build a new filter).
+ * ----------------------------------------------------------------------------
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedKeys      number of keys the filter is sized for (≥ 1)
+     * @param falsePositiveRate wanted false-positive rate, e.g. 0.01
+     */
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        long n = Math.max(1, expectedKeys);
+        double ln2 = Math.log(2);
+
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = Math.max(64, (bits + 63) / 64 * 64);   // whole words
+
+        this.words = new AtomicLongArray((int) (bits / 64));
+        this.bitCount = bits;
+        this.hashCount = Math.max(1, (int) Math.round((double) bits / n * ln2));
+    }
+
+    /**
+     * Adds a key.
+     */
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long current;
+            while (((current = words.get(word)) & mask) == 0
+                    && !words.compareAndSet(word, current, current | mask)) {
+                // another thread changed the word meanwhile → retry
+            }
+        }
+    }
+
+    /**
+     * @return false if the key was certainly never put, true if it may have been
+     */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the chars, then the MurmurHash3 finalizer so both 32-bit
+     * halves are well mixed.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,112 @@
+package com.expensetracker.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * ----------------------------------------------------------------------------
+ * DataUrl
+ * ----------------------------------------------------------------------------
+ * Decodes the images the frontend uploads.
+ *
+ * The browser's FileReader.readAsDataURL() produces strings like:
+ *
+ *      data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAA...
+ *
+ * This helper splits such a string into its content type and raw bytes.
+ * Plain base64 (without the "data:" header) is accepted as well.
+ *
+ * Only raster images are accepted (IMAGE_TYPES: PNG, JPEG, GIF, WebP),
+ * because the stored bytes are later served by public endpoints under the
+ * API's own origin: an uploaded text/html or image/svg+xml "image" would
+ * run script there. The type is taken from the bytes themselves (magic
+ * numbers), never from the uploader's header alone.
+ * ----------------------------------------------------------------------------
+ */
+public final class DataUrl {
+
+    // The only content types ever stored or served
+    public static final Set<String> IMAGE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private final String contentType;
+    private final byte[] bytes;
+
+    private DataUrl(String contentType, byte[] bytes) {
+        this.contentType = contentType;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Parses a data URL or plain base64 string holding an image.
+     *
+     * @param value "data:image/<type>;base64,<data>" or plain base64
+     * @return the decoded content type (detected from the bytes) + bytes
+     * @throws IllegalArgumentException if the data is not valid base64, the
+     *         declared type is not an allowed image type, or the bytes are
+     *         not a PNG / JPEG / GIF / WebP image
+     */
+    public static DataUrl parse(String value) {
+        String payload = value;
+
+        // Split "data:image/png;base64,AAAA" into type + payload
+        if (value.startsWith("data:")) {
+            int comma = value.indexOf(',');
+            if (comma < 0) throw new IllegalArgumentException("Malformed data URL");
+
+            String header = value.substring(5, comma);
+            int semicolon = header.indexOf(';');
+            String type = (semicolon >= 0 ? header.substring(0, semicolon) : header).trim();
+            if (!type.isEmpty() && !isImageType(type)) {
+                throw new IllegalArgumentException("Unsupported image type: " + type);
+            }
+            payload = value.substring(comma + 1);
+        }
+
+        byte[] bytes = Base64.getMimeDecoder().decode(payload.getBytes(StandardCharsets.US_ASCII));
+
+        String detected = detectImageType(bytes);
+        if (detected == null) throw new IllegalArgumentException("Not a PNG, JPEG, GIF or WebP image");
+
+        return new DataUrl(detected, bytes);
+    }
+
+    /**
+     * @return true if the content type is one of IMAGE_TYPES (case-insensitive,
+     *         parameters such as ";charset=..." not allowed)
+     */
+    public static boolean isImageType(String contentType) {
+        return contentType != null && IMAGE_TYPES.contains(contentType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Recognizes an image from its first bytes.
+     *
+     * @return one of IMAGE_TYPES, or null if the bytes are none of them
+     */
+    public static String detectImageType(byte[] bytes) {
+        if (startsWith(bytes, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return "image/png";
+        if (startsWith(bytes, 0, 0xFF, 0xD8, 0xFF)) return "image/jpeg";
+        if (startsWith(bytes, 0, 'G', 'I', 'F', '8', '7', 'a')
+                || startsWith(bytes, 0, 'G', 'I', 'F', '8', '9', 'a')) return "image/gif";
+        if (startsWith(bytes, 0, 'R', 'I', 'F', 'F') && startsWith(bytes, 8, 'W', 'E', 'B', 'P')) return "image/webp";
+        return null;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... magic) {
+        if (bytes.length < offset + magic.length) return false;
+        for (int i = 0; i < magic.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != magic[i]) return false;
+        }
+        return true;
+    }
+}
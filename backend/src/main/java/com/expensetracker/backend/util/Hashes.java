@@ -0,0 +1,37 @@
+package com.expensetracker.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ----------------------------------------------------------------------------
+ * Hashes
+ * ----------------------------------------------------------------------------
+ * SHA-256 helpers used to give stored images stable ids / ETags, and to
+ * store refresh tokens without keeping the tokens themselves.
+ * ----------------------------------------------------------------------------
+ */
+public final class Hashes {
+
+    private Hashes() {}
+
+    /**
+     * @return the SHA-256 of the bytes as lowercase hex (64 chars)
+     */
+    public static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return the SHA-256 of the UTF-8 text as lowercase hex (64 chars)
+     */
+    public static String sha256Hex(String text) {
+        return sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
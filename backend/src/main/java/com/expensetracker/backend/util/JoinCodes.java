@@ -0,0 +1,51 @@
+package com.expensetracker.backend.util;
+
+import java.security.SecureRandom;
+import java.util.regex.Pattern;
+
+/**
+ * ----------------------------------------------------------------------------
+ * JoinCodes
+ * ----------------------------------------------------------------------------
+ * Team join codes: anyone holding one can join the team, so they are
+ * secrets and must not be guessable.
+ *
+ *   - 10 characters from SecureRandom → about 50 bits
+ *   - alphabet without look-alikes (no 0/O, 1/I/L), so a code read off a
+ *     screen or typed from a QR caption is not mistyped
+ *
+ * Codes made before this were the first 8 hex digits of an ObjectId, i.e.
+ * its creation timestamp (guessable); isLegacy() recognizes them so
+ * JoinCodeBackfill can replace them.
+ * ----------------------------------------------------------------------------
+ */
+public final class JoinCodes {
+
+    private static final char[] ALPHABET = "ABCDEFGHJKMNPQRSTUVWXYZ23456789".toCharArray();
+    private static final int LENGTH = 10;
+
+    // Timestamp-derived codes: exactly 8 hex digits
+    private static final Pattern LEGACY = Pattern.compile("[0-9A-Fa-f]{8}");
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private JoinCodes() {}
+
+    /**
+     * @return a new random join code (like "K7XQ2MRP9D")
+     */
+    public static String generate() {
+        char[] code = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            code[i] = ALPHABET[RANDOM.nextInt(ALPHABET.length)];
+        }
+        return new String(code);
+    }
+
+    /**
+     * @return true for a code in the old, timestamp-derived format
+     */
+    public static boolean isLegacy(String joinCode) {
+        return joinCode != null && LEGACY.matcher(joinCode).matches();
+    }
+}
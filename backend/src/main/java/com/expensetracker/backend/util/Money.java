@@ -0,0 +1,58 @@
+package com.expensetracker.backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * ----------------------------------------------------------------------------
+ * Money
+ * ----------------------------------------------------------------------------
+ * Conversions between the API's decimal amounts ("12.50") and the integer
+ * minor units (cents / paise) the backend stores and adds up.
+ *
+ * Every amount is rounded to 2 decimals ONCE, when it enters the system.
+ * After that all arithmetic is plain long addition, so totals never drift.
+ * ----------------------------------------------------------------------------
+ */
+public final class Money {
+
+    // Minor units per major unit (2 decimals)
+    public static final int SCALE = 2;
+
+    private Money() {}
+
+    /**
+     * Converts a decimal amount to minor units, rounding half-up to 2 decimals.
+     *
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a double (e.g. from JSON or legacy documents) to minor units.
+     * BigDecimal.valueOf uses the shortest decimal form, so 0.1 → 10, not 9.
+     */
+    public static long toMinor(double amount) {
+        return toMinor(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Parses a JSON number or string ("12.5", 12.5) to minor units.
+     *
+     * @throws NumberFormatException if the value is not a number
+     */
+    public static long parseMinor(Object amount) {
+        if (amount == null) throw new NumberFormatException("amount is missing");
+        return toMinor(new BigDecimal(amount.toString().trim()));
+    }
+
+    /**
+     * Converts minor units back to a major amount for JSON responses.
+     * The result is the closest double to the exact 2-decimal value.
+     */
+    public static double toMajor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE).doubleValue();
+    }
+}
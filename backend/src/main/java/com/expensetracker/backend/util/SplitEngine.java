@@ -0,0 +1,124 @@
+package com.expensetracker.backend.util;
+
+/**
+ * ----------------------------------------------------------------------------
+ * SplitEngine
+ * ----------------------------------------------------------------------------
+ * Splits an amount in minor units (see Money) into parts that ALWAYS add
+ * up to the total, using the largest-remainder method:
+ *
+ *   1. every part gets the rounded-down exact quota
+ *   2. the few units left over go, one each, to the parts with the largest
+ *      dropped remainder (ties → lowest index, i.e. member order)
+ *
+ * Example: 100.00 split 3 ways → 33.34, 33.33, 33.33  (sum = 100.00)
+ *
+ * The results are written into a caller-supplied array and nothing is
+ * allocated, so the same arrays can be reused for many splits.
+ * ----------------------------------------------------------------------------
+ */
+public final class SplitEngine {
+
+    private SplitEngine() {}
+
+    /**
+     * Equal split: out[i] = total / n, the first (total % n) parts get one
+     * extra unit.
+     *
+     * @param total amount in minor units (>= 0)
+     * @param out   one slot per participant; filled with the parts
+     */
+    public static void equal(long total, long[] out) {
+        int n = out.length;
+        if (n == 0) throw new IllegalArgumentException("Nobody to split between");
+        if (total < 0) throw new IllegalArgumentException("Amount must not be negative");
+
+        long base = total / n;
+        long extra = total % n;
+
+        for (int i = 0; i < n; i++) {
+            out[i] = i < extra ? base + 1 : base;
+        }
+    }
+
+    /**
+     * Weighted split: part i is proportional to weights[i]
+     * (e.g. weights 2,1,1 → 50%, 25%, 25%).
+     *
+     * The leftover units are fewer than the number of parts, and each pass
+     * over the parts hands out one of them, so this is O(n²) in the worst
+     * case — fine for team-sized splits.
+     *
+     * @param total   amount in minor units (>= 0)
+     * @param weights non-negative weights, at least one positive
+     * @param out     same length as weights; filled with the parts
+     * @throws ArithmeticException if total * weight overflows a long
+     */
+    public static void weighted(long total, long[] weights, long[] out) {
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("Nobody to split between");
+        if (out.length != n) throw new IllegalArgumentException("Output size does not match weights");
+        if (total < 0) throw new IllegalArgumentException("Amount must not be negative");
+
+        long weightSum = 0;
+        for (long w : weights) {
+            if (w < 0) throw new IllegalArgumentException("Weights must not be negative");
+            weightSum = Math.addExact(weightSum, w);
+        }
+        if (weightSum == 0) throw new IllegalArgumentException("At least one weight must be positive");
+
+        // 1. Rounded-down quotas
+        long assigned = 0;
+        for (int i = 0; i < n; i++) {
+            out[i] = Math.multiplyExact(total, weights[i]) / weightSum;
+            assigned += out[i];
+        }
+
+        // 2. Hand out the leftover units by largest remainder.
+        //    Each pass picks the best part ranked strictly below the previous
+        //    pick (remainder desc, index asc), so no scratch array is needed.
+        long leftover = total - assigned;
+        long lastRemainder = Long.MAX_VALUE;
+        int lastIndex = -1;
+
+        for (long k = 0; k < leftover; k++) {
+            int best = -1;
+            long bestRemainder = -1;
+
+            for (int i = 0; i < n; i++) {
+                long remainder = total * weights[i] % weightSum;   // cannot overflow: checked above
+
+                boolean belowLast = remainder < lastRemainder
+                        || (remainder == lastRemainder && i > lastIndex);
+                if (belowLast && remainder > bestRemainder) {
+                    best = i;
+                    bestRemainder = remainder;
+                }
+            }
+
+            out[best]++;
+            lastRemainder = bestRemainder;
+            lastIndex = best;
+        }
+    }
+
+    /**
+     * Exact custom split: the parts are given, they only have to add up.
+     *
+     * @param total amount in minor units
+     * @param parts the parts in minor units (all >= 0)
+     * @throws IllegalArgumentException if a part is negative or the sum differs
+     */
+    public static void exact(long total, long[] parts) {
+        long sum = 0;
+        for (long part : parts) {
+            if (part < 0) throw new IllegalArgumentException("Shares must not be negative");
+            sum = Math.addExact(sum, part);
+        }
+
+        if (sum != total) {
+            throw new IllegalArgumentException("Shares add up to " + Money.toMajor(sum)
+                    + " but the amount is " + Money.toMajor(total));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.backend;
+
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class for tests that need a real MongoDB (aggregations, update
+ * operators, ...): repositories and MongoTemplate against a throwaway
+ * container. Skipped where Docker is not available.
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MongoContainerTest {
+
+    @Container
+    @ServiceConnection
+    protected static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+}
@@ -0,0 +1,138 @@
+package com.expensetracker.backend.localperf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.expensetracker.backend.dto.ShareTransition;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+
+/**
+ * transitionShare() / settleOutstanding() semantics, run against the in-memory repository
+ * (which mirrors the MongoDB query of ExpenseRepositoryImpl).
+ */
+class InMemoryExpenseRepositoryTest {
+
+    private InMemoryExpenseRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryExpenseRepository(TestConverters.mongoConverter());
+    }
+
+    @Test
+    void shareWithoutStatusCountsAsUnpaid() {
+        // Stored without a "status" field, like shares written before statuses existed
+        ExpenseShare legacy = new ExpenseShare("member", 500, false);
+        legacy.setStatus(null);
+        repository.insert(expense(legacy));
+
+        Expense before = repository.transitionShare("e1", "member",
+                ShareTransition.to("PENDING_CASH_APPROVAL").from("UNPAID").withPayment("CASH", null));
+
+        assertThat(before).isNotNull();
+        assertThat(statusOf("member")).isEqualTo("PENDING_CASH_APPROVAL");
+    }
+
+    @Test
+    void payerGuardRejectsOtherPayees() {
+        ExpenseShare pending = new ExpenseShare("member", 500, false);
+        pending.setStatus("PENDING_CASH_APPROVAL");
+        repository.insert(expense(pending));
+
+        Expense before = repository.transitionShare("e1", "member",
+                ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL").byPayer("someone-else"));
+
+        assertThat(before).isNull();
+        assertThat(statusOf("member")).isEqualTo("PENDING_CASH_APPROVAL");
+
+        // The actual payee may approve
+        assertThat(repository.transitionShare("e1", "member",
+                ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL").byPayer("payer"))).isNotNull();
+        assertThat(statusOf("member")).isEqualTo("APPROVED");
+    }
+
+    @Test
+    void teamGuardRejectsOtherTeams() {
+        ExpenseShare pending = new ExpenseShare("member", 500, false);
+        pending.setStatus("PENDING_CASH_APPROVAL");
+        repository.insert(expense(pending));
+
+        assertThat(repository.transitionShare("e1", "member",
+                ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL").inTeam("t2"))).isNull();
+        assertThat(statusOf("member")).isEqualTo("PENDING_CASH_APPROVAL");
+
+        assertThat(repository.transitionShare("e1", "member",
+                ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL").inTeam("t1"))).isNotNull();
+    }
+
+    @Test
+    void shareAlreadyInTargetStateIsLeftAlone() {
+        ExpenseShare approved = new ExpenseShare("member", 500, false);
+        approved.setStatus("APPROVED");
+        repository.insert(expense(approved));
+        long version = repository.findById("e1").orElseThrow().getVersion();
+
+        Expense before = repository.transitionShare("e1", "member",
+                ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL").byPayer("payer"));
+
+        assertThat(before).isNull();
+        assertThat(statusOf("member")).isEqualTo("APPROVED");
+        assertThat(repository.findById("e1").orElseThrow().getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void missingExpenseOrShareIsNotMatched() {
+        repository.insert(expense(new ExpenseShare("member", 500, false)));
+
+        assertThat(repository.transitionShare("nope", "member", ShareTransition.to("UNPAID").from("UNPAID"))).isNull();
+        assertThat(repository.transitionShare("e1", "stranger", ShareTransition.to("UNPAID").from("UNPAID"))).isNull();
+    }
+
+    @Test
+    void settleOutstandingReportsOnlyTheExpensesItUpdated() {
+        repository.insert(expense(new ExpenseShare("member", 500, false)));
+        Expense other = expense(new ExpenseShare("member", 300, false));
+        other.setId("e2");
+        repository.insert(other);
+
+        List<Expense> outstanding = repository.findOutstanding("t1", "payer");
+        assertThat(outstanding).hasSize(2);
+
+        // e2 changes after it was loaded → must be skipped
+        repository.transitionShare("e2", "member",
+                ShareTransition.to("PENDING_CASH_APPROVAL").from("UNPAID").withPayment("CASH", null));
+
+        assertThat(repository.settleOutstanding(outstanding)).containsExactly("e1");
+        assertThat(statusOf("member")).isEqualTo("APPROVED");
+        assertThat(repository.findById("e2").orElseThrow().getShares().get(1).getStatus())
+                .isEqualTo("PENDING_CASH_APPROVAL");
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    private static Expense expense(ExpenseShare share) {
+        Expense expense = new Expense();
+        expense.setId("e1");
+        expense.setTeamId("t1");
+        expense.setPaidByUserId("payer");
+        expense.setDate(Instant.parse("2025-01-01T00:00:00Z"));
+        expense.setAmountMinor(1000);
+        expense.setShares(new ArrayList<>(List.of(new ExpenseShare("payer", 500, true), share)));
+        return expense;
+    }
+
+    private String statusOf(String userId) {
+        return repository.findById("e1").orElseThrow().getShares().stream()
+                .filter(s -> userId.equals(s.getUserId()))
+                .findFirst().orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,113 @@
+package com.expensetracker.backend.localperf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.expensetracker.backend.model.User;
+
+/**
+ * Base class behaviour (indexes, sorted findAll, query by example), through
+ * InMemoryUserRepository.
+ */
+class InMemoryRepositoryTest {
+
+    private InMemoryUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryUserRepository(TestConverters.mongoConverter());
+        repository.save(user("u1", "Bob", "Smith", "bob@x"));
+        repository.save(user("u2", "Alice", "Smith", "alice@x"));
+        repository.save(user("u3", "Carol", null, "carol@x"));
+    }
+
+    @Test
+    void uniqueIndexIsMaintainedOnWrites() {
+        assertThat(repository.findByEmail("bob@x")).map(User::getId).contains("u1");
+
+        assertThatThrownBy(() -> repository.save(user("u4", "Bobby", "Other", "bob@x")))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        // Changing the key frees the old one
+        User bob = repository.findById("u1").orElseThrow();
+        bob.setEmail("robert@x");
+        repository.save(bob);
+        assertThat(repository.findByEmail("bob@x")).isEmpty();
+        assertThat(repository.findByEmail("robert@x")).map(User::getId).contains("u1");
+    }
+
+    @Test
+    void findAllSortsByPropertiesWithNullsFirst() {
+        assertThat(repository.findAll(Sort.by("firstName"))).extracting(User::getId)
+                .containsExactly("u2", "u1", "u3");
+
+        // lastName null first, then the two Smiths by firstName descending
+        assertThat(repository.findAll(Sort.by(Sort.Order.asc("lastName"), Sort.Order.desc("firstName"))))
+                .extracting(User::getId)
+                .containsExactly("u3", "u1", "u2");
+    }
+
+    @Test
+    void findAllPagesSortedResults() {
+        Page<User> page = repository.findAll(PageRequest.of(1, 2, Sort.by("firstName")));
+
+        assertThat(page.getContent()).extracting(User::getId).containsExactly("u3");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void queryByExampleMatchesSetProperties() {
+        User probe = new User();
+        probe.setLastName("Smith");
+
+        assertThat(repository.findAll(Example.of(probe), Sort.by("firstName")))
+                .extracting(User::getId)
+                .containsExactly("u2", "u1");
+        assertThat(repository.count(Example.of(probe))).isEqualTo(2);
+        assertThatThrownBy(() -> repository.findOne(Example.of(probe)))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+
+        probe.setFirstName("Alice");
+        assertThat(repository.findOne(Example.of(probe))).map(User::getId).contains("u2");
+    }
+
+    @Test
+    void queryByExampleSupportsAnyMatching() {
+        User probe = new User();
+        probe.setFirstName("Carol");
+        probe.setEmail("bob@x");
+
+        assertThat(repository.findAll(Example.of(probe, ExampleMatcher.matchingAny()), Sort.by("id")))
+                .extracting(User::getId)
+                .containsExactly("u1", "u3");
+        assertThat(repository.exists(Example.of(probe))).isFalse();
+    }
+
+    @Test
+    void queryByExampleRejectsStringMatchers() {
+        User probe = new User();
+        probe.setFirstName("A");
+
+        assertThatThrownBy(() -> repository.findAll(Example.of(probe, ExampleMatcher.matching().withIgnoreCase())))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static User user(String id, String firstName, String lastName, String email) {
+        User user = new User(firstName, lastName, email, "hash");
+        user.setId(id);
+        user.setTeamIds(List.of());
+        return user;
+    }
+}
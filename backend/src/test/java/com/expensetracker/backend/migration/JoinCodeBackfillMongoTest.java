@@ -0,0 +1,49 @@
+package com.expensetracker.backend.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.expensetracker.backend.MongoContainerTest;
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.service.EntityCacheService;
+import com.expensetracker.backend.util.JoinCodes;
+
+class JoinCodeBackfillMongoTest extends MongoContainerTest {
+
+    @Autowired private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getCollection("teams").deleteMany(new Document());
+    }
+
+    @Test
+    void legacyCodesAreReplacedWithDistinctRandomOnes() {
+        // Two teams created in the same second share a timestamp code
+        insert("t1", "6AD528DE");
+        insert("t2", "6AD528DE");
+        insert("t3", "K7XQ2MRP9D");
+
+        new JoinCodeBackfill(mongoTemplate, mock(EntityCacheService.class)).backfill();
+
+        List<Team> teams = mongoTemplate.findAll(Team.class);
+        assertThat(teams).extracting(Team::getJoinCode).doesNotHaveDuplicates().noneMatch(JoinCodes::isLegacy);
+        assertThat(mongoTemplate.findById("t3", Team.class).getJoinCode()).isEqualTo("K7XQ2MRP9D");
+    }
+
+    private void insert(String id, String joinCode) {
+        mongoTemplate.getCollection("teams").insertOne(new Document("_id", id)
+                .append("teamName", id)
+                .append("joinCode", joinCode)
+                .append("memberIds", List.of())
+                .append("version", 0L));
+    }
+}
@@ -0,0 +1,49 @@
+package com.expensetracker.backend.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.expensetracker.backend.MongoContainerTest;
+
+class MoneyBackfillMongoTest extends MongoContainerTest {
+
+    @Autowired private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getCollection("expenses").deleteMany(new Document());
+    }
+
+    @Test
+    void legacyAmountsAreConvertedInBatches() {
+        for (int i = 0; i < 5; i++) {
+            mongoTemplate.getCollection("expenses").insertOne(new Document("_id", "e" + i)
+                    .append("teamId", "t1")
+                    .append("paidByUserId", "payer")
+                    .append("amount", 10.005)
+                    .append("shares", List.of(
+                            new Document("userId", "payer").append("amount", 5.0),
+                            new Document("userId", "member").append("amount", 5.005))));
+        }
+
+        MoneyBackfill backfill = new MoneyBackfill(mongoTemplate);
+        ReflectionTestUtils.setField(backfill, "batchSize", 2);
+        backfill.backfill();
+
+        Document converted = mongoTemplate.getCollection("expenses").find(new Document("_id", "e3")).first();
+        assertThat(converted).containsEntry("amountMinor", 1001L).doesNotContainKey("amount");
+        assertThat(converted.getList("shares", Document.class))
+                .extracting(share -> share.get("amountMinor"))
+                .containsExactly(500L, 501L);
+        assertThat(mongoTemplate.getCollection("expenses")
+                .countDocuments(new Document("amount", new Document("$exists", true)))).isZero();
+    }
+}
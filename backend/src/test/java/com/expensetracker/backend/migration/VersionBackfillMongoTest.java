@@ -0,0 +1,60 @@
+package com.expensetracker.backend.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.expensetracker.backend.MongoContainerTest;
+import com.expensetracker.backend.model.Team;
+
+class VersionBackfillMongoTest extends MongoContainerTest {
+
+    @Autowired private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getCollection("teams").deleteMany(new Document());
+    }
+
+    @Test
+    void legacyDocumentCanBeSavedBeforeTheBackfill() {
+        insertLegacy("t1");
+
+        Team team = mongoTemplate.findById("t1", Team.class);
+        Team stale = mongoTemplate.findById("t1", Team.class);
+        assertThat(team.getVersion()).isNull();
+        team.setTeamName("renamed");
+        mongoTemplate.save(team);
+
+        Team saved = mongoTemplate.findById("t1", Team.class);
+        assertThat(saved.getTeamName()).isEqualTo("renamed");
+        assertThat(saved.getVersion()).isZero();
+
+        // A copy loaded before that save (version null) now loses
+        assertThatThrownBy(() -> mongoTemplate.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void backfillSetsTheMissingVersions() {
+        insertLegacy("t1");
+
+        new VersionBackfill(mongoTemplate).backfill();
+
+        assertThat(mongoTemplate.findById("t1", Team.class).getVersion()).isZero();
+    }
+
+    private void insertLegacy(String id) {
+        mongoTemplate.getCollection("teams").insertOne(new Document("_id", id)
+                .append("teamName", id)
+                .append("joinCode", "K7XQ2MRP9D")
+                .append("memberIds", List.of()));
+    }
+}
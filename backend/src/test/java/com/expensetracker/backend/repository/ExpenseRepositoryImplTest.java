@@ -0,0 +1,158 @@
+package com.expensetracker.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.expensetracker.backend.dto.ShareTransition;
+import com.expensetracker.backend.dto.TeamTotals;
+import com.expensetracker.backend.model.Expense;
+
+/**
+ * Checks the queries / updates ExpenseRepositoryImpl sends, without a
+ * database (MongoTemplate is mocked).
+ */
+class ExpenseRepositoryImplTest {
+
+    private MongoTemplate mongoTemplate;
+    private ExpenseRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        repository = new ExpenseRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+    }
+
+    @Test
+    void unpaidAlsoMatchesSharesWithoutStatus() {
+        Captured sent = transition(ShareTransition.to("PENDING_CASH_APPROVAL").from("UNPAID", "REJECTED"));
+
+        assertThat(shareStatuses(sent.query)).containsExactly("UNPAID", "REJECTED", null);
+        assertThat(filterStatuses(sent.update)).containsExactly("UNPAID", "REJECTED", null);
+    }
+
+    @Test
+    void otherStatusesDoNotMatchSharesWithoutStatus() {
+        Captured sent = transition(ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL"));
+
+        assertThat(shareStatuses(sent.query)).containsExactly("PENDING_CASH_APPROVAL");
+        assertThat(filterStatuses(sent.update)).containsExactly("PENDING_CASH_APPROVAL");
+    }
+
+    @Test
+    void payerGuardRestrictsToExpensesPaidByThePayee() {
+        Captured sent = transition(ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL").byPayer("payee"));
+
+        assertThat(sent.query.getQueryObject().get("paidByUserId")).isEqualTo("payee");
+    }
+
+    @Test
+    void teamGuardRestrictsToExpensesOfThatTeam() {
+        Captured sent = transition(ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL").inTeam("t1"));
+
+        assertThat(sent.query.getQueryObject().get("teamId")).isEqualTo("t1");
+    }
+
+    @Test
+    void withoutPayerGuardAnyPayerMatches() {
+        Captured sent = transition(ShareTransition.to("UNPAID").from("PENDING_UPI_APPROVAL"));
+
+        assertThat(sent.query.getQueryObject()).doesNotContainKey("paidByUserId");
+    }
+
+    @Test
+    void shareAlreadyInTargetStateIsNotMatched() {
+        // Target status is not one of the expected ones → the query cannot
+        // match it, and the caller gets null (and explains it with one read)
+        Captured sent = transition(ShareTransition.to("APPROVED").from("PENDING_CASH_APPROVAL", "PENDING_UPI_APPROVAL"));
+
+        assertThat(shareStatuses(sent.query)).doesNotContain("APPROVED");
+        assertThat(sent.result).isNull();
+    }
+
+    @Test
+    void paymentFieldsAreSetOnlyWhenRequested() {
+        Document withPayment = transition(ShareTransition.to("PENDING_UPI_APPROVAL").from("UNPAID")
+                .withPayment("UPI", "img")).update.getUpdateObject();
+        Document statusOnly = transition(ShareTransition.to("APPROVED").from("PENDING_UPI_APPROVAL"))
+                .update.getUpdateObject();
+
+        assertThat(withPayment.get("$set", Document.class))
+                .containsEntry("shares.$[elem].status", "PENDING_UPI_APPROVAL")
+                .containsEntry("shares.$[elem].paymentMethod", "UPI")
+                .containsEntry("shares.$[elem].proofImageId", "img");
+        assertThat(withPayment.get("$unset", Document.class)).containsKey("shares.$[elem].proofImage");
+
+        assertThat(statusOnly.get("$set", Document.class))
+                .containsOnlyKeys("shares.$[elem].status");
+        assertThat(statusOnly.get("$inc", Document.class)).containsEntry("version", 1);
+    }
+
+    @Test
+    void legacyShareAmountsRoundHalfUpLikeMoney() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Expense.class), eq(TeamTotals.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        repository.sumOutstandingByTeam(List.of("t1"), "u1");
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Expense.class), eq(TeamTotals.class));
+        String pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+
+        // floor(decimal(amount) * 100 + 0.5), never $round (half to even)
+        assertThat(pipeline).contains("$floor", "$toDecimal", "0.5").doesNotContain("$round");
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    private record Captured(Query query, UpdateDefinition update, Expense result) {}
+
+    private Captured transition(ShareTransition transition) {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Expense.class))).thenReturn(null);
+
+        Expense result = repository.transitionShare("e1", "u1", transition);
+
+        verify(mongoTemplate, atLeastOnce()).findAndModify(query.capture(), update.capture(),
+                any(FindAndModifyOptions.class), eq(Expense.class));
+        return new Captured(query.getValue(), update.getValue(), result);
+    }
+
+    // { shares: { $elemMatch: { userId, status: { $in: [...] } } } }
+    private static List<Object> shareStatuses(Query query) {
+        Document elemMatch = query.getQueryObject().get("shares", Document.class).get("$elemMatch", Document.class);
+        assertThat(elemMatch).containsEntry("userId", "u1");
+        return elemMatch.get("status", Document.class).getList("$in", Object.class);
+    }
+
+    // arrayFilters: [ { "elem.userId", "elem.status": { $in: [...] } } ]
+    private static List<Object> filterStatuses(UpdateDefinition update) {
+        Document filter = update.getArrayFilters().get(0).asDocument();
+        assertThat(filter).containsEntry("elem.userId", "u1");
+        return filter.get("elem.status", Document.class).getList("$in", Object.class);
+    }
+}
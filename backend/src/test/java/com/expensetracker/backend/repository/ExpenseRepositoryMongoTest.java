@@ -0,0 +1,110 @@
+package com.expensetracker.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.expensetracker.backend.MongoContainerTest;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+
+/**
+ * Queries of ExpenseRepository that only a real MongoDB can check
+ * (aggregations, array filters), against raw documents in both stored
+ * forms (amountMinor / legacy amount).
+ */
+class ExpenseRepositoryMongoTest extends MongoContainerTest {
+
+    @Autowired private ExpenseRepository expenseRepo;
+    @Autowired private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getCollection("expenses").deleteMany(new Document());
+    }
+
+    @Test
+    void pendingApprovalsCarryTheMinorUnitAmount() {
+        insert(new Document("_id", "e1")
+                .append("teamId", "t1")
+                .append("paidByUserId", "payer")
+                .append("description", "Dinner")
+                .append("amountMinor", 1250L)
+                .append("shares", List.of(
+                        share("payer", 625L, "APPROVED"),
+                        share("u2", 625L, "PENDING_UPI_APPROVAL").append("proofImage", "data:..."))));
+
+        List<Expense> pending = expenseRepo.findPendingApprovals("t1", "payer");
+
+        assertThat(pending).hasSize(1);
+        Expense expense = pending.get(0);
+        assertThat(expense.getAmountMinor()).isEqualTo(1250L);
+        assertThat(expense.getDescription()).isEqualTo("Dinner");
+        assertThat(expense.getShares()).extracting(ExpenseShare::getUserId).containsExactly("u2");
+        assertThat(expense.getShares().get(0).getProofImage()).isNull();
+    }
+
+    @Test
+    void pendingApprovalsStillReadLegacyAmounts() {
+        insert(new Document("_id", "e2")
+                .append("teamId", "t1")
+                .append("paidByUserId", "payer")
+                .append("amount", 12.5)
+                .append("shares", List.of(
+                        new Document("userId", "u2").append("amount", 6.25).append("status", "PENDING_CASH_APPROVAL"))));
+
+        List<Expense> pending = expenseRepo.findPendingApprovals("t1", "payer");
+
+        assertThat(pending).singleElement()
+                .extracting(Expense::getAmountMinor)
+                .isEqualTo(1250L);
+    }
+
+    @Test
+    void expensesWithoutPendingSharesAreLeftOut() {
+        insert(new Document("_id", "e3")
+                .append("teamId", "t1")
+                .append("paidByUserId", "payer")
+                .append("amountMinor", 500L)
+                .append("shares", List.of(share("u2", 500L, "UNPAID"))));
+
+        assertThat(expenseRepo.findPendingApprovals("t1", "payer")).isEmpty();
+    }
+
+    @Test
+    void settleOutstandingReportsOnlyTheExpensesItUpdated() {
+        for (String id : List.of("e4", "e5")) {
+            insert(new Document("_id", id)
+                    .append("teamId", "t1")
+                    .append("paidByUserId", "payer")
+                    .append("amountMinor", 1000L)
+                    .append("version", 0L)
+                    .append("shares", List.of(share("payer", 500L, "APPROVED"), share("u2", 500L, "UNPAID"))));
+        }
+
+        List<Expense> outstanding = expenseRepo.findOutstanding("t1", "payer");
+
+        // e5 changes after it was loaded → its version no longer matches
+        mongoTemplate.getCollection("expenses").updateOne(new Document("_id", "e5"),
+                new Document("$inc", new Document("version", 1L)));
+
+        assertThat(expenseRepo.settleOutstanding(outstanding)).containsExactly("e4");
+        assertThat(expenseRepo.findById("e4").orElseThrow().getShares())
+                .extracting(ExpenseShare::getStatus).containsOnly("APPROVED");
+        assertThat(expenseRepo.findById("e5").orElseThrow().getShares().get(1).getStatus()).isEqualTo("UNPAID");
+    }
+
+    private void insert(Document expense) {
+        mongoTemplate.getCollection("expenses").insertOne(expense);
+    }
+
+    private static Document share(String userId, long amountMinor, String status) {
+        return new Document("userId", userId).append("amountMinor", amountMinor).append("status", status);
+    }
+}
@@ -0,0 +1,112 @@
+package com.expensetracker.backend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.RevokedSessionRepository;
+import com.expensetracker.backend.service.JwtService;
+import com.expensetracker.backend.service.RevocationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private RevocationService revocationService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService(Duration.ofMinutes(15));
+        revocationService = new RevocationService(mock(RevokedSessionRepository.class), jwtService,
+                new SimpleMeterRegistry(), Duration.ofDays(14), Duration.ofSeconds(30));
+        filter = new JwtAuthenticationFilter(jwtService, revocationService);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenAuthenticatesTheCaller() throws Exception {
+        Authentication authentication = filter(jwtService.generateToken(user(), "s1"));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal())
+                .isEqualTo(new AuthenticatedUser("u1", "u1@example.com", Set.of("t1", "t2")));
+    }
+
+    @Test
+    void expiredTokenIsIgnored() throws Exception {
+        String expired = jwtService(Duration.ofSeconds(-1)).generateToken(user(), "s1");
+
+        assertThat(filter(expired)).isNull();
+    }
+
+    @Test
+    void tokenWithoutSessionIsIgnored() throws Exception {
+        assertThat(filter(jwtService.generateToken(user(), null))).isNull();
+    }
+
+    @Test
+    void tokenOfRevokedSessionIsIgnored() throws Exception {
+        String token = jwtService.generateToken(user(), "s1");
+        revocationService.revoke("s1");
+
+        assertThat(filter(token)).isNull();
+        assertThat(filter(jwtService.generateToken(user(), "s2"))).isNotNull();
+    }
+
+    @Test
+    void requestWithoutHeaderStaysAnonymous() throws Exception {
+        assertThat(filter(null)).isNull();
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    /**
+     * Runs the filter for one request and returns what it put into the
+     * security context (the chain still runs either way).
+     */
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/teams");
+        if (token != null) request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtService jwtService(Duration accessTtl) {
+        return new JwtService(new SimpleMeterRegistry(), 100, accessTtl);
+    }
+
+    private static User user() {
+        User user = new User("Ada", "Lovelace", "u1@example.com", "hash");
+        user.setId("u1");
+        user.setTeamIds(List.of("t1", "t2"));
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.expensetracker.backend.localperf.InMemoryOutboxEmailRepository;
+import com.expensetracker.backend.localperf.LocalSmtpServer;
+import com.expensetracker.backend.localperf.TestConverters;
+import com.expensetracker.backend.model.OutboxEmail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * drain() end to end: in-memory outbox → JavaMailSender → LocalSmtpServer
+ * on a free local port, with its fail-rate deciding which recipients are
+ * rejected (451).
+ */
+class EmailOutboxWorkerTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(2);
+
+    private final InMemoryOutboxEmailRepository outbox =
+            new InMemoryOutboxEmailRepository(TestConverters.mongoConverter());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LocalSmtpServer smtp;
+
+    @AfterEach
+    void stopSmtp() {
+        if (smtp != null) ReflectionTestUtils.invokeMethod(smtp, "stop");
+    }
+
+    @Test
+    void deliveredBatchIsMarkedSent() {
+        EmailOutboxWorker worker = worker(0.0, 8, Duration.ofSeconds(30));
+        List<String> ids = queue(3);
+
+        assertThat(worker.drain()).isEqualTo(3);
+
+        assertThat(ids).allSatisfy(id -> {
+            OutboxEmail email = outbox.findById(id).orElseThrow();
+            assertThat(email.getStatus()).isEqualTo("SENT");
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getSentAt()).isNotNull();
+        });
+        assertThat(accepted()).isEqualTo(3);
+        assertThat(meterRegistry.counter("email.outbox.sent").count()).isEqualTo(3);
+        assertThat(worker.drain()).isZero();
+    }
+
+    @Test
+    void rejectedEmailIsRetriedThenDeadLettered() {
+        // No backoff, so every retry is due at once
+        EmailOutboxWorker worker = worker(1.0, 3, Duration.ZERO);
+        String id = queue(1).get(0);
+
+        assertThat(worker.drain()).isEqualTo(1);
+        OutboxEmail first = outbox.findById(id).orElseThrow();
+        assertThat(first.getStatus()).isEqualTo("PENDING");
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getLastError()).contains("451");
+
+        assertThat(worker.drain()).isEqualTo(1);
+        assertThat(outbox.findById(id).orElseThrow().getStatus()).isEqualTo("PENDING");
+
+        assertThat(worker.drain()).isEqualTo(1);
+        OutboxEmail dead = outbox.findById(id).orElseThrow();
+        assertThat(dead.getStatus()).isEqualTo("DEAD");
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getNextAttemptAt()).isNull();
+        assertThat(dead.getLastError()).contains("451");
+
+        assertThat(worker.drain()).isZero();
+        assertThat(meterRegistry.counter("email.outbox.retried").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("email.outbox.dead").count()).isEqualTo(1);
+        assertThat(accepted()).isZero();
+    }
+
+    @Test
+    void failedEmailBacksOffExponentiallyWithJitter() {
+        EmailOutboxWorker worker = worker(1.0, 8, Duration.ofSeconds(30));
+        String id = queue(1).get(0);
+
+        Instant before = Instant.now();
+        worker.drain();
+
+        // attempts = 1 → 30 s, jittered down to no less than half
+        Instant next = outbox.findById(id).orElseThrow().getNextAttemptAt();
+        assertThat(next).isBetween(before.plusSeconds(15), Instant.now().plusSeconds(30));
+        assertThat(worker.drain()).isZero();
+    }
+
+    @Test
+    void onlyTheRejectedEmailsOfABatchAreRetried() {
+        EmailOutboxWorker worker = worker(0.5, 8, Duration.ofSeconds(30));
+        List<String> ids = queue(20);
+
+        assertThat(worker.drain()).isEqualTo(20);
+
+        List<String> statuses = ids.stream().map(id -> outbox.findById(id).orElseThrow().getStatus()).toList();
+        assertThat(statuses).containsOnly("SENT", "PENDING");
+        assertThat(statuses.stream().filter("SENT"::equals).count()).isEqualTo(accepted());
+        assertThat(outbox.countByStatus("PENDING")).isEqualTo(20 - accepted());
+    }
+
+    @Test
+    void claimOfACrashedWorkerIsTakenOverAfterItsLease() {
+        EmailOutboxWorker worker = worker(0.0, 8, Duration.ofSeconds(30));
+        String id = queue(1).get(0);
+
+        // Claimed by a worker that died before recording the outcome
+        outbox.claimDue(10, Instant.now(), LEASE);
+        assertThat(worker.drain()).isZero();
+
+        outbox.findById(id).ifPresent(email -> {
+            email.setNextAttemptAt(Instant.now().minusSeconds(1));   // lease ran out
+            outbox.save(email);
+        });
+        assertThat(worker.drain()).isEqualTo(1);
+
+        OutboxEmail email = outbox.findById(id).orElseThrow();
+        assertThat(email.getStatus()).isEqualTo("SENT");
+        assertThat(email.getAttempts()).isEqualTo(2);
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    private EmailOutboxWorker worker(double failRate, int maxAttempts, Duration initialBackoff) {
+        smtp = new LocalSmtpServer();
+        ReflectionTestUtils.setField(smtp, "port", 0);   // any free port
+        ReflectionTestUtils.setField(smtp, "failRate", failRate);
+        ReflectionTestUtils.invokeMethod(smtp, "start");
+        ServerSocket socket = (ServerSocket) ReflectionTestUtils.getField(smtp, "serverSocket");
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(socket.getLocalPort());
+
+        return new EmailOutboxWorker(outbox, mailSender, meterRegistry,
+                50, Duration.ofSeconds(5), LEASE, maxAttempts, initialBackoff, Duration.ofHours(1));
+    }
+
+    private List<String> queue(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> outbox.save(new OutboxEmail("user" + i + "@example.com", "Subject " + i, "Text")).getId())
+                .toList();
+    }
+
+    private long accepted() {
+        return ((AtomicLong) ReflectionTestUtils.getField(smtp, "received")).get();
+    }
+}
@@ -0,0 +1,99 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.expensetracker.backend.model.Team;
+import com.expensetracker.backend.model.User;
+import com.expensetracker.backend.repository.TeamRepository;
+import com.expensetracker.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EntityCacheServiceTest {
+
+    private UserRepository userRepo;
+    private TeamRepository teamRepo;
+    private EntityCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(UserRepository.class);
+        teamRepo = mock(TeamRepository.class);
+        cache = new EntityCacheService(userRepo, teamRepo, new SimpleMeterRegistry(),
+                32, 8, 1000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void userSavedWhileLoadingByEmailIsNotCachedStale() {
+        User before = user("old@example.com");
+        User after = user("new@example.com");
+
+        // The email query reads the old user; the save (and its
+        // invalidation) lands before that lookup has finished
+        when(userRepo.findByEmail("old@example.com")).thenAnswer(invocation -> {
+            when(userRepo.findById("u1")).thenReturn(Optional.of(after));
+            cache.userChanged(after);
+            return Optional.of(before);
+        }).thenReturn(Optional.empty());
+
+        assertThat(cache.findUserByEmail("old@example.com")).isEmpty();
+        assertThat(cache.findUser("u1")).get().extracting(User::getEmail).isEqualTo("new@example.com");
+    }
+
+    @Test
+    void teamSavedWhileLoadingByJoinCodeIsNotCachedStale() {
+        Team before = team("OLDCODE234");
+        Team after = team("NEWCODE567");
+
+        when(teamRepo.findByJoinCode("OLDCODE234")).thenAnswer(invocation -> {
+            when(teamRepo.findById("t1")).thenReturn(Optional.of(after));
+            cache.teamChanged(after);
+            return Optional.of(before);
+        }).thenReturn(Optional.empty());
+
+        assertThat(cache.findTeamByJoinCode("OLDCODE234")).isEmpty();
+        assertThat(cache.findTeam("t1")).get().extracting(Team::getJoinCode).isEqualTo("NEWCODE567");
+    }
+
+    @Test
+    void lookupByKeyFillsTheEntityCache() {
+        User user = user("a@example.com");
+        when(userRepo.findByEmail("a@example.com")).thenReturn(Optional.of(user));
+        when(userRepo.findById("u1")).thenReturn(Optional.of(user));
+
+        assertThat(cache.findUserByEmail("a@example.com")).contains(user);
+
+        // Served from the caches: the repository now answers nothing
+        when(userRepo.findByEmail("a@example.com")).thenReturn(Optional.empty());
+        when(userRepo.findById("u1")).thenReturn(Optional.empty());
+        assertThat(cache.findUserByEmail("a@example.com")).contains(user);
+        assertThat(cache.findUser("u1")).contains(user);
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    private static User user(String email) {
+        User user = new User("Ada", "Lovelace", email, "hash");
+        user.setId("u1");
+        return user;
+    }
+
+    private static Team team(String joinCode) {
+        Team team = new Team();
+        ReflectionTestUtils.setField(team, "id", "t1");
+        team.setTeamName("Trip");
+        team.setJoinCode(joinCode);
+        return team;
+    }
+}
@@ -0,0 +1,99 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+
+class ExpenseSplitServiceTest {
+
+    private final ExpenseSplitService service = new ExpenseSplitService();
+
+    private static final List<String> MEMBERS = List.of("a", "b", "c");
+
+    @Test
+    void membersOnlyExpenseIsAccepted() {
+        Expense expense = custom("a", "a", "b");
+
+        assertThatCode(() -> service.requireMembers(expense, MEMBERS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void payerOutsideTheTeamIsRejected() {
+        Expense expense = custom("x", "a", "b");
+
+        assertThatThrownBy(() -> service.requireMembers(expense, MEMBERS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Payer is not a member of this team");
+    }
+
+    @Test
+    void shareForAnOutsiderIsRejected() {
+        Expense expense = custom("a", "b", "x");
+
+        assertThatThrownBy(() -> service.requireMembers(expense, MEMBERS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User x is not a member of this team");
+    }
+
+    @Test
+    void malformedBodiesAreRejectedAsInvalidInput() {
+        List<Map<String, Object>> bodies = List.of(
+                weighted(Map.of()),                                   // "weight": {}
+                weighted(List.of(1, 2)),                              // "weight": [1, 2]
+                weighted(2.5),
+                Map.of("teamId", "t1", "paidByUserId", "a", "amount", "10",
+                        "shares", List.of(Map.of("userId", "a"))),                    // no share amount
+                Map.of("teamId", "t1", "paidByUserId", "a", "amount", Map.of(),
+                        "splitType", "EQUAL", "shares", List.of(Map.of("userId", "a"))),
+                Map.of("teamId", 7, "paidByUserId", "a", "amount", "10",
+                        "splitType", "EQUAL", "shares", List.of(Map.of("userId", "a"))),
+                Map.of("teamId", "t1", "paidByUserId", "a", "amount", "10",
+                        "splitType", "EQUAL", "shares", "a"),
+                Map.of("teamId", "t1", "paidByUserId", "a", "amount", "10",
+                        "splitType", "EQUAL", "shares", List.of("a")),
+                Map.of("teamId", "t1", "paidByUserId", "a", "amount", "10",
+                        "splitType", "EQUAL", "shares", List.of(Map.of("userId", 1))));
+
+        for (Map<String, Object> body : bodies) {
+            assertThatThrownBy(() -> service.parseCustomSplit(body))
+                    .as(body.toString())
+                    .isExactlyInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void weightsMayBeNumbersOrNumericStrings() {
+        Expense expense = service.parseCustomSplit(Map.of(
+                "teamId", "t1", "paidByUserId", "a", "amount", 10, "splitType", "WEIGHTED",
+                "shares", List.of(Map.of("userId", "a", "weight", 1), Map.of("userId", "b", "weight", "3"))));
+
+        assertThat(expense.getShares()).extracting(ExpenseShare::getAmountMinor).containsExactly(250L, 750L);
+    }
+
+    private static Map<String, Object> weighted(Object weight) {
+        return Map.of("teamId", "t1", "paidByUserId", "a", "amount", "10", "splitType", "WEIGHTED",
+                "shares", List.of(Map.of("userId", "a", "weight", weight)));
+    }
+
+    private Expense custom(String payer, String... shareholders) {
+        List<Map<String, Object>> shares = Arrays.stream(shareholders)
+                .<Map<String, Object>>map(uid -> Map.of("userId", uid))
+                .toList();
+
+        return service.parseCustomSplit(Map.of(
+                "teamId", "t1",
+                "paidByUserId", payer,
+                "amount", "10",
+                "splitType", "EQUAL",
+                "shares", shares));
+    }
+}
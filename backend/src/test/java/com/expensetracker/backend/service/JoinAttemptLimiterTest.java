@@ -0,0 +1,38 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JoinAttemptLimiterTest {
+
+    @Test
+    void blocksAfterTooManyFailuresPerUser() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JoinAttemptLimiter limiter = new JoinAttemptLimiter(registry, 3, Duration.ofMinutes(15));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("u1")).isTrue();
+            limiter.recordFailure("u1");
+        }
+
+        assertThat(limiter.tryAcquire("u1")).isFalse();
+        assertThat(limiter.tryAcquire("u2")).isTrue();
+        assertThat(registry.counter("team.join.blocked").count()).isEqualTo(1);
+    }
+
+    @Test
+    void blockEndsWithTheWindow() throws InterruptedException {
+        JoinAttemptLimiter limiter = new JoinAttemptLimiter(new SimpleMeterRegistry(), 1, Duration.ofMillis(50));
+
+        limiter.recordFailure("u1");
+        assertThat(limiter.tryAcquire("u1")).isFalse();
+
+        Thread.sleep(100);
+        assertThat(limiter.tryAcquire("u1")).isTrue();
+    }
+}
@@ -0,0 +1,46 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTest {
+
+    // Lowest BCrypt cost: keeps the test fast
+    private final PasswordHashingService service = service(4);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void encodedPasswordMatches() {
+        String hash = service.encode("secret");
+
+        assertThat(service.matches("secret", hash)).isTrue();
+        assertThat(service.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    void hashWithALowerCostThanConfiguredNeedsRehash() {
+        PasswordHashingService stronger = service(5);
+        try {
+            String hash = service.encode("secret");
+
+            assertThat(service.needsRehash(hash)).isFalse();
+            assertThat(stronger.needsRehash(hash)).isTrue();
+            assertThat(stronger.needsRehash(null)).isFalse();
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    private static PasswordHashingService service(int cost) {
+        return new PasswordHashingService(new BCryptPasswordEncoder(cost), new SimpleMeterRegistry(), 1, 8, 5000);
+    }
+}
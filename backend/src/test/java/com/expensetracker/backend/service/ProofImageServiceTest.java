@@ -0,0 +1,61 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.expensetracker.backend.localperf.InMemoryProofImageRepository;
+import com.expensetracker.backend.localperf.TestConverters;
+import com.expensetracker.backend.model.ProofImage;
+
+class ProofImageServiceTest {
+
+    // Smallest valid PNG signature + IHDR start is enough for type detection
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    private InMemoryProofImageRepository repository;
+    private ProofImageService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryProofImageRepository(TestConverters.mongoConverter());
+        service = new ProofImageService();
+        ReflectionTestUtils.setField(service, "imageRepo", repository);
+    }
+
+    @Test
+    void prepareStoresNothingUntilSaved() {
+        ProofImage image = service.prepare("data:image/png;base64," + Base64.getEncoder().encodeToString(PNG));
+
+        assertThat(image.getContentType()).isEqualTo("image/png");
+        assertThat(repository.count()).isZero();
+
+        service.save(image);
+        service.save(image);   // same bytes → stored once
+
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(service.find(image.getId())).isPresent();
+    }
+
+    @Test
+    void idDependsOnlyOnTheBytes() {
+        String base64 = Base64.getEncoder().encodeToString(PNG);
+
+        assertThat(service.prepare(base64).getId())
+                .isEqualTo(service.prepare("data:image/png;base64," + base64).getId());
+        assertThat(service.prepare(" ")).isNull();
+    }
+
+    @Test
+    void nonImageIsRejectedBeforeAnythingIsStored() {
+        String text = Base64.getEncoder().encodeToString("<html>".getBytes());
+
+        assertThatThrownBy(() -> service.prepare(text)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.count()).isZero();
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.expensetracker.backend.model.RevokedSession;
+import com.expensetracker.backend.repository.RevokedSessionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RevocationServiceTest {
+
+    private RevokedSessionRepository repository;
+    private RevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedSessionRepository.class);
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.getAccessTtl()).thenReturn(Duration.ofMinutes(15));
+
+        service = new RevocationService(repository, jwtService, new SimpleMeterRegistry(),
+                Duration.ofDays(14), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void revokedSessionIsRefusedAtOnce() {
+        service.revoke("s1");
+
+        assertThat(service.isRevoked("s1")).isTrue();
+        assertThat(service.isRevoked("s2")).isFalse();
+        assertThat(service.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void reloadPicksUpRevocationsFromOtherInstances() {
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(stored("remote", 1)));
+
+        service.reload();
+
+        assertThat(service.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void reloadKeepsRevocationsAddedWhileTheQueryRan() {
+        // The local revoke lands after the query read the collection
+        when(repository.findByRevokedAtAfter(any())).thenAnswer(invocation -> {
+            service.revoke("local");
+            return List.of(stored("remote", 1));
+        });
+
+        service.reload();
+
+        assertThat(service.isRevoked("local")).isTrue();
+        assertThat(service.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void revocationOlderThanAnAccessTokenLeavesTheSnapshot() {
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(stored("old", 16 * 60)));
+
+        service.reload();
+
+        assertThat(service.isRevoked("old")).isFalse();
+    }
+
+    @Test
+    void revocationIsStoredForTheRefreshTokenLifetime() {
+        ArgumentCaptor<RevokedSession> saved = ArgumentCaptor.forClass(RevokedSession.class);
+
+        service.revoke("s1");
+
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getExpiresAt())
+                .isAfter(Instant.now().plus(Duration.ofDays(14)).minusSeconds(60));
+    }
+
+    @Test
+    void databaseCheckDoesNotUseTheSnapshot() {
+        when(repository.existsById("remote")).thenReturn(true);
+
+        assertThat(service.isRevoked("remote")).isFalse();           // not reloaded yet
+        assertThat(service.isRevokedInDatabase("remote")).isTrue();
+        assertThat(service.isRevokedInDatabase(null)).isFalse();
+    }
+
+    private static RevokedSession stored(String sessionId, long revokedSecondsAgo) {
+        Instant revokedAt = Instant.now().minusSeconds(revokedSecondsAgo);
+        return new RevokedSession(sessionId, revokedAt, revokedAt.plus(Duration.ofDays(14)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.expensetracker.backend.dto.Transfer;
+
+class SettlePlanServiceTest {
+
+    private final SettlePlanService service = new SettlePlanService();
+
+    @Test
+    void balancedTeamNeedsNoTransfers() {
+        assertThat(service.plan(Map.of())).isEmpty();
+        assertThat(service.plan(Map.of("a", 0L, "b", 0L, "c", 0L))).isEmpty();
+    }
+
+    @Test
+    void chainCollapsesToOnePayment() {
+        // A owes B 10, B owes C 10 → B nets out, A pays C directly
+        List<Transfer> plan = service.plan(Map.of("a", -1000L, "b", 0L, "c", 1000L));
+
+        assertThat(plan)
+                .extracting(Transfer::getFromUserId, Transfer::getToUserId, Transfer::getAmountMinor)
+                .containsExactly(tuple("a", "c", 1000L));
+    }
+
+    @Test
+    void largestDebtorPaysLargestCreditorFirst() {
+        List<Transfer> plan = service.plan(Map.of("a", -700L, "b", -300L, "c", 600L, "d", 400L));
+
+        assertThat(plan)
+                .extracting(Transfer::getFromUserId, Transfer::getToUserId, Transfer::getAmountMinor)
+                .containsExactly(
+                        tuple("a", "c", 600L),    // a still owes 100
+                        tuple("b", "d", 300L),    // b (300) is now the largest debtor
+                        tuple("a", "d", 100L));
+    }
+
+    @Test
+    void tiesAreBrokenByUserId() {
+        List<Transfer> plan = service.plan(Map.of("y", -500L, "x", -500L, "q", 500L, "p", 500L));
+
+        assertThat(plan)
+                .extracting(Transfer::getFromUserId, Transfer::getToUserId)
+                .containsExactly(tuple("x", "p"), tuple("y", "q"));
+    }
+
+    @Test
+    void planSettlesEveryBalanceExactly() {
+        Random random = new Random(7);
+
+        for (int run = 0; run < 200; run++) {
+            int users = 2 + random.nextInt(30);
+
+            // Random balances that sum to zero, like a ledger
+            Map<String, Long> balances = new HashMap<>();
+            long sum = 0;
+            for (int i = 1; i < users; i++) {
+                long balance = random.nextInt(200_001) - 100_000;
+                balances.put("u" + i, balance);
+                sum += balance;
+            }
+            balances.put("u0", -sum);
+
+            List<Transfer> plan = service.plan(balances);
+
+            // Applying the transfers brings everyone to zero
+            Map<String, Long> after = new HashMap<>(balances);
+            for (Transfer t : plan) {
+                assertThat(t.getAmountMinor()).isPositive();
+                after.merge(t.getFromUserId(), t.getAmountMinor(), Long::sum);
+                after.merge(t.getToUserId(), -t.getAmountMinor(), Long::sum);
+            }
+            assertThat(after.values()).allMatch(balance -> balance == 0);
+
+            // At most users - 1 payments
+            assertThat(plan.size()).isLessThanOrEqualTo(users - 1);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.expensetracker.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.expensetracker.backend.localperf.InMemoryTeamBalanceRepository;
+import com.expensetracker.backend.localperf.TestConverters;
+import com.expensetracker.backend.model.Expense;
+import com.expensetracker.backend.model.ExpenseShare;
+import com.expensetracker.backend.model.TeamBalance;
+import com.expensetracker.backend.repository.ExpenseRepository;
+
+/**
+ * Ledger rebuild protocol (begin / applyDeltas / markDirty / build lease),
+ * against the in-memory ledger repository (same conditional updates as
+ * TeamBalanceRepositoryImpl). Races are staged inside the rebuild's count.
+ */
+class TeamBalanceServiceTest {
+
+    private InMemoryTeamBalanceRepository balanceRepo;
+    private TeamBalanceService service;
+
+    // The team's stored expenses, and what happens while a rebuild counts them
+    private final List<Expense> expenses = new ArrayList<>();
+    private final AtomicInteger counts = new AtomicInteger();
+    private Runnable duringCount = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        balanceRepo = new InMemoryTeamBalanceRepository(TestConverters.mongoConverter());
+
+        ExpenseRepository expenseRepo = mock(ExpenseRepository.class);
+        when(expenseRepo.streamTeamExpenses(eq("t1"), isNull())).thenAnswer(invocation -> {
+            counts.incrementAndGet();
+            List<Expense> snapshot = List.copyOf(expenses);   // what the cursor sees
+            duringCount.run();
+            return snapshot.stream();
+        });
+
+        service = new TeamBalanceService();
+        ReflectionTestUtils.setField(service, "balanceRepo", balanceRepo);
+        ReflectionTestUtils.setField(service, "expenseRepo", expenseRepo);
+    }
+
+    @Test
+    void deltaRacingARebuildMakesItCountAgain() {
+        expenses.add(expense(500));
+
+        // Saved while the first count runs, after the cursor passed it
+        Expense late = expense(300);
+        duringCount = once(() -> {
+            TeamBalanceService.Ticket ticket = service.begin("t1");
+            assertThat(ticket.ready()).isFalse();
+            expenses.add(late);
+            service.recordExpenseAdded(ticket, late);
+        });
+
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 800L, "member", -800L));
+        assertThat(counts).hasValue(2);
+        assertThat(ledger().isBuilding()).isFalse();
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 800L, "member", -800L));
+    }
+
+    @Test
+    void deltaFromBeforeAFinishedRebuildTriggersANewOne() {
+        expenses.add(expense(500));
+        service.getBalances("t1");
+
+        // Ticket read, then a rebuild completes before the change is saved
+        TeamBalanceService.Ticket ticket = service.begin("t1");
+        long epoch = balanceRepo.startBuild("t1", Instant.now()).getEpoch();
+        balanceRepo.finishBuild("t1", epoch, Map.of("payer", 500L, "member", -500L));
+
+        Expense added = expense(300);
+        expenses.add(added);
+        service.recordExpenseAdded(ticket, added);
+
+        // Applied once (by a recount), not on top of it
+        assertThat(ledger().getEpoch()).isGreaterThan(epoch);
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 800L, "member", -800L));
+    }
+
+    @Test
+    void deltaOnAReadyLedgerIsAppliedInPlace() {
+        expenses.add(expense(500));
+        service.getBalances("t1");
+        long epoch = ledger().getEpoch();
+
+        TeamBalanceService.Ticket ticket = service.begin("t1");
+        Expense added = expense(300);
+        expenses.add(added);
+        service.recordExpenseAdded(ticket, added);
+
+        assertThat(ledger().getEpoch()).isEqualTo(epoch);
+        assertThat(counts).hasValue(1);
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 800L, "member", -800L));
+    }
+
+    @Test
+    void rebuildWhoseLeaseExpiredIsTakenOver() {
+        expenses.add(expense(500));
+        balanceRepo.startBuild("t1", Instant.now().minus(Duration.ofMinutes(2)));   // builder died
+
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 500L, "member", -500L));
+        assertThat(ledger().isBuilding()).isFalse();
+        assertThat(ledger().getBalances()).isEqualTo(Map.of("payer", 500L, "member", -500L));
+    }
+
+    @Test
+    void runningRebuildIsNotTakenOver() {
+        expenses.add(expense(500));
+        TeamBalance building = balanceRepo.startBuild("t1", Instant.now());
+
+        // Counted directly; the ledger still belongs to its builder
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 500L, "member", -500L));
+        assertThat(ledger().isBuilding()).isTrue();
+        assertThat(ledger().getEpoch()).isEqualTo(building.getEpoch());
+    }
+
+    @Test
+    void rebuildThatKeepsGettingDirtyGivesUpAndStaysBuilding() {
+        expenses.add(expense(500));
+        duringCount = () -> balanceRepo.markDirty("t1");
+
+        assertThat(service.getBalances("t1")).isEqualTo(Map.of("payer", 500L, "member", -500L));
+        assertThat(counts).hasValue(3);   // MAX_BUILD_ATTEMPTS
+        assertThat(ledger().isBuilding()).isTrue();
+    }
+
+    // -----------------------------------------------------------------------
+    // Helpers
+    // -----------------------------------------------------------------------
+
+    private TeamBalance ledger() {
+        return balanceRepo.findById("t1").orElseThrow();
+    }
+
+    private static Runnable once(Runnable action) {
+        AtomicInteger runs = new AtomicInteger();
+        return () -> {
+            if (runs.getAndIncrement() == 0) action.run();
+        };
+    }
+
+    private static Expense expense(long memberShareMinor) {
+        Expense expense = new Expense();
+        expense.setTeamId("t1");
+        expense.setPaidByUserId("payer");
+        expense.setAmountMinor(1000);
+        expense.setShares(new ArrayList<>(List.of(
+                new ExpenseShare("payer", 1000 - memberShareMinor, true),
+                new ExpenseShare("member", memberShareMinor, false))));
+        return expense;
+    }
+}
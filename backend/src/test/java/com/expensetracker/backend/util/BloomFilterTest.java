@@ -0,0 +1,58 @@
+package com.expensetracker.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 10_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void everyPutKeyIsFound() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        List<String> keys = sessionIds(new Random(1), KEYS);
+        keys.forEach(filter::put);
+
+        assertThat(keys).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateIsNearTheTarget() {
+        for (double target : new double[] { 0.01, 0.001 }) {
+            BloomFilter filter = new BloomFilter(KEYS, target);
+            sessionIds(new Random(2), KEYS).forEach(filter::put);
+
+            // Keys from another seed were never put
+            long falsePositives = sessionIds(new Random(3), PROBES).stream()
+                    .filter(filter::mightContain)
+                    .count();
+            double rate = (double) falsePositives / PROBES;
+
+            assertThat(rate).as("false-positive rate for target %s", target)
+                    .isLessThan(target * 1.5);
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1024, 0.01);
+
+        assertThat(sessionIds(new Random(4), 1000)).noneMatch(filter::mightContain);
+    }
+
+    // Random but repeatable UUIDs, like the "sid" claim
+    private static List<String> sessionIds(Random random, int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class JoinCodesTest {
+
+    @Test
+    void codesUseTheUnambiguousAlphabet() {
+        for (int i = 0; i < 1000; i++) {
+            String code = JoinCodes.generate();
+
+            assertThat(code).hasSize(10).matches("[A-HJKMNP-Z2-9]+");
+            assertThat(JoinCodes.isLegacy(code)).isFalse();
+        }
+    }
+
+    @Test
+    void codesDoNotRepeat() {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            codes.add(JoinCodes.generate());
+        }
+        assertThat(codes).hasSize(100_000);
+    }
+
+    @Test
+    void timestampCodesAreLegacy() {
+        assertThat(JoinCodes.isLegacy("6AD528DE")).isTrue();
+        assertThat(JoinCodes.isLegacy("6ad528de")).isTrue();
+        assertThat(JoinCodes.isLegacy("PERF00001")).isFalse();
+        assertThat(JoinCodes.isLegacy(null)).isFalse();
+    }
+}
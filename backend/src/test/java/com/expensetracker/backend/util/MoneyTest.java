@@ -0,0 +1,47 @@
+package com.expensetracker.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void toMinorRoundsHalfUp() {
+        assertThat(Money.toMinor(new BigDecimal("0.125"))).isEqualTo(13);
+        assertThat(Money.toMinor(new BigDecimal("2.345"))).isEqualTo(235);  // half-to-even would give 234
+        assertThat(Money.toMinor(new BigDecimal("0.124"))).isEqualTo(12);
+    }
+
+    @Test
+    void doublesUseTheirShortestDecimalForm() {
+        // 1.005 is 1.00499999999999989… as a double; the decimal "1.005" is meant
+        assertThat(Money.toMinor(1.005)).isEqualTo(101);
+        assertThat(Money.toMinor(0.1)).isEqualTo(10);
+        assertThat(Money.toMinor(19.99)).isEqualTo(1999);
+    }
+
+    @Test
+    void parseMinorAcceptsNumbersAndStrings() {
+        assertThat(Money.parseMinor("12.5")).isEqualTo(1250);
+        assertThat(Money.parseMinor(" 3 ")).isEqualTo(300);
+        assertThat(Money.parseMinor(12.5)).isEqualTo(1250);
+
+        assertThatThrownBy(() -> Money.parseMinor(null)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Money.parseMinor("abc")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void toMajorRoundTrips() {
+        assertThat(Money.toMajor(1999)).isEqualTo(19.99);
+        assertThat(Money.toMinor(Money.toMajor(1999))).isEqualTo(1999);
+    }
+
+    @Test
+    void amountsBeyondLongAreRejected() {
+        assertThatThrownBy(() -> Money.toMinor(new BigDecimal("1e30"))).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.expensetracker.backend.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SplitEngineTest {
+
+    // -----------------------------------------------------------------------
+    // equal
+    // -----------------------------------------------------------------------
+
+    @Test
+    void equalSplitGivesTheRemainderToTheFirstParts() {
+        long[] out = new long[3];
+        SplitEngine.equal(10000, out);
+        assertThat(out).containsExactly(3334, 3333, 3333);
+
+        out = new long[4];
+        SplitEngine.equal(10, out);
+        assertThat(out).containsExactly(3, 3, 2, 2);
+    }
+
+    @Test
+    void equalSplitOfLessThanOneUnitPerPart() {
+        long[] out = new long[5];
+        SplitEngine.equal(2, out);
+        assertThat(out).containsExactly(1, 1, 0, 0, 0);
+    }
+
+    @Test
+    void equalSplitRejectsNobodyAndNegativeAmounts() {
+        assertThatThrownBy(() -> SplitEngine.equal(100, new long[0])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitEngine.equal(-1, new long[2])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // -----------------------------------------------------------------------
+    // weighted
+    // -----------------------------------------------------------------------
+
+    @Test
+    void weightedSplitUsesLargestRemainder() {
+        // 1000 by 1:1:1:3 → quotas 166.67, 166.67, 166.67, 500 → 2 units left;
+        // the three equal remainders get them in member order
+        long[] out = new long[4];
+        SplitEngine.weighted(1000, new long[] { 1, 1, 1, 3 }, out);
+        assertThat(out).containsExactly(167, 167, 166, 500);
+
+        // 100 by 3:3:1 → 42.857, 42.857, 14.286 → the two .857 get the 2 units
+        out = new long[3];
+        SplitEngine.weighted(100, new long[] { 3, 3, 1 }, out);
+        assertThat(out).containsExactly(43, 43, 14);
+
+        // The largest remainder wins over member order: 10 by 1:2 → 3.33, 6.67
+        out = new long[2];
+        SplitEngine.weighted(10, new long[] { 1, 2 }, out);
+        assertThat(out).containsExactly(3, 7);
+    }
+
+    @Test
+    void weightedSplitSkipsZeroWeights() {
+        long[] out = new long[3];
+        SplitEngine.weighted(101, new long[] { 0, 1, 1 }, out);
+        assertThat(out).containsExactly(0, 51, 50);
+    }
+
+    @Test
+    void weightedSplitAlwaysAddsUpToTheTotal() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 1000; run++) {
+            int n = 1 + random.nextInt(12);
+            long total = random.nextInt(1_000_000);
+            long[] weights = new long[n];
+            for (int i = 0; i < n; i++) weights[i] = random.nextInt(100);
+            weights[random.nextInt(n)] += 1;   // at least one positive
+
+            long[] out = new long[n];
+            SplitEngine.weighted(total, weights, out);
+
+            assertThat(Arrays.stream(out).sum()).isEqualTo(total);
+        }
+    }
+
+    @Test
+    void weightedSplitRejectsInvalidWeights() {
+        assertThatThrownBy(() -> SplitEngine.weighted(100, new long[] { 0, 0 }, new long[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitEngine.weighted(100, new long[] { 1, -1 }, new long[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitEngine.weighted(100, new long[] { 1, 1 }, new long[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitEngine.weighted(Long.MAX_VALUE, new long[] { 2, 1 }, new long[2]))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    // -----------------------------------------------------------------------
+    // exact
+    // -----------------------------------------------------------------------
+
+    @Test
+    void exactSplitAcceptsPartsThatAddUp() {
+        SplitEngine.exact(1000, new long[] { 250, 750 });
+        SplitEngine.exact(0, new long[] { 0, 0 });
+    }
+
+    @Test
+    void exactSplitRejectsAMismatch() {
+        assertThatThrownBy(() -> SplitEngine.exact(1000, new long[] { 250, 749 }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Shares add up to 9.99 but the amount is 10.0");
+    }
+
+    @Test
+    void exactSplitRejectsNegativeParts() {
+        assertThatThrownBy(() -> SplitEngine.exact(1000, new long[] { 1100, -100 }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
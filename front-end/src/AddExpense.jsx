@@ -2,6 +2,7 @@
 import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function AddExpense() {
   const navigate = useNavigate();
@@ -35,7 +36,7 @@ export default function AddExpense() {
     if (!userId) return;
     (async () => {
       try {
-        const r = await fetch(`${API_BASE}/api/team/my-teams/${userId}`);
+        const r = await authFetch(`${API_BASE}/api/team/my-teams/${userId}`);
         // handle non-json
         const data = await (r.ok ? r.json() : Promise.resolve([]));
         setTeams(Array.isArray(data) ? data : []);
@@ -57,7 +58,7 @@ export default function AddExpense() {
 
     (async () => {
       try {
-        const r = await fetch(`${API_BASE}/api/team/members/${teamId}`);
+        const r = await authFetch(`${API_BASE}/api/team/members/${teamId}`);
         const data = await (r.ok ? r.json() : Promise.resolve([]));
         const arr = Array.isArray(data) ? data : [];
         setMembers(arr);
@@ -127,11 +128,13 @@ export default function AddExpense() {
       paidByUserId: userId,
       amount: Number(amount),
       description,
+      // equal split: the backend divides to the exact cent
+      ...(splitType === "custom" ? {} : { splitType: "EQUAL" }),
       shares: sharesArray,
     };
 
     try {
-      const res = await fetch(`${API_BASE}/api/expenses/custom-add`, {
+      const res = await authFetch(`${API_BASE}/api/expenses/custom-add`, {
         method: "POST",
         headers: { "Content-Type": "application/json" },
         body: JSON.stringify(payload),
@@ -184,8 +187,8 @@ export default function AddExpense() {
     const total = shares.reduce((s, it) => s + Number(it.amount || 0), 0);
     const orig = Number(amount);
 
-    // mismatch -> open modal
-    if (Math.round(total * 100) / 100 !== Math.round(orig * 100) / 100) {
+    // mismatch -> open modal (equal splits are exact on the backend)
+    if (splitType === "custom" && Math.round(total * 100) / 100 !== Math.round(orig * 100) / 100) {
       setModalInfo({ totalShares: total, originalAmount: orig, sharesArray: shares });
       setModalOpen(true);
       return;
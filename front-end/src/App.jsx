@@ -32,6 +32,7 @@ export default function App() {
         <Route path="/teams" element={<Teams />} />
         <Route path="/summary" element={<TeamSummary />} />
         <Route path="/join-team" element={<JoinTeam />} />
+        <Route path="/join-team/:code" element={<JoinTeam />} />
         <Route path="/add-expense" element={<AddExpense />} />
         <Route path="/view-expenses" element={<ViewExpenses />} />
         <Route path="/view-person-expenses" element={<ViewPersonExpenses />} />
@@ -55,6 +55,7 @@ export default function Auth() {
       }
 
       localStorage.setItem("token", data.token);
+      localStorage.setItem("refreshToken", data.refreshToken);
       localStorage.setItem("email", data.email);
       localStorage.setItem("userId", data.userId);
 
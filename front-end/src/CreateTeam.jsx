@@ -1,5 +1,6 @@
 import React, { useState } from "react";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function CreateTeam() {
   const [teamName, setTeamName] = useState("");
@@ -10,7 +11,7 @@ export default function CreateTeam() {
   const createTeam = async (e) => {
     e.preventDefault();
 
-    const res = await fetch(`${API_BASE}/api/team/create`, {
+    const res = await authFetch(`${API_BASE}/api/team/create`, {
       method: "POST",
       headers: { "Content-Type": "application/json" },
       body: JSON.stringify({ teamName, email }),
@@ -23,9 +24,17 @@ export default function CreateTeam() {
 
     const data = await res.json();
 
+    // QR is served (and browser-cached) by the backend, not sent inline.
+    // It holds the join code, so it needs the token → fetched, not <img src>
+    let qrUrl = "";
+    if (data.qrUrl) {
+      const qr = await authFetch(`${API_BASE}${data.qrUrl}`);
+      if (qr.ok) qrUrl = URL.createObjectURL(await qr.blob());
+    }
+
     setResult({
       joinCode: data.joinCode || "",
-      qr: data.qrBase64 || "",
+      qrUrl,
     });
   };
 
@@ -172,11 +181,11 @@ export default function CreateTeam() {
             <h2>Team Created Successfully</h2>
             <p><b>Join Code:</b> {result.joinCode}</p>
 
-            {result.qr && (
+            {result.qrUrl && (
               <>
                 <p><b>QR Code:</b></p>
                 <img
-                  src={`data:image/png;base64,${result.qr}`}
+                  src={result.qrUrl}
                   alt="QR Code"
                 />
               </>
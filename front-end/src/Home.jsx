@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import API_BASE from "./config.js";
+import { authFetch, logoutSession } from "./api.js";
 import { Link, useNavigate } from "react-router-dom";
 import {
   Users,
@@ -35,7 +36,7 @@ export default function Home() {
   // ------------ LOAD USER -------------
   useEffect(() => {
     if (!userId) return;
-    fetch(`${API_BASE}/api/auth/user/${userId}`)
+    authFetch(`${API_BASE}/api/auth/user/${userId}`)
       .then((r) => r.json())
       .then((d) => setFullName(d.fullName || "User"));
   }, [userId]);
@@ -44,7 +45,7 @@ export default function Home() {
   useEffect(() => {
     if (!userId) return;
     async function load() {
-      const tRes = await fetch(
+      const tRes = await authFetch(
         `${API_BASE}/api/team/my-teams/${userId}`
       );
       const tData = await tRes.json();
@@ -55,14 +56,14 @@ export default function Home() {
       let pending = 0;
       await Promise.all(
         list.map(async (team) => {
-          const exRes = await fetch(
+          const exRes = await authFetch(
             `${API_BASE}/api/expenses/team/${team.id}`
           );
           const exData = await exRes.json();
           if (Array.isArray(exData)) {
             total += exData.reduce((a, b) => a + (Number(b.amount) || 0), 0);
           }
-          const pRes = await fetch(
+          const pRes = await authFetch(
             `${API_BASE}/api/expenses/pending-approvals/${team.id}/${userId}`
           );
           const pData = await pRes.json();
@@ -89,8 +90,8 @@ export default function Home() {
     }
   }, [dark]);
 
-  const logout = () => {
-    localStorage.clear();
+  const logout = async () => {
+    await logoutSession();
     navigate("/");
   };
 
@@ -1,9 +1,14 @@
 import React, { useEffect, useState } from "react";
+import { useParams } from "react-router-dom";
 import { Html5QrcodeScanner } from "html5-qrcode";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function JoinTeam() {
-  const [joinCode, setJoinCode] = useState("");
+  // Opened from a team's QR code: /join-team/<joinCode>
+  const { code } = useParams();
+
+  const [joinCode, setJoinCode] = useState(code || "");
   const [message, setMessage] = useState("");
   const [showScanner, setShowScanner] = useState(false);
 
@@ -16,7 +21,7 @@ export default function JoinTeam() {
     }
 
     const url = `${API_BASE}/api/team/join?joinCode=${code}&email=${email}`;
-    const res = await fetch(url, { method: "POST" });
+    const res = await authFetch(url, { method: "POST" });
 
     const data = await res.text();
     setMessage(res.ok ? "Joined Successfully!" : data);
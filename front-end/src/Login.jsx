@@ -20,6 +20,7 @@ export default function Login() {
 
     if (res.ok) {
       localStorage.setItem("token", data.token);
+      localStorage.setItem("refreshToken", data.refreshToken);
       localStorage.setItem("email", email);
       localStorage.setItem("userId", data.userId);   
 
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 import { FiSun, FiMoon, FiCamera, FiSave, FiUser } from "react-icons/fi";
 
 export default function Profile() {
@@ -30,7 +31,7 @@ export default function Profile() {
   // Load user details from backend
   useEffect(() => {
     async function loadUser() {
-      const res = await fetch(`${API_BASE}/api/auth/user/${userId}`);
+      const res = await authFetch(`${API_BASE}/api/auth/user/${userId}`);
       const data = await res.json();
 
       setForm({
@@ -64,7 +65,7 @@ export default function Profile() {
   };
 
   const saveProfile = async () => {
-    const res = await fetch(`${API_BASE}/api/auth/user/${userId}`, {
+    const res = await authFetch(`${API_BASE}/api/auth/user/${userId}`, {
       method: "PUT",
       headers: { "Content-Type": "application/json" },
       body: JSON.stringify(form),
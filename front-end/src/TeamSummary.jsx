@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function TeamSummary() {
   const [teams, setTeams] = useState([]);
@@ -24,20 +25,20 @@ export default function TeamSummary() {
   // ============================================
   const loadTeams = async () => {
     try {
-      const res = await fetch(`${API_BASE}/api/team/my-teams/${userId}`);
+      const res = await authFetch(`${API_BASE}/api/team/my-teams/${userId}`);
       const data = await res.json();
 
       const fullData = [];
 
       for (const team of data) {
         // 1) Expense summary
-        const summaryRes = await fetch(
+        const summaryRes = await authFetch(
           `${API_BASE}/api/expenses/summary/${team.id}`
         );
         const summaryRaw = await summaryRes.json();
 
         // 2) Fetch all members using the correct API
-        const memRes = await fetch(
+        const memRes = await authFetch(
           `${API_BASE}/api/team/members/${team.id}`
         );
         const members = await memRes.json();
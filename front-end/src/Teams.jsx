@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function Teams() {
   const [teams, setTeams] = useState([]);
@@ -14,7 +15,7 @@ export default function Teams() {
 
   const loadTeams = async () => {
     try {
-      const res = await fetch(`${API_BASE}/api/team/my-teams/${userId}`);
+      const res = await authFetch(`${API_BASE}/api/team/my-teams/${userId}`);
       const data = await res.json();
 
       if (Array.isArray(data)) setTeams(data);
@@ -29,7 +30,7 @@ export default function Teams() {
   const openQR = async (team) => {
     try {
       // FETCH MEMBERS
-      const mRes = await fetch(`${API_BASE}/api/team/members/${team.id}`);
+      const mRes = await authFetch(`${API_BASE}/api/team/members/${team.id}`);
       const users = await mRes.json();
 
       setQrTeam({
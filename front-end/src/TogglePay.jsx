@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function TogglePay() {
   const [teams, setTeams] = useState([]);
@@ -20,13 +21,13 @@ export default function TogglePay() {
   }, [teamId]);
 
   const loadTeams = async () => {
-    const res = await fetch(`${API_BASE}/api/team/my-teams/${userId}`);
+    const res = await authFetch(`${API_BASE}/api/team/my-teams/${userId}`);
     setTeams(await res.json());
   };
 
   const loadMembers = async (tid) => {
   try {
-    const res = await fetch(`${API_BASE}/api/team/members/${tid}`);
+    const res = await authFetch(`${API_BASE}/api/team/members/${tid}`);
     const list = await res.json();
 
     const map = {};
@@ -42,7 +43,7 @@ export default function TogglePay() {
 
 
   const loadExpenses = async (tid) => {
-  const res = await fetch(`${API_BASE}/api/expenses/team/${tid}`);
+  const res = await authFetch(`${API_BASE}/api/expenses/team/${tid}`);
   const data = await res.json();
   setExpenses(data);
 
@@ -63,7 +64,7 @@ export default function TogglePay() {
       body.proofImage = base64;
     }
 
-    await fetch(`${API_BASE}/api/expenses/pay`, {
+    await authFetch(`${API_BASE}/api/expenses/pay`, {
       method: "POST",
       headers: { "Content-Type": "application/json" },
       body: JSON.stringify(body),
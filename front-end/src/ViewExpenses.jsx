@@ -1,5 +1,6 @@
 import React, { useEffect, useState } from "react";
 import API_BASE from "./config.js";
+import { authFetch } from "./api.js";
 
 export default function ViewExpenses() {
   const [teamId, setTeamId] = useState("");
@@ -14,7 +15,7 @@ export default function ViewExpenses() {
   }, []);
 
   const loadTeams = async () => {
-    const res = await fetch(`${API_BASE}/api/team/my-teams/${userId}`);
+    const res = await authFetch(`${API_BASE}/api/team/my-teams/${userId}`);
     const data = await res.json();
     setTeams(data);
   };
@@ -23,7 +24,7 @@ export default function ViewExpenses() {
     setTeamId(id);
     setExpenses([]);
 
-    const res = await fetch(`${API_BASE}/api/expenses/team/${id}`);
+    const res = await authFetch(`${API_BASE}/api/expenses/team/${id}`);
     const data = await res.json();
     setExpenses(data);
 
@@ -38,7 +39,7 @@ export default function ViewExpenses() {
       if (users[uid]) continue;
 
       try {
-        const r = await fetch(`${API_BASE}/api/auth/user/${uid}`);
+        const r = await authFetch(`${API_BASE}/api/auth/user/${uid}`);
 
         if (r.ok) {
           const u = await r.json();
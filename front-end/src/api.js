@@ -1,12 +1,86 @@
 import API_BASE from "./config.js";
 
+function withToken(url, options) {
+  const token = localStorage.getItem("token");
+  const headers = { ...(options.headers || {}) };
+  if (token) headers.Authorization = `Bearer ${token}`;
+  return fetch(url, { ...options, headers });
+}
+
+// One refresh at a time: calls failing together all wait for the same one
+// (refresh tokens are single-use).
+let refreshing = null;
+
+function refreshTokens() {
+  if (!refreshing) {
+    refreshing = (async () => {
+      const refreshToken = localStorage.getItem("refreshToken");
+      if (!refreshToken) return false;
+
+      const res = await fetch(`${API_BASE}/api/auth/refresh`, {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ refreshToken }),
+      });
+      if (!res.ok) {
+        // Another tab may have rotated it meanwhile → use its tokens
+        return localStorage.getItem("refreshToken") !== refreshToken;
+      }
+
+      const data = await res.json();
+      localStorage.setItem("token", data.token);
+      localStorage.setItem("refreshToken", data.refreshToken);
+      return true;
+    })()
+      .catch(() => false)
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+}
+
+// fetch() that sends the access token as "Authorization: Bearer ...".
+// Access tokens are short-lived: on 401 the refresh token gets a new one
+// and the call is repeated once; if that fails too → back to login.
+export async function authFetch(url, options = {}) {
+  let res = await withToken(url, options);
+
+  if (res.status === 401) {
+    if (await refreshTokens()) res = await withToken(url, options);
+
+    if (res.status === 401) {
+      localStorage.clear();
+      window.location.href = "/";
+    }
+  }
+  return res;
+}
+
+// Ends the session on the server (its tokens stop working), then locally.
+export async function logoutSession() {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (refreshToken) {
+    try {
+      await fetch(`${API_BASE}/api/auth/logout`, {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ refreshToken }),
+      });
+    } catch {
+      // Offline: the tokens simply expire
+    }
+  }
+  localStorage.clear();
+}
+
 export async function getExpenses() {
-  const res = await fetch(`${API_BASE}/api/expenses`);
+  const res = await authFetch(`${API_BASE}/api/expenses`);
   return res.json();
 }
 
 export async function addExpense(expense) {
-  const res = await fetch(`${API_BASE}/api/expenses`, {
+  const res = await authFetch(`${API_BASE}/api/expenses`, {
     method: "POST",
     headers: { "Content-Type": "application/json" },
     body: JSON.stringify(expense),
@@ -15,7 +89,7 @@ export async function addExpense(expense) {
 }
 
 export async function createTeam(teamName, email) {
-  const response = await fetch(`${API_BASE}/api/team/create`, {
+  const response = await authFetch(`${API_BASE}/api/team/create`, {
     method: "POST",
     headers: { "Content-Type": "application/json" },
     body: JSON.stringify({ teamName, email }),